@@ -1,8 +1,12 @@
 package com.example.backend.config;
 
 import com.example.backend.repository.UserRepository;
+import com.example.backend.service.CredentialCacheService;
+import com.example.backend.service.TokenService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,6 +16,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -25,14 +30,16 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/signup").permitAll()
+                        .requestMatchers("/api/auth/signup", "/api/auth/login", "/api/auth/refresh").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
+                // Bearer tokens from /api/auth/login skip the per-request BCrypt check of Basic
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
                 .httpBasic(Customizer.withDefaults());
 
         return http.build();
@@ -51,14 +58,19 @@ public class SecurityConfig {
         return source;
     }
 
+    // Basic auth checks the password on every request; verified credentials are cached briefly.
+    // The lookup is not a bean of its own, so this provider is the only one Spring wires in
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
+    public AuthenticationProvider authenticationProvider(UserRepository userRepository,
+            PasswordEncoder passwordEncoder, CredentialCacheService credentialCacheService) {
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(passwordEncoder);
+        dao.setUserDetailsService(userDetailsService(userRepository));
+        return new CachingAuthenticationProvider(dao, credentialCacheService);
+    }
+
+    private static UserDetailsService userDetailsService(UserRepository userRepository) {
         return username -> userRepository.findByUsername(username)
-                .map(user -> org.springframework.security.core.userdetails.User.builder()
-                        .username(user.getUsername())
-                        .password(user.getPassword())
-                        .roles(user.getRole())
-                        .build())
+                .map(user -> new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole(), user.getPassword()))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
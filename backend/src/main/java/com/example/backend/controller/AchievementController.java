@@ -1,16 +1,18 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.entity.Achievement;
 import com.example.backend.entity.User;
 import com.example.backend.service.AchievementService;
+import com.example.backend.service.ContentVersionService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -23,10 +25,14 @@ public class AchievementController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
     @GetMapping("/my")
-    public List<Achievement> getMyAchievements(Principal principal) {
-        User user = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return achievementService.getUserAchievements(user);
+    public ResponseEntity<List<Achievement>> getMyAchievements(AuthenticatedUser me, WebRequest request) {
+        return HttpCaching.conditional(request, HttpCaching.REVALIDATE, "achievements-" + me.getId(), () -> {
+            User user = userService.getCachedUser(me.getId());
+            return achievementService.getUserAchievements(user);
+        }, contentVersionService.profile(me.getId()));
     }
 }
@@ -1,14 +1,23 @@
 package com.example.backend.controller;
 
 import com.example.backend.entity.Game;
+import com.example.backend.entity.LeaderboardSeason;
 import com.example.backend.entity.User;
 import com.example.backend.service.GameService;
+import com.example.backend.service.LeaderboardService;
 import com.example.backend.service.ScoreService;
+import com.example.backend.service.UserDirectoryService;
 import com.example.backend.service.UserService;
+import com.example.backend.service.WindowedLeaderboardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +35,15 @@ public class AdminController {
     @Autowired
     private ScoreService scoreService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
     @GetMapping("/dashboard")
     public Map<String, Object> getDashboard() {
         Map<String, Object> stats = new HashMap<>();
@@ -35,9 +53,49 @@ public class AdminController {
         return stats;
     }
 
+    // Keyset pages by id: pass the previous page's nextCursor to continue. activeWithinDays
+    // matches last_active_at, which is written when a session ends
     @GetMapping("/users")
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<?> getUsers(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size, @RequestParam(required = false) String role,
+            @RequestParam(required = false) Integer activeWithinDays,
+            @RequestParam(required = false) Integer minScore, @RequestParam(required = false) Integer maxScore) {
+        try {
+            return ResponseEntity.ok(userDirectoryService.getPage(
+                    filter(role, activeWithinDays, minScore, maxScore), cursor, Math.min(Math.max(size, 1), 200)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // format: csv or ndjson; same filters as /users
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String role, @RequestParam(required = false) Integer activeWithinDays,
+            @RequestParam(required = false) Integer minScore, @RequestParam(required = false) Integer maxScore) {
+        try {
+            UserDirectoryService.Format exportFormat = UserDirectoryService.Format.of(format);
+            UserDirectoryService.Filter filter = filter(role, activeWithinDays, minScore, maxScore);
+            StreamingResponseBody body = out -> userDirectoryService.export(filter, exportFormat, out);
+            boolean csv = exportFormat == UserDirectoryService.Format.CSV;
+            return ResponseEntity.ok()
+                    .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                            : MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"")
+                    .body(body);
+        } catch (RuntimeException e) {
+            String message = e.getMessage();
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write(String.valueOf(message).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static UserDirectoryService.Filter filter(String role, Integer activeWithinDays, Integer minScore,
+            Integer maxScore) {
+        return new UserDirectoryService.Filter(role == null || role.isBlank() ? null : role.toUpperCase(),
+                activeWithinDays == null ? null : LocalDateTime.now().minusDays(activeWithinDays),
+                minScore, maxScore);
     }
 
     @DeleteMapping("/users/{id}")
@@ -60,9 +118,15 @@ public class AdminController {
         }
     }
 
-    @GetMapping("/leaderboard")
-    public List<User> getLeaderboard() {
-        return userService.getTopUsersByScore();
+    @GetMapping(value = "/leaderboard", produces = MediaType.APPLICATION_JSON_VALUE)
+    public byte[] getLeaderboard() {
+        return leaderboardService.getTopPageJson();
+    }
+
+    // Freezes the current season's standings and starts an empty one
+    @PostMapping("/seasons")
+    public LeaderboardSeason startNewSeason() {
+        return windowedLeaderboardService.startNewSeason();
     }
 
     @GetMapping("/games")
@@ -1,13 +1,18 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.dto.LoginRequest;
+import com.example.backend.dto.RefreshRequest;
+import com.example.backend.dto.TokenResponse;
 import com.example.backend.entity.User;
+import com.example.backend.service.PresenceService;
+import com.example.backend.service.TokenService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -15,6 +20,12 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private TokenService tokenService;
+
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@jakarta.validation.Valid @RequestBody User user) {
         try {
@@ -25,10 +36,40 @@ public class AuthController {
         }
     }
 
+    // Checks the password once and hands out bearer tokens for every later request
+    @PostMapping("/login")
+    public ResponseEntity<?> login(@jakarta.validation.Valid @RequestBody LoginRequest request) {
+        return userService.authenticate(request.getUsername(), request.getPassword())
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok(tokensFor(user)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password"));
+    }
+
+    // Trades a refresh token for a new pair; the old refresh token stays valid until it expires
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@jakarta.validation.Valid @RequestBody RefreshRequest request) {
+        return tokenService.verify(request.getRefreshToken(), TokenService.Type.REFRESH)
+                .flatMap(claims -> userService.findById(claims.userId())
+                        .filter(user -> tokenService.isCurrent(claims, user)))
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok(tokensFor(user)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired refresh token"));
+    }
+
+    private TokenResponse tokensFor(User user) {
+        return new TokenResponse(tokenService.issueAccessToken(user), tokenService.issueRefreshToken(user), "Bearer",
+                tokenService.getAccessTtlSeconds(), user);
+    }
+
     @GetMapping("/me")
-    public ResponseEntity<User> getCurrentUser(Principal principal) {
-        return userService.findByUsername(principal.getName())
+    public ResponseEntity<User> getCurrentUser(AuthenticatedUser me) {
+        return userService.findById(me.getId())
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    // Tokens are stateless and simply dropped by the client, so this only marks the user offline
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(AuthenticatedUser me) {
+        presenceService.logout(userService.getCachedUser(me.getId()));
+        return ResponseEntity.ok("Logged out");
+    }
 }
@@ -1,12 +1,12 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
 import com.example.backend.service.CheckersRoomService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -22,9 +22,9 @@ public class CheckersRoomController {
     private UserService userService;
 
     @PostMapping("/{roomId}/start")
-    public ResponseEntity<?> startGame(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> startGame(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = checkersRoomService.startGame(roomId, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -34,9 +34,9 @@ public class CheckersRoomController {
 
     @PostMapping("/{roomId}/move")
     public ResponseEntity<?> makeMove(@PathVariable Long roomId, @RequestBody Map<String, Object> moveData,
-            Authentication auth) {
+            AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = checkersRoomService.updateMove(roomId, user, moveData);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -45,9 +45,9 @@ public class CheckersRoomController {
     }
 
     @PostMapping("/{roomId}/replay")
-    public ResponseEntity<?> requestReplay(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> requestReplay(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = checkersRoomService.requestReplay(roomId, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
 import com.example.backend.service.ChessRoomService;
@@ -8,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.Map;
 
 @RestController
@@ -23,9 +23,9 @@ public class ChessRoomController {
     private UserService userService;
 
     @PostMapping("/{roomId}/start")
-    public ResponseEntity<?> startGame(@PathVariable Long roomId, Principal principal) {
+    public ResponseEntity<?> startGame(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(principal.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = chessRoomService.startGame(roomId, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -35,9 +35,9 @@ public class ChessRoomController {
 
     @PostMapping("/{roomId}/move")
     public ResponseEntity<?> makeMove(@PathVariable Long roomId, @RequestBody Map<String, Object> moveData,
-            Principal principal) {
+            AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(principal.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = chessRoomService.updateMove(roomId, user, moveData);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
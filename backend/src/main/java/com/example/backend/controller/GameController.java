@@ -5,6 +5,7 @@ import com.example.backend.service.GameService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,8 +19,9 @@ public class GameController {
     // Seeding is now handled by GameService @PostConstruct
 
     @GetMapping
-    public List<Game> getAllGames() {
-        return gameService.getAllGames();
+    public ResponseEntity<List<Game>> getAllGames(WebRequest request) {
+        return HttpCaching.conditional(request, HttpCaching.SHORT_LIVED, "games", gameService::getAllGames,
+                gameService.getCatalogVersion());
     }
 
     @DeleteMapping("/{name}")
@@ -0,0 +1,42 @@
+package com.example.backend.controller;
+
+import com.example.backend.util.VersionStamp;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GETs for read-mostly endpoints whose content carries a
+ * {@link VersionStamp}. The ETag comes from version numbers, so a repeat
+ * request is answered with 304 before the body is queried or serialized.
+ */
+final class HttpCaching {
+
+    // Responses are per signed-in client; browsers revalidate every time
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // Changes only through admin deletes, so a short staleness is fine
+    static final CacheControl SHORT_LIVED = CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate();
+
+    private HttpCaching() {
+    }
+
+    /**
+     * 304 when the request's If-None-Match (or If-Modified-Since) still matches
+     * the given versions, otherwise 200 with the body built only then.
+     * Versions must be read before the body; see {@link VersionStamp}.
+     */
+    static <T> ResponseEntity<T> conditional(WebRequest request, CacheControl cacheControl, String scope,
+            Supplier<T> body, VersionStamp.Version... versions) {
+        String etag = VersionStamp.etag(scope, versions);
+        // Also sets the ETag and Last-Modified headers on the response
+        if (request.checkNotModified(etag, VersionStamp.lastModified(versions))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+    }
+}
@@ -1,12 +1,12 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.entity.GameMatch;
 import com.example.backend.entity.User;
 import com.example.backend.service.MatchService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,16 +22,16 @@ public class MatchController {
     private UserService userService;
 
     @GetMapping("/my")
-    public List<GameMatch> getMyMatches(Authentication auth) {
-        User user = userService.findByUsername(auth.getName()).get();
+    public List<GameMatch> getMyMatches(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         return matchService.getMyMatches(user);
     }
 
     @PostMapping("/invite/{username}")
     public ResponseEntity<?> invite(@PathVariable String username,
             @jakarta.validation.Valid @RequestBody com.example.backend.dto.InviteRequest request,
-            Authentication auth) {
-        User user = userService.findByUsername(auth.getName()).get();
+            AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         try {
             return ResponseEntity.ok(
                     matchService.createMatchInvite(user, username, request.getGameType(), request.getInitialBoard()));
@@ -41,8 +41,8 @@ public class MatchController {
     }
 
     @PostMapping("/{matchId}/accept")
-    public ResponseEntity<?> accept(@PathVariable @org.springframework.lang.NonNull Long matchId, Authentication auth) {
-        User user = userService.findByUsername(auth.getName()).get();
+    public ResponseEntity<?> accept(@PathVariable @org.springframework.lang.NonNull Long matchId, AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         try {
             return ResponseEntity.ok(matchService.acceptMatch(matchId, user));
         } catch (Exception e) {
@@ -53,8 +53,8 @@ public class MatchController {
     @PostMapping("/{matchId}/move")
     public ResponseEntity<?> move(@PathVariable @org.springframework.lang.NonNull Long matchId,
             @jakarta.validation.Valid @RequestBody com.example.backend.dto.MoveRequest request,
-            Authentication auth) {
-        User user = userService.findByUsername(auth.getName()).get();
+            AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         try {
             return ResponseEntity
                     .ok(matchService.updateMove(matchId, request.getBoardData(), request.getNextTurn(), user));
@@ -72,14 +72,19 @@ public class MatchController {
 
     @PostMapping("/{matchId}/finish")
     public ResponseEntity<?> finish(@PathVariable @org.springframework.lang.NonNull Long matchId,
-            @RequestBody com.example.backend.dto.FinishMatchRequest request) {
-        return ResponseEntity.ok(matchService.finishMatch(matchId, request.getStatus()));
+            @RequestBody com.example.backend.dto.FinishMatchRequest request, AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        try {
+            return ResponseEntity.ok(matchService.finishMatch(matchId, request.getStatus(), request.getWinner(), user));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping("/{matchId}/decline")
     public ResponseEntity<?> decline(@PathVariable @org.springframework.lang.NonNull Long matchId,
-            Authentication auth) {
-        User user = userService.findByUsername(auth.getName()).get();
+            AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         try {
             return ResponseEntity.ok(matchService.declineMatch(matchId, user));
         } catch (Exception e) {
@@ -89,8 +94,8 @@ public class MatchController {
 
     @PostMapping("/{matchId}/forfeit")
     public ResponseEntity<?> forfeit(@PathVariable @org.springframework.lang.NonNull Long matchId,
-            Authentication auth) {
-        User user = userService.findByUsername(auth.getName()).get();
+            AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         try {
             return ResponseEntity.ok(matchService.forfeitMatch(matchId, user));
         } catch (Exception e) {
@@ -100,8 +105,8 @@ public class MatchController {
 
     @PostMapping("/{matchId}/replay")
     public ResponseEntity<?> replay(@PathVariable @org.springframework.lang.NonNull Long matchId,
-            Authentication auth) {
-        User user = userService.findByUsername(auth.getName()).get();
+            AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         try {
             return ResponseEntity.ok(matchService.requestReplay(matchId, user));
         } catch (Exception e) {
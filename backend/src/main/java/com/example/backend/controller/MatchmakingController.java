@@ -0,0 +1,48 @@
+package com.example.backend.controller;
+
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.entity.User;
+import com.example.backend.service.MatchmakingService;
+import com.example.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/matchmaking")
+public class MatchmakingController {
+
+    @Autowired
+    private MatchmakingService matchmakingService;
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping("/queue/{gameType}")
+    public ResponseEntity<?> enqueue(@PathVariable String gameType, AuthenticatedUser me) {
+        try {
+            User user = userService.getCachedUser(me.getId());
+            return ResponseEntity.ok(matchmakingService.enqueue(user, gameType));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/queue")
+    public ResponseEntity<?> cancel(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        if (!matchmakingService.cancel(user)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Already matched"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Left queue"));
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<?> status(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        return ResponseEntity.ok(matchmakingService.getStatus(user));
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.dto.UserProfileDTO;
 import com.example.backend.entity.User;
 import com.example.backend.repository.ActivityRepository;
 import com.example.backend.service.AchievementService;
+import com.example.backend.service.ContentVersionService;
+import com.example.backend.service.GameLeaderboardService;
+import com.example.backend.service.GameService;
+import com.example.backend.service.LeaderboardService;
+import com.example.backend.service.UserGameStatsService;
 import com.example.backend.service.UserService;
+import com.example.backend.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
-
-import java.security.Principal;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/profiles")
@@ -25,24 +32,44 @@ public class ProfileController {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Autowired
+    private UserGameStatsService userGameStatsService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private GameService gameService;
+
     @GetMapping("/{username}")
-    public ResponseEntity<UserProfileDTO> getProfile(@PathVariable String username) {
+    public ResponseEntity<UserProfileDTO> getProfile(@PathVariable String username, WebRequest request) {
         User user = userService.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        UserProfileDTO dto = new UserProfileDTO();
-        dto.setUser(user);
-        dto.setAchievements(achievementService.getUserAchievements(user));
-        dto.setRecentActivities(activityRepository.findByUserOrderByCreatedAtDesc(user).stream().limit(10).toList());
-
-        return ResponseEntity.ok(dto);
+        // Game stats are labelled from the catalog, so a catalog change moves the tag too
+        return HttpCaching.conditional(request, HttpCaching.REVALIDATE, "profile-" + user.getId(), () -> {
+            UserProfileDTO dto = new UserProfileDTO();
+            dto.setUser(user);
+            dto.setAchievements(achievementService.getUserAchievements(user));
+            dto.setRecentActivities(activityRepository.findUserPageAfter(user.getId(),
+                    KeysetCursor.START.createdAt(), KeysetCursor.START.id(), Limit.of(10)));
+            dto.setGameStats(userGameStatsService.getStats(user));
+            return dto;
+        }, contentVersionService.profile(user.getId()), gameService.getCatalogVersion());
     }
 
     @PutMapping("/me")
     public ResponseEntity<User> updateProfile(
             @jakarta.validation.Valid @RequestBody com.example.backend.dto.UpdateProfileRequest request,
-            Principal principal) {
-        User user = userService.findByUsername(principal.getName())
+            AuthenticatedUser me) {
+        // Fresh row: this copy is written back whole
+        User user = userService.findById(me.getId())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         if (request.getBio() != null)
@@ -58,6 +85,10 @@ public class ProfileController {
         if (request.getAvatarEmoji() != null)
             user.setAvatarEmoji(request.getAvatarEmoji());
 
-        return ResponseEntity.ok(userService.saveUser(user));
+        User saved = userService.saveUser(user);
+        // Names and avatars are baked into the cached leaderboard pages
+        leaderboardService.onProfileChanged(saved.getId());
+        gameLeaderboardService.onProfileChanged(saved.getId());
+        return ResponseEntity.ok(saved);
     }
 }
@@ -0,0 +1,39 @@
+package com.example.backend.controller;
+
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.entity.User;
+import com.example.backend.service.RatingService;
+import com.example.backend.service.UserService;
+import com.example.backend.util.Glicko2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ratings")
+public class RatingController {
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/my")
+    public Map<String, Glicko2.Rating> getMyRatings(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        return ratingService.getUserRatings(user.getId());
+    }
+
+    @GetMapping("/{gameType}/top")
+    public List<Map<String, Object>> getTopRatings(@PathVariable String gameType,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ratingService.getTopRatings(gameType, Math.min(Math.max(limit, 1), 100));
+    }
+}
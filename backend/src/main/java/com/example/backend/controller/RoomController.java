@@ -1,12 +1,12 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
 import com.example.backend.service.RoomService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -22,9 +22,9 @@ public class RoomController {
     private UserService userService;
 
     @PostMapping("/create")
-    public ResponseEntity<?> createRoom(@RequestBody Map<String, Object> body, Authentication auth) {
+    public ResponseEntity<?> createRoom(@RequestBody Map<String, Object> body, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             String gameType = (String) body.get("gameType");
             int maxPlayers = (int) body.getOrDefault("maxPlayers", 2);
 
@@ -39,9 +39,9 @@ public class RoomController {
     }
 
     @PostMapping("/join/{code}")
-    public ResponseEntity<?> joinRoom(@PathVariable String code, Authentication auth) {
+    public ResponseEntity<?> joinRoom(@PathVariable String code, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = roomService.joinRoom(code, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -58,9 +58,9 @@ public class RoomController {
     }
 
     @PostMapping("/{id}/leave")
-    public ResponseEntity<?> leaveRoom(@PathVariable Long id, Authentication auth) {
+    public ResponseEntity<?> leaveRoom(@PathVariable Long id, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = roomService.leaveRoom(id, user);
             return ResponseEntity.ok(Map.of("message", "Left room", "roomId", id));
         } catch (Exception e) {
@@ -1,16 +1,23 @@
 package com.example.backend.controller;
 
-import com.example.backend.entity.Score;
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.dto.ScoreSummary;
 import com.example.backend.entity.User;
+import com.example.backend.service.GameLeaderboardService;
+import com.example.backend.service.LeaderboardService;
+import com.example.backend.service.ScoreIngestionService;
 import com.example.backend.service.ScoreService;
 import com.example.backend.service.UserService;
+import com.example.backend.service.WindowedLeaderboardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/scores")
@@ -19,18 +26,31 @@ public class ScoreController {
     @Autowired
     private ScoreService scoreService;
 
+    @Autowired
+    private ScoreIngestionService scoreIngestionService;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Autowired
+    private WindowedLeaderboardService windowedLeaderboardService;
+
     @PostMapping
     public ResponseEntity<?> submitScore(
             @jakarta.validation.Valid @RequestBody com.example.backend.dto.SubmitScoreRequest request,
-            Principal principal) {
-        User user = userService.findByUsername(principal.getName())
+            AuthenticatedUser me) {
+        // Fresh row: the cached copy may lag queued score totals
+        User user = userService.findById(me.getId())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         try {
-            User updatedUser = scoreService.submitScore(user, request.getGameType(), request.getScore());
+            User updatedUser = scoreIngestionService.submit(user, request.getGameType(), request.getScore());
             return ResponseEntity.ok(updatedUser);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -38,14 +58,72 @@ public class ScoreController {
     }
 
     @GetMapping("/my")
-    public List<Score> getMyScores(Principal principal) {
-        User user = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return scoreService.getUserScores(user);
+    public List<ScoreSummary> getMyScores(AuthenticatedUser me) {
+        return scoreService.getUserScores(me.getId());
+    }
+
+    @GetMapping(value = "/leaderboard", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getLeaderboard(WebRequest request) {
+        return HttpCaching.conditional(request, HttpCaching.REVALIDATE, "leaderboard",
+                leaderboardService::getTopPageJson, leaderboardService.getTopPageVersion());
+    }
+
+    @GetMapping("/leaderboard/page")
+    public List<Map<String, Object>> getLeaderboardPage(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return leaderboardService.getPage(Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+    }
+
+    @GetMapping("/leaderboard/games/{gameType}")
+    public List<Map<String, Object>> getGameLeaderboard(@PathVariable String gameType,
+            @RequestParam(defaultValue = "10") int limit) {
+        return gameLeaderboardService.getTop(gameType, Math.max(limit, 0));
+    }
+
+    // window: daily, weekly or season; game: optional game type, otherwise totals across games
+    @GetMapping("/leaderboard/windows/{window}")
+    public ResponseEntity<?> getWindowLeaderboard(@PathVariable String window,
+            @RequestParam(required = false) String game, @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(windowedLeaderboardService.getCurrent(
+                    WindowedLeaderboardService.Window.valueOf(window.toUpperCase()), game,
+                    Math.min(Math.max(limit, 1), 100)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Final standings of a closed window, e.g. /leaderboard/windows/daily/2026-10-18
+    @GetMapping("/leaderboard/windows/{window}/{key}")
+    public ResponseEntity<?> getClosedWindowLeaderboard(@PathVariable String window, @PathVariable String key,
+            @RequestParam(required = false) String game) {
+        try {
+            return ResponseEntity.ok(windowedLeaderboardService.getFrozen(
+                    WindowedLeaderboardService.Window.valueOf(window.toUpperCase()), key, game));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // scope: global or friends; game and window narrow the board the same way as the endpoints above
+    @GetMapping("/leaderboard/around-me")
+    public ResponseEntity<?> getAroundMe(@RequestParam(required = false) String game,
+            @RequestParam(required = false) String window, @RequestParam(defaultValue = "global") String scope,
+            @RequestParam(defaultValue = "5") int n, AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        try {
+            WindowedLeaderboardService.Window board = window == null || window.isBlank() ? null
+                    : WindowedLeaderboardService.Window.valueOf(window.toUpperCase());
+            return ResponseEntity.ok(leaderboardService.getAroundMe(user, game, board,
+                    "friends".equalsIgnoreCase(scope), Math.min(Math.max(n, 0), 25)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    @GetMapping("/leaderboard")
-    public List<User> getLeaderboard() {
-        return userService.getTopUsersByScore();
+    @GetMapping("/leaderboard/me")
+    public Map<String, Object> getMyRank(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        return leaderboardService.getRank(user);
     }
 }
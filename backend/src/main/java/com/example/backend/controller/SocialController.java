@@ -1,16 +1,24 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.entity.Activity;
 import com.example.backend.entity.FriendRequest;
 import com.example.backend.entity.User;
+import com.example.backend.service.ContentVersionService;
+import com.example.backend.service.FriendSuggestionService;
+import com.example.backend.service.PresenceService;
+import com.example.backend.service.PresenceStreamService;
 import com.example.backend.service.SocialService;
+import com.example.backend.service.TimelineService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -23,10 +31,24 @@ public class SocialController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private PresenceStreamService presenceStreamService;
+
+    @Autowired
+    private FriendSuggestionService friendSuggestionService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
     @PostMapping("/request/{username}")
-    public ResponseEntity<?> sendRequest(@PathVariable String username, Principal principal) {
-        User sender = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public ResponseEntity<?> sendRequest(@PathVariable String username, AuthenticatedUser me) {
+        User sender = userService.getCachedUser(me.getId());
         try {
             socialService.sendFriendRequest(sender, username);
             return ResponseEntity.ok("Request sent");
@@ -36,9 +58,8 @@ public class SocialController {
     }
 
     @PostMapping("/accept/{requestId}")
-    public ResponseEntity<?> acceptRequest(@PathVariable Long requestId, Principal principal) {
-        User receiver = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public ResponseEntity<?> acceptRequest(@PathVariable Long requestId, AuthenticatedUser me) {
+        User receiver = userService.getCachedUser(me.getId());
         try {
             socialService.acceptFriendRequest(receiver, requestId);
             return ResponseEntity.ok("Request accepted");
@@ -48,23 +69,26 @@ public class SocialController {
     }
 
     @GetMapping("/requests/pending")
-    public List<FriendRequest> getPendingRequests(Principal principal) {
-        User user = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public List<FriendRequest> getPendingRequests(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         return socialService.getPendingRequests(user);
     }
 
     @GetMapping("/friends")
-    public List<User> getFriends(Principal principal) {
-        User user = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public List<User> getFriends(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         return socialService.getFriends(user);
     }
 
+    @GetMapping("/suggestions")
+    public List<FriendSuggestionService.Suggestion> getSuggestions(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        return friendSuggestionService.getSuggestions(user);
+    }
+
     @DeleteMapping("/unfriend/{username}")
-    public ResponseEntity<?> unfriend(@PathVariable String username, Principal principal) {
-        User user = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public ResponseEntity<?> unfriend(@PathVariable String username, AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
         try {
             socialService.unfriend(user, username);
             return ResponseEntity.ok("Unfriended successfully");
@@ -74,27 +98,74 @@ public class SocialController {
     }
 
     @GetMapping("/feed")
-    public List<Activity> getGlobalFeed() {
-        return socialService.getGlobalFeed();
+    public ResponseEntity<List<Activity>> getGlobalFeed(WebRequest request) {
+        return HttpCaching.conditional(request, HttpCaching.REVALIDATE, "feed", socialService::getGlobalFeed,
+                contentVersionService.globalFeed());
+    }
+
+    // Cursor-paged feeds: pass the previous page's nextCursor to continue
+    @GetMapping("/feed/global")
+    public ResponseEntity<?> getGlobalFeedPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(socialService.getGlobalFeed(cursor, pageSize(size)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/feed/friends")
+    public ResponseEntity<?> getFriendsFeed(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size, AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        try {
+            return ResponseEntity.ok(timelineService.getFriendsFeed(user, cursor, pageSize(size)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/feed/users/{username}")
+    public ResponseEntity<?> getUserFeed(@PathVariable String username, @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        User user = userService.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        try {
+            return ResponseEntity.ok(socialService.getUserFeed(user, cursor, pageSize(size)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), 50);
     }
 
     @GetMapping("/online")
-    public List<User> getOnlineUsers(Principal principal) {
-        User currentUser = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public List<User> getOnlineUsers(AuthenticatedUser me) {
+        User currentUser = userService.getCachedUser(me.getId());
         // Update current user's activity
-        userService.updateLastActive(currentUser);
+        presenceService.touch(currentUser);
         // Return online users excluding self
-        return userService.getOnlineUsers().stream()
+        return presenceService.getOnlineUsers().stream()
                 .filter(u -> !u.getUsername().equals(currentUser.getUsername()))
                 .toList();
     }
 
+    // game is the catalog type of the game being played (e.g. "lane-racer"), if any; friends see it as "in game"
     @PostMapping("/heartbeat")
-    public ResponseEntity<?> heartbeat(Principal principal) {
-        User user = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        userService.updateLastActive(user);
+    public ResponseEntity<?> heartbeat(@RequestParam(required = false) String game, AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        if (game != null && !game.matches("[a-z0-9-]{1,32}")) {
+            return ResponseEntity.badRequest().body("Invalid game");
+        }
+        presenceService.touch(user, game);
         return ResponseEntity.ok("OK");
     }
+
+    @GetMapping(path = "/presence/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter presenceStream(AuthenticatedUser me) {
+        User user = userService.getCachedUser(me.getId());
+        return presenceStreamService.subscribe(user);
+    }
 }
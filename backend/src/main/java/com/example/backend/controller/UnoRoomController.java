@@ -1,14 +1,17 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.dto.RoomSummary;
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
+import com.example.backend.service.TurnTimerService;
 import com.example.backend.service.UnoRoomService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,11 +27,15 @@ public class UnoRoomController {
 
     // Create a new room
     @PostMapping("/rooms")
-    public ResponseEntity<?> createRoom(@RequestBody Map<String, Integer> body, Authentication auth) {
+    public ResponseEntity<?> createRoom(@RequestBody Map<String, Integer> body, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             int maxPlayers = body.getOrDefault("maxPlayers", 4);
-            GameRoom room = unoRoomService.createRoom(user, maxPlayers);
+            Map<String, Object> settings = new HashMap<>();
+            if (body.containsKey(TurnTimerService.TURN_TIMEOUT_SETTING)) {
+                settings.put(TurnTimerService.TURN_TIMEOUT_SETTING, body.get(TurnTimerService.TURN_TIMEOUT_SETTING));
+            }
+            GameRoom room = unoRoomService.createRoom(user, maxPlayers, settings);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -37,7 +44,7 @@ public class UnoRoomController {
 
     // Get room by ID
     @GetMapping("/rooms/{roomId}")
-    public ResponseEntity<?> getRoom(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> getRoom(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
             GameRoom room = unoRoomService.getRoom(roomId);
             if (room == null) {
@@ -51,7 +58,7 @@ public class UnoRoomController {
 
     // Get room by invite code
     @GetMapping("/rooms/code/{inviteCode}")
-    public ResponseEntity<?> getRoomByCode(@PathVariable String inviteCode, Authentication auth) {
+    public ResponseEntity<?> getRoomByCode(@PathVariable String inviteCode, AuthenticatedUser me) {
         try {
             GameRoom room = unoRoomService.getRoomByInviteCode(inviteCode);
             if (room == null) {
@@ -65,9 +72,9 @@ public class UnoRoomController {
 
     // Join a room
     @PostMapping("/rooms/join/{inviteCode}")
-    public ResponseEntity<?> joinRoom(@PathVariable String inviteCode, Authentication auth) {
+    public ResponseEntity<?> joinRoom(@PathVariable String inviteCode, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = unoRoomService.joinRoom(inviteCode, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -77,9 +84,9 @@ public class UnoRoomController {
 
     // Leave a room
     @PostMapping("/rooms/{roomId}/leave")
-    public ResponseEntity<?> leaveRoom(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> leaveRoom(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = unoRoomService.leaveRoom(roomId, user);
             if (room == null) {
                 return ResponseEntity.ok(Map.of("message", "Room closed"));
@@ -92,9 +99,9 @@ public class UnoRoomController {
 
     // Start the game
     @PostMapping("/rooms/{roomId}/start")
-    public ResponseEntity<?> startGame(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> startGame(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = unoRoomService.startGame(roomId, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -107,9 +114,9 @@ public class UnoRoomController {
     public ResponseEntity<?> playCard(
             @PathVariable Long roomId,
             @RequestBody Map<String, String> body,
-            Authentication auth) {
+            AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             String cardId = body.get("cardId");
             String chosenColor = body.get("chosenColor");
             GameRoom room = unoRoomService.playCard(roomId, user, cardId, chosenColor);
@@ -121,9 +128,9 @@ public class UnoRoomController {
 
     // Draw a card
     @PostMapping("/rooms/{roomId}/draw")
-    public ResponseEntity<?> drawCard(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> drawCard(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = unoRoomService.drawCard(roomId, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -133,9 +140,9 @@ public class UnoRoomController {
 
     // Pass turn (after drawing a playable card)
     @PostMapping("/rooms/{roomId}/pass")
-    public ResponseEntity<?> passTurn(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> passTurn(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = unoRoomService.passTurn(roomId, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -145,10 +152,9 @@ public class UnoRoomController {
 
     // Get user's active rooms
     @GetMapping("/my-rooms")
-    public ResponseEntity<?> getMyRooms(Authentication auth) {
+    public ResponseEntity<?> getMyRooms(AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
-            List<GameRoom> rooms = unoRoomService.getUserActiveRooms(user);
+            List<RoomSummary> rooms = unoRoomService.getUserActiveRooms(me.getUsername());
             return ResponseEntity.ok(rooms);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -157,9 +163,9 @@ public class UnoRoomController {
 
     // Play again
     @PostMapping("/rooms/{roomId}/play-again")
-    public ResponseEntity<?> playAgain(@PathVariable Long roomId, Authentication auth) {
+    public ResponseEntity<?> playAgain(@PathVariable Long roomId, AuthenticatedUser me) {
         try {
-            User user = userService.findByUsername(auth.getName()).orElseThrow();
+            User user = userService.getCachedUser(me.getId());
             GameRoom room = unoRoomService.playAgain(roomId, user);
             return ResponseEntity.ok(room);
         } catch (Exception e) {
@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** One user in the admin listing and export; profile text and credentials are left out. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserRow {
+    private Long id;
+    private String username;
+    private String displayName;
+    private String role;
+    private Integer level;
+    private Integer totalScore;
+    private LocalDateTime lastActiveAt;
+}
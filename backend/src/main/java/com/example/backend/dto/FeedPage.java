@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.Activity;
+import com.example.backend.util.KeysetCursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPage {
+    private List<Activity> items;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+
+    /** A page of rows ordered newest first; a full page links on to the rows after its last one. */
+    public static FeedPage of(List<Activity> items, int size) {
+        String next = null;
+        if (!items.isEmpty() && items.size() >= size) {
+            Activity last = items.get(items.size() - 1);
+            next = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPage(items, next);
+    }
+}
@@ -5,4 +5,5 @@ import lombok.Data;
 @Data
 public class FinishMatchRequest {
     private String status = "FINISHED";
+    private String winner; // optional: winner's username or "draw", used for ratings
 }
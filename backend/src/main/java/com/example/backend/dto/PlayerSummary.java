@@ -0,0 +1,27 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The columns leaderboards show for a player, selected straight into this
+ * object so boards never hydrate whole users (bio, links, password hash).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerSummary {
+    private Long id;
+    private String username;
+    private String displayName;
+    private String avatarEmoji;
+    private Integer level;
+    private Integer totalScore;
+
+    public static PlayerSummary of(User user) {
+        return new PlayerSummary(user.getId(), user.getUsername(), user.getDisplayName(), user.getAvatarEmoji(),
+                user.getLevel(), user.getTotalScore());
+    }
+}
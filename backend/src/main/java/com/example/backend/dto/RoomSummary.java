@@ -0,0 +1,27 @@
+package com.example.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Room list entry: everything but the game state, with the host reduced to
+ * a username. A Spring Data interface projection, filled from query aliases.
+ */
+public interface RoomSummary {
+    Long getId();
+
+    String getInviteCode();
+
+    String getGameType();
+
+    String getStatus();
+
+    String getPlayers();
+
+    Integer getMaxPlayers();
+
+    String getCurrentPlayerUsername();
+
+    String getHostUsername();
+
+    LocalDateTime getLastActivityAt();
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** A player's own score row, with the game reduced to its id and type. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreSummary {
+    private Long id;
+    private int scoreValue;
+    private LocalDateTime createdAt;
+    private Long gameId;
+    private String gameType;
+}
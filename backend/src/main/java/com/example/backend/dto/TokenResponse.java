@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponse {
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    // Seconds until the access token expires
+    private long expiresIn;
+    private User user;
+}
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -16,4 +17,5 @@ public class UserProfileDTO {
     private User user;
     private List<Achievement> achievements;
     private List<Activity> recentActivities;
+    private List<Map<String, Object>> gameStats;
 }
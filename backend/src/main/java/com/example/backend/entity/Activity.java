@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activities")
+@Table(name = "activities", indexes = {
+        @Index(name = "idx_activities_created", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_activities_user_created", columnList = "user_id, created_at DESC, id DESC") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
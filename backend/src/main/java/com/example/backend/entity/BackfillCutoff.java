@@ -0,0 +1,23 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Last score id a one-off backfill covers; later scores are counted as they arrive
+@Entity
+@Table(name = "backfill_cutoffs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillCutoff {
+    @Id
+    private String name;
+
+    private long scoreId;
+
+    private LocalDateTime takenAt;
+}
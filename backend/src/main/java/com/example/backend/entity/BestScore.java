@@ -0,0 +1,33 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per user per game holding their personal best
+@Entity
+@Table(name = "best_scores", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "game_id" }),
+        indexes = @Index(name = "idx_best_scores_game_score", columnList = "game_id, score_value DESC"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestScore {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Column(name = "score_value")
+    private int scoreValue;
+
+    @Column(name = "achieved_at")
+    private LocalDateTime achievedAt;
+}
@@ -0,0 +1,21 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Marks a one-off data backfill as finished, so a partly failed one runs again on the next start
+@Entity
+@Table(name = "completed_backfills")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletedBackfill {
+    @Id
+    private String name;
+
+    private LocalDateTime completedAt;
+}
@@ -37,4 +37,8 @@ public class GameMatch {
 
     private Boolean player1Replay = false;
     private Boolean player2Replay = false;
+
+    // Result each player reported when the game ended: a username or "draw"
+    private String player1Result;
+    private String player2Result;
 }
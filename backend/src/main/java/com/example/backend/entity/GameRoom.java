@@ -1,5 +1,6 @@
 package com.example.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,6 +26,7 @@ public class GameRoom {
 
     @ManyToOne
     @JoinColumn(name = "host_id")
+    @JsonIncludeProperties({ "id", "username", "displayName", "avatarEmoji" })
     private User host; // Room creator
 
     @Column(columnDefinition = "TEXT")
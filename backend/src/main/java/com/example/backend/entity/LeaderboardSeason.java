@@ -0,0 +1,22 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "leaderboard_seasons")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardSeason {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt; // null for the running season
+}
@@ -0,0 +1,35 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Frozen final standings of a closed leaderboard window; never updated after it is written
+@Entity
+@Table(name = "leaderboard_snapshots",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "window_kind", "window_key", "game_type" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "window_kind", nullable = false)
+    private String windowKind; // DAILY, WEEKLY, SEASON
+
+    @Column(name = "window_key", nullable = false)
+    private String windowKey; // e.g. 2026-10-19, 2026-W42, season-3
+
+    @Column(name = "game_type", nullable = false)
+    private String gameType; // "all" for the combined board
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String standings; // JSON array of rows
+
+    private LocalDateTime frozenAt;
+}
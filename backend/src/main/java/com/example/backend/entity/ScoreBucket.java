@@ -0,0 +1,38 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Per-day aggregate of one user's scores in one game, tagged with the season it counted towards
+@Entity
+@Table(name = "score_buckets",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "bucket_day", "season_id", "user_id", "game_id" }),
+        indexes = { @Index(name = "idx_score_buckets_day", columnList = "bucket_day"),
+                @Index(name = "idx_score_buckets_season", columnList = "season_id") })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreBucket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "season_id", nullable = false)
+    private Long seasonId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    private long totalScore;
+    private int bestScore;
+}
@@ -0,0 +1,42 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Running totals per user per game, kept up to date as games are played
+@Entity
+@Table(name = "user_game_stats", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "game_id" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserGameStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Column(name = "games_played")
+    private int gamesPlayed;
+
+    @Column(name = "score_sum")
+    private long scoreSum;
+
+    @Column(name = "best_score")
+    private int bestScore;
+
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+
+    // Score history from before live counting has been added; null on rows the backfill has not reached
+    @Column(name = "backfilled")
+    private Boolean backfilled;
+}
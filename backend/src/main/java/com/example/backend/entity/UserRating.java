@@ -0,0 +1,35 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_ratings", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "game_type" }),
+        indexes = @Index(name = "idx_user_ratings_game_rating", columnList = "game_type, rating"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRating {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain id rather than a User relation: the table is loaded whole into memory
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "game_type", nullable = false)
+    private String gameType;
+
+    private double rating;
+    private double deviation;
+    private double volatility;
+    private int gamesPlayed;
+    private boolean ratedThisPeriod; // played since the last rating-period close
+
+    private LocalDateTime updatedAt;
+}
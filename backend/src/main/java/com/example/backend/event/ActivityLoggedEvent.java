@@ -0,0 +1,10 @@
+package com.example.backend.event;
+
+import com.example.backend.entity.Activity;
+
+/**
+ * Published when an activity row is saved; friend timelines pick it up after
+ * commit.
+ */
+public record ActivityLoggedEvent(Activity activity) {
+}
@@ -0,0 +1,8 @@
+package com.example.backend.event;
+
+/**
+ * Published when two users become friends ({@code friends} true) or stop being
+ * friends.
+ */
+public record FriendshipChangedEvent(Long userId, Long otherId, boolean friends) {
+}
@@ -0,0 +1,46 @@
+package com.example.backend.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published when a multiplayer room or match reaches a result.
+ *
+ * @param gameType  lower-case game type, e.g. "uno", "checkers"
+ * @param standings usernames ordered best-first; for a draw the order is
+ *                  meaningless
+ * @param draw      true when nobody won
+ */
+public record GameFinishedEvent(String gameType, List<String> standings, boolean draw) {
+
+    public GameFinishedEvent {
+        gameType = gameType.toLowerCase();
+        standings = List.copyOf(standings);
+    }
+
+    /**
+     * Builds the event for a two-sided room game from its color-to-username map
+     * and the winning color (or "draw"). Seats without a real player (e.g. "AI")
+     * are left out.
+     */
+    public static GameFinishedEvent fromColors(String gameType, Map<String, String> playersByColor,
+            String winnerColor) {
+        boolean draw = "draw".equals(winnerColor);
+        List<String> standings = new ArrayList<>();
+        String winner = draw ? null : playersByColor.get(winnerColor);
+        if (winner != null) {
+            standings.add(winner);
+        }
+        for (String username : playersByColor.values()) {
+            if (username != null && !"AI".equals(username) && !username.equals(winner)) {
+                standings.add(username);
+            }
+        }
+        return new GameFinishedEvent(gameType, standings, draw);
+    }
+
+    public String winner() {
+        return draw || standings.isEmpty() ? null : standings.get(0);
+    }
+}
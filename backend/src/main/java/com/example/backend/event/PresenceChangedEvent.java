@@ -0,0 +1,10 @@
+package com.example.backend.event;
+
+import com.example.backend.entity.User;
+
+/**
+ * Published when a user comes online, goes offline, or starts or stops playing
+ * a game. {@code game} is the game type being played, or null.
+ */
+public record PresenceChangedEvent(User user, boolean online, String game) {
+}
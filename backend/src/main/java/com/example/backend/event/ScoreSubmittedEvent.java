@@ -0,0 +1,12 @@
+package com.example.backend.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code ScoreService} for every accepted score.
+ *
+ * @param totalScore the user's total score after this submission
+ */
+public record ScoreSubmittedEvent(Long userId, Long gameId, String gameType, int scoreValue, long totalScore,
+        LocalDateTime createdAt) {
+}
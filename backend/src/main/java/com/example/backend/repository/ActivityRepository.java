@@ -2,16 +2,32 @@ package com.example.backend.repository;
 
 import com.example.backend.entity.Activity;
 import com.example.backend.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
-    List<Activity> findTop50ByOrderByCreatedAtDesc();
+    // Keyset pages, newest first: rows strictly after (createdAt, id); see KeysetCursor
+    @Query("SELECT a FROM Activity a WHERE a.createdAt <= :createdAt AND (a.createdAt < :createdAt OR a.id < :id) "
+            + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Limit limit);
 
-    List<Activity> findByUserOrderByCreatedAtDesc(User user);
+    @Query("SELECT a FROM Activity a WHERE a.user.id = :userId AND a.createdAt <= :createdAt "
+            + "AND (a.createdAt < :createdAt OR a.id < :id) ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findUserPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") long id, Limit limit);
+
+    @Query("SELECT a FROM Activity a WHERE a.user.id IN :userIds AND a.createdAt <= :createdAt "
+            + "AND (a.createdAt < :createdAt OR a.id < :id) ORDER BY a.createdAt DESC, a.id DESC")
+    List<Activity> findUsersPageAfter(@Param("userIds") Collection<Long> userIds,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Limit limit);
 
     void deleteByUser(User user);
 }
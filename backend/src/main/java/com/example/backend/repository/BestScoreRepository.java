@@ -0,0 +1,44 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.BestScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BestScoreRepository extends JpaRepository<BestScore, Long> {
+    @Query("SELECT MAX(b.scoreValue) FROM BestScore b WHERE b.userId = :userId")
+    Integer findTopScoreByUserId(@Param("userId") Long userId);
+
+    // Inserts the first best or raises an existing one in a single statement, so two first
+    // scores submitted at once cannot both try to insert; never lowers a best (Postgres upsert)
+    @Modifying
+    @Query(value = "INSERT INTO best_scores (user_id, game_id, score_value, achieved_at) "
+            + "VALUES (:userId, :gameId, :score, :achievedAt) "
+            + "ON CONFLICT (user_id, game_id) DO UPDATE SET score_value = EXCLUDED.score_value, "
+            + "achieved_at = EXCLUDED.achieved_at WHERE best_scores.score_value < EXCLUDED.score_value",
+            nativeQuery = true)
+    int upsertBest(@Param("userId") Long userId, @Param("gameId") Long gameId, @Param("score") int score,
+            @Param("achievedAt") LocalDateTime achievedAt);
+
+    // One-off fill for databases that predate the table; achieved_at is when the best was first reached
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO best_scores (user_id, game_id, score_value, achieved_at) "
+            + "SELECT user_id, game_id, score_value, created_at FROM ("
+            + "SELECT user_id, game_id, score_value, created_at, ROW_NUMBER() OVER ("
+            + "PARTITION BY user_id, game_id ORDER BY score_value DESC, created_at ASC) AS position FROM scores "
+            + "WHERE user_id IS NOT NULL AND game_id IS NOT NULL) ranked WHERE position = 1", nativeQuery = true)
+    int backfillFromScores();
+
+    @Transactional
+    void deleteByUserId(Long userId);
+
+    @Transactional
+    void deleteByGameId(Long gameId);
+}
@@ -10,17 +10,21 @@ import java.util.List;
 
 @Repository
 public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
-    @Query("SELECT f FROM Friendship f WHERE f.user1 = :user OR f.user2 = :user")
-    List<Friendship> findByAnyUser(@org.springframework.data.repository.query.Param("user") User user);
+    @Query("SELECT CASE WHEN f.user1.id = :userId THEN f.user2.id ELSE f.user1.id END FROM Friendship f "
+            + "WHERE f.user1.id = :userId OR f.user2.id = :userId")
+    List<Long> findFriendIds(@org.springframework.data.repository.query.Param("userId") Long userId);
+
+    @Query("SELECT f.user1.id, f.user2.id FROM Friendship f")
+    List<Object[]> findAllEdges();
+
+    @Query(value = "SELECT uid FROM (SELECT user1_id AS uid FROM friendships UNION ALL "
+            + "SELECT user2_id AS uid FROM friendships) f GROUP BY uid HAVING COUNT(*) > :limit", nativeQuery = true)
+    List<Long> findUserIdsWithMoreFriendsThan(@org.springframework.data.repository.query.Param("limit") int limit);
 
     @org.springframework.data.jpa.repository.Modifying
     @Query("DELETE FROM Friendship f WHERE f.user1 = :user OR f.user2 = :user")
     void deleteByAnyUser(@org.springframework.data.repository.query.Param("user") User user);
 
-    @Query("SELECT f FROM Friendship f WHERE (f.user1 = :u1 AND f.user2 = :u2) OR (f.user1 = :u2 AND f.user2 = :u1)")
-    java.util.Optional<Friendship> findByUsers(@org.springframework.data.repository.query.Param("u1") User u1,
-            @org.springframework.data.repository.query.Param("u2") User u2);
-
     @org.springframework.data.jpa.repository.Modifying
     @Query("DELETE FROM Friendship f WHERE (f.user1 = :u1 AND f.user2 = :u2) OR (f.user1 = :u2 AND f.user2 = :u1)")
     void deleteByUsers(@org.springframework.data.repository.query.Param("u1") User u1,
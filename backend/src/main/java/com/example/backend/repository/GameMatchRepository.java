@@ -3,10 +3,12 @@ package com.example.backend.repository;
 import com.example.backend.entity.GameMatch;
 import com.example.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,10 +17,34 @@ public interface GameMatchRepository extends JpaRepository<GameMatch, Long> {
     @Query("SELECT m FROM GameMatch m WHERE (m.player1 = :user OR m.player2 = :user) AND m.status = :status")
     List<GameMatch> findByUserAndStatus(@Param("user") User user, @Param("status") String status);
 
+    List<GameMatch> findByStatus(String status);
+
+    // How often each pair of players has played, counting started, finished and forfeited matches
+    @Query(value = "SELECT player1_id, player2_id, COUNT(*) FROM game_matches "
+            + "WHERE status IN ('ACTIVE', 'FINISHED', 'FORFEITED') AND player2_id IS NOT NULL "
+            + "GROUP BY player1_id, player2_id", nativeQuery = true)
+    List<Object[]> countPlayedPairs();
+
     @Query("SELECT m FROM GameMatch m WHERE (m.player1 = :user OR m.player2 = :user) AND m.status <> 'FINISHED' AND m.status <> 'CANCELLED' AND m.status <> 'DECLINED'")
     List<GameMatch> findAllActiveByUser(@Param("user") User user);
 
     // Check if a pending/active match already exists between two players
     @Query("SELECT m FROM GameMatch m WHERE ((m.player1 = :user1 AND m.player2 = :user2) OR (m.player1 = :user2 AND m.player2 = :user1)) AND (m.status = 'PENDING' OR m.status = 'ACTIVE')")
     List<GameMatch> findExistingMatchBetweenPlayers(@Param("user1") User user1, @Param("user2") User user2);
+
+    // Conditional writes: the row lock makes concurrent finish reports run one after the other, and
+    // each returns 0 when the report or the transition already happened
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GameMatch m SET m.player1Result = :result WHERE m.id = :id AND m.player1Result IS NULL "
+            + "AND m.status IN ('ACTIVE', 'FINISHED')")
+    int reportPlayer1Result(@Param("id") Long id, @Param("result") String result);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GameMatch m SET m.player2Result = :result WHERE m.id = :id AND m.player2Result IS NULL "
+            + "AND m.status IN ('ACTIVE', 'FINISHED')")
+    int reportPlayer2Result(@Param("id") Long id, @Param("result") String result);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE GameMatch m SET m.status = 'FINISHED', m.lastMoveAt = :now WHERE m.id = :id AND m.status = 'ACTIVE'")
+    int finishIfActive(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
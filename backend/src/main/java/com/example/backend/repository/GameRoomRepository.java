@@ -1,5 +1,6 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.RoomSummary;
 import com.example.backend.entity.GameRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -12,8 +13,16 @@ import java.util.Optional;
 public interface GameRoomRepository extends JpaRepository<GameRoom, Long> {
     Optional<GameRoom> findByInviteCode(String inviteCode);
 
-    @Query(value = "SELECT * FROM game_rooms WHERE players LIKE %:username% AND status != 'FINISHED'", nativeQuery = true)
-    List<GameRoom> findActiveRoomsByPlayer(String username);
+    @Query("SELECT r.id AS id, r.inviteCode AS inviteCode, r.gameType AS gameType, r.status AS status, "
+            + "r.players AS players, r.maxPlayers AS maxPlayers, r.currentPlayerUsername AS currentPlayerUsername, "
+            + "h.username AS hostUsername, r.lastActivityAt AS lastActivityAt "
+            + "FROM GameRoom r LEFT JOIN r.host h WHERE r.players LIKE %:username% AND r.status <> 'FINISHED'")
+    List<RoomSummary> findActiveRoomsByPlayer(@org.springframework.data.repository.query.Param("username")
+            String username);
 
     List<GameRoom> findByStatus(String status);
+
+    // Rosters of rooms that got past the lobby, with how many games they played
+    @Query("SELECT r.players, r.gamesPlayed FROM GameRoom r WHERE r.status <> 'WAITING' OR r.gamesPlayed > 0")
+    List<Object[]> findPlayedRosters();
 }
@@ -0,0 +1,16 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.LeaderboardSeason;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LeaderboardSeasonRepository extends JpaRepository<LeaderboardSeason, Long> {
+    Optional<LeaderboardSeason> findFirstByEndedAtIsNullOrderByIdDesc();
+
+    // The season that was running at the given time
+    Optional<LeaderboardSeason> findFirstByStartedAtLessThanEqualOrderByStartedAtDesc(LocalDateTime at);
+}
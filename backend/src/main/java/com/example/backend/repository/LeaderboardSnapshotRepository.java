@@ -0,0 +1,13 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.LeaderboardSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LeaderboardSnapshotRepository extends JpaRepository<LeaderboardSnapshot, Long> {
+    Optional<LeaderboardSnapshot> findByWindowKindAndWindowKeyAndGameType(String windowKind, String windowKey,
+            String gameType);
+}
@@ -0,0 +1,36 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.ScoreBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ScoreBucketRepository extends JpaRepository<ScoreBucket, Long> {
+    List<ScoreBucket> findByDayGreaterThanEqual(LocalDate from);
+
+    List<ScoreBucket> findBySeasonId(Long seasonId);
+
+    // Creates the bucket or adds to it in a single statement, so two first scores of the day cannot
+    // both try to insert (Postgres upsert)
+    @Modifying
+    @Query(value = "INSERT INTO score_buckets (bucket_day, season_id, user_id, game_id, total_score, best_score) "
+            + "VALUES (:day, :seasonId, :userId, :gameId, :score, :score) "
+            + "ON CONFLICT (bucket_day, season_id, user_id, game_id) DO UPDATE SET "
+            + "total_score = score_buckets.total_score + EXCLUDED.total_score, "
+            + "best_score = GREATEST(score_buckets.best_score, EXCLUDED.best_score)", nativeQuery = true)
+    int upsertScore(@Param("day") LocalDate day, @Param("seasonId") Long seasonId, @Param("userId") Long userId,
+            @Param("gameId") Long gameId, @Param("score") int score);
+
+    @Transactional
+    void deleteByUserId(Long userId);
+
+    @Transactional
+    void deleteByGameId(Long gameId);
+}
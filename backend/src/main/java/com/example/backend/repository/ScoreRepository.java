@@ -1,9 +1,12 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.ScoreSummary;
 import com.example.backend.entity.Game;
 import com.example.backend.entity.Score;
 import com.example.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,9 +15,11 @@ import java.util.List;
 public interface ScoreRepository extends JpaRepository<Score, Long> {
     List<Score> findByUser(User user);
 
-    void deleteByUser(User user);
+    @Query("SELECT new com.example.backend.dto.ScoreSummary(s.id, s.scoreValue, s.createdAt, g.id, g.type) "
+            + "FROM Score s JOIN s.game g WHERE s.user.id = :userId ORDER BY s.createdAt DESC, s.id DESC")
+    List<ScoreSummary> findSummariesByUserId(@Param("userId") Long userId);
 
-    List<Score> findTop10ByOrderByScoreValueDesc();
+    void deleteByUser(User user);
 
     void deleteByGame(Game game);
 }
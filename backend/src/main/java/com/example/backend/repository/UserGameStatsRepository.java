@@ -0,0 +1,73 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.UserGameStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserGameStatsRepository extends JpaRepository<UserGameStats, Long> {
+    List<UserGameStats> findByUserId(Long userId);
+
+    @Query("SELECT COALESCE(SUM(s.gamesPlayed), 0) FROM UserGameStats s WHERE s.userId = :userId")
+    long sumGamesPlayedByUserId(@Param("userId") Long userId);
+
+    // Create the row or add to it in a single statement, so two first plays of a game cannot both
+    // try to insert (Postgres upserts)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_game_stats (user_id, game_id, games_played, score_sum, best_score, last_played_at) "
+            + "VALUES (:userId, :gameId, 1, :score, :score, :playedAt) "
+            + "ON CONFLICT (user_id, game_id) DO UPDATE SET games_played = user_game_stats.games_played + 1, "
+            + "score_sum = user_game_stats.score_sum + EXCLUDED.score_sum, "
+            + "best_score = GREATEST(user_game_stats.best_score, EXCLUDED.best_score), "
+            + "last_played_at = EXCLUDED.last_played_at", nativeQuery = true)
+    int upsertScore(@Param("userId") Long userId, @Param("gameId") Long gameId, @Param("score") int score,
+            @Param("playedAt") LocalDateTime playedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_game_stats (user_id, game_id, games_played, score_sum, best_score, last_played_at) "
+            + "VALUES (:userId, :gameId, 1, 0, 0, :playedAt) "
+            + "ON CONFLICT (user_id, game_id) DO UPDATE SET games_played = user_game_stats.games_played + 1, "
+            + "last_played_at = EXCLUDED.last_played_at", nativeQuery = true)
+    int upsertGame(@Param("userId") Long userId, @Param("gameId") Long gameId,
+            @Param("playedAt") LocalDateTime playedAt);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM scores", nativeQuery = true)
+    long findMaxScoreId();
+
+    @Query(value = "SELECT COALESCE(MAX(user_id), 0) FROM scores", nativeQuery = true)
+    long findMaxScoredUserId();
+
+    // One-off fill for databases that predate the table, one slice of user ids at a time. Adds the
+    // scores up to the cutoff to rows live scores have already created; each row takes its history
+    // once, so a slice can be run again after a failure
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_game_stats "
+            + "(user_id, game_id, games_played, score_sum, best_score, last_played_at, backfilled) "
+            + "SELECT user_id, game_id, COUNT(*), SUM(score_value), MAX(score_value), MAX(created_at), TRUE "
+            + "FROM scores WHERE user_id BETWEEN :fromId AND :toId AND id <= :cutoffId AND game_id IS NOT NULL "
+            + "GROUP BY user_id, game_id "
+            + "ON CONFLICT (user_id, game_id) DO UPDATE SET "
+            + "games_played = user_game_stats.games_played + EXCLUDED.games_played, "
+            + "score_sum = user_game_stats.score_sum + EXCLUDED.score_sum, "
+            + "best_score = GREATEST(user_game_stats.best_score, EXCLUDED.best_score), "
+            + "last_played_at = GREATEST(user_game_stats.last_played_at, EXCLUDED.last_played_at), "
+            + "backfilled = TRUE WHERE user_game_stats.backfilled IS NOT TRUE",
+            nativeQuery = true)
+    int backfillFromScores(@Param("fromId") long fromId, @Param("toId") long toId, @Param("cutoffId") long cutoffId);
+
+    @Transactional
+    void deleteByUserId(Long userId);
+
+    @Transactional
+    void deleteByGameId(Long gameId);
+}
@@ -0,0 +1,10 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.UserRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserRatingRepository extends JpaRepository<UserRating, Long> {
+    void deleteByUserId(Long userId);
+}
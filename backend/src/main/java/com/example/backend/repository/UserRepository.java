@@ -1,7 +1,9 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.PlayerSummary;
 import com.example.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -12,7 +14,26 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
-    List<User> findTop10ByOrderByTotalScoreDesc();
+    // [id, totalScore] for every user, used to build the in-memory leaderboard
+    @Query("SELECT u.id, u.totalScore FROM User u")
+    List<Object[]> findAllTotalScores();
+
+    @Query("SELECT u.username, u.id FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdsByUsernameIn(@org.springframework.data.repository.query.Param("usernames")
+            java.util.Collection<String> usernames);
+
+    // Leaderboard rows only; in no particular order
+    @Query("SELECT new com.example.backend.dto.PlayerSummary(u.id, u.username, u.displayName, u.avatarEmoji, "
+            + "u.level, u.totalScore) FROM User u WHERE u.id IN :ids")
+    List<PlayerSummary> findSummariesByIdIn(@org.springframework.data.repository.query.Param("ids")
+            java.util.Collection<Long> ids);
+
+    // Same increment as the batched score writer, so neither path can overwrite the other's total
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.totalScore = u.totalScore + :score, u.level = 1 + (u.totalScore + :score) / 1000 "
+            + "WHERE u.id = :id")
+    int addToTotalScore(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("score") int score);
 
     // Find users active within the last X minutes (online users)
     List<User> findByLastActiveAtAfter(LocalDateTime cutoff);
@@ -4,21 +4,66 @@ import com.example.backend.entity.Achievement;
 import com.example.backend.entity.Game;
 import com.example.backend.entity.User;
 import com.example.backend.entity.UserAchievement;
+import com.example.backend.event.GameFinishedEvent;
+import com.example.backend.event.ScoreSubmittedEvent;
 import com.example.backend.repository.AchievementRepository;
+import com.example.backend.repository.BestScoreRepository;
 import com.example.backend.repository.ScoreRepository;
 import com.example.backend.repository.UserAchievementRepository;
+import com.example.backend.repository.UserGameStatsRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.ThresholdIndex;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Awards achievements from score and game-finished events.
+ *
+ * Evaluation runs on its own thread after the triggering transaction commits,
+ * so it adds nothing to submit latency. The backlog is bounded: if it ever
+ * fills, the oldest pending check is dropped (counted as achievements.dropped)
+ * rather than slowing gameplay down. The players it covered lose their cached
+ * counters and are reloaded from user_game_stats and best_scores on their next
+ * event, which then awards whatever the dropped check would have.
+ * Awards are idempotent through the unique (user, achievement) constraint.
+ *
+ * Each player's games played, total score and best single score are kept as
+ * counters, and their earned achievements as a bitset. Achievements are indexed
+ * per counter by threshold, so an event costs a binary search for the
+ * thresholds its counters just crossed, however many achievements there are.
+ */
 @Service
 public class AchievementService {
 
+    private static final Logger log = LoggerFactory.getLogger(AchievementService.class);
+
     @Autowired
     private AchievementRepository achievementRepository;
 
@@ -31,12 +76,119 @@ public class AchievementService {
     @Autowired
     private SocialService socialService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BestScoreRepository bestScoreRepository;
+
+    @Autowired
+    private UserGameStatsRepository userGameStatsRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** The per-player counter an achievement type is measured against. */
+    enum Counter {
+        GAMES_PLAYED("FIRST_GAME"),
+        TOTAL_SCORE("TOTAL_SCORE"),
+        BEST_SCORE("SINGLE_SCORE");
+
+        private final String achievementType;
+
+        Counter(String achievementType) {
+            this.achievementType = achievementType;
+        }
+    }
+
+    // Each achievement gets a bit; per counter, its thresholds point at those bits
+    private record Rules(List<Achievement> achievements, Map<Long, Integer> bitById, ThresholdIndex[] byCounter) {
+
+        static Rules of(List<Achievement> all) {
+            List<Achievement> achievements = List.copyOf(all);
+            Map<Long, Integer> bitById = new HashMap<>();
+            ThresholdIndex[] byCounter = new ThresholdIndex[Counter.values().length];
+            for (Counter counter : Counter.values()) {
+                int[] bits = IntStream.range(0, achievements.size())
+                        .filter(i -> counter.achievementType.equals(achievements.get(i).getType()))
+                        .toArray();
+                long[] thresholds = Arrays.stream(bits).mapToLong(i -> achievements.get(i).getCriteria()).toArray();
+                byCounter[counter.ordinal()] = new ThresholdIndex(thresholds, bits);
+            }
+            for (int i = 0; i < achievements.size(); i++) {
+                bitById.put(achievements.get(i).getId(), i);
+            }
+            return new Rules(achievements, Map.copyOf(bitById), byCounter);
+        }
+    }
+
+    private static final class Progress {
+        final long[] counters = new long[Counter.values().length];
+        final BitSet earned = new BitSet();
+        final LocalDateTime loadedAt;
+
+        Progress(LocalDateTime loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        void raise(Counter counter, long value) {
+            counters[counter.ordinal()] = Math.max(counters[counter.ordinal()], value);
+        }
+    }
+
+    // A pending evaluation and what to forget if it is dropped unrun
+    private record Check(Runnable work, Runnable onDropped) implements Runnable {
+        @Override
+        public void run() {
+            work.run();
+        }
+    }
+
+    private volatile Rules rules;
+    private final Map<Long, Progress> progress = new ConcurrentHashMap<>();
+
+    // Players named in a dropped game-finished check; reloaded on their next evaluation
+    private final Set<String> staleUsernames = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedChecks = new AtomicLong();
+
+    private Executor evaluator = newEvaluator();
+
+    private ExecutorService newEvaluator() {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10000), r -> {
+                    Thread thread = new Thread(r, "achievements");
+                    thread.setDaemon(true);
+                    return thread;
+                }, this::discardOldest);
+    }
+
+    private void discardOldest(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (executor.getQueue().poll() instanceof Check dropped) {
+            dropped.onDropped().run();
+            meterRegistry.counter("achievements.dropped").increment();
+            long count = droppedChecks.incrementAndGet();
+            if (count == 1 || count % 1000 == 0) {
+                log.warn("Achievement backlog full, {} checks dropped so far; "
+                        + "their players are reloaded on their next event", count);
+            }
+        }
+        executor.execute(task);
+    }
+
     @PostConstruct
     public void seedAchievements() {
         seedAchievement("First Game", "Play any game for the first time.", "FIRST_GAME", 1, "🎯");
         seedAchievement("Scout", "Reach a total score of 1,000.", "TOTAL_SCORE", 1000, "🥈");
         seedAchievement("Elite Player", "Reach a total score of 5,000.", "TOTAL_SCORE", 5000, "🥇");
         seedAchievement("High Score", "Get a score of 100 or more in a single game.", "SINGLE_SCORE", 100, "🔥");
+        // Swapped in whole, so evaluations see either the old rules or the new ones
+        rules = Rules.of(achievementRepository.findAll());
     }
 
     private void seedAchievement(String name, String description, String type, Integer criteria, String badge) {
@@ -45,36 +197,115 @@ public class AchievementService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (evaluator instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        LocalDateTime storedAt = event.createdAt() != null ? event.createdAt() : LocalDateTime.now();
+        evaluator.execute(new Check(() -> evaluate(event.userId(), 1, event.scoreValue(), storedAt),
+                () -> progress.remove(event.userId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        LocalDateTime storedAt = LocalDateTime.now();
+        evaluator.execute(new Check(() -> event.standings().forEach(username -> userRepository.findByUsername(username)
+                .ifPresent(player -> evaluate(player.getId(), 1, 0, storedAt))),
+                () -> staleUsernames.addAll(event.standings())));
+    }
+
+    private void evaluate(Long userId, int games, int scoreValue, LocalDateTime storedAt) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId)
+                    .ifPresent(user -> apply(user, games, scoreValue, storedAt)));
+        } catch (RuntimeException e) {
+            // The awards did not commit; reload this player from the database next time
+            progress.remove(userId);
+            if (e instanceof DataIntegrityViolationException) {
+                log.debug("Achievement for user {} already awarded", userId);
+            } else {
+                log.warn("Achievement check failed for user {}", userId, e);
+            }
+        }
+    }
+
+    /** Re-checks a player from their stored stats, counting scoreValue as a single-game score. */
     @Transactional
     public List<Achievement> checkAchievements(User user, Game game, int scoreValue) {
-        // We return the newly earned achievements
-        List<Achievement> allAchievements = achievementRepository.findAll();
-        List<Achievement> earnedSoFar = userAchievementRepository.findByUser(user)
-                .stream().map(UserAchievement::getAchievement).collect(Collectors.toList());
-
-        return allAchievements.stream()
-                .filter(a -> !earnedSoFar.contains(a))
-                .filter(a -> isCriteriaMet(user, game, scoreValue, a))
-                .map(a -> {
-                    awardAchievement(user, a);
-                    socialService.logActivity(user, "ACHIEVEMENT",
-                            "earned the badge " + a.getBadge() + " (" + a.getName() + ")");
-                    return a;
-                })
-                .collect(Collectors.toList());
+        progress.remove(user.getId());
+        return apply(user, 0, scoreValue, LocalDateTime.now());
+    }
+
+    public void forgetUser(Long userId) {
+        progress.remove(userId);
+    }
+
+    // games: games the event adds; storedAt: when it reached user_game_stats
+    private synchronized List<Achievement> apply(User user, int games, int scoreValue, LocalDateTime storedAt) {
+        Rules rules = rules();
+        Progress p = staleUsernames.remove(user.getUsername()) ? null : progress.get(user.getId());
+        long[] before;
+        if (p == null) {
+            // Freshly loaded counters are checked in full, so anything they reach is up for award
+            p = load(user, rules);
+            progress.put(user.getId(), p);
+            before = new long[Counter.values().length];
+            Arrays.fill(before, Long.MIN_VALUE);
+        } else {
+            before = p.counters.clone();
+        }
+        if (storedAt.isAfter(p.loadedAt)) {
+            p.counters[Counter.GAMES_PLAYED.ordinal()] += games;
+        }
+        p.raise(Counter.TOTAL_SCORE, user.getTotalScore());
+        p.raise(Counter.BEST_SCORE, scoreValue);
+
+        BitSet crossed = new BitSet();
+        for (Counter counter : Counter.values()) {
+            rules.byCounter()[counter.ordinal()].forEachCrossed(before[counter.ordinal()],
+                    p.counters[counter.ordinal()], crossed::set);
+        }
+        crossed.andNot(p.earned);
+
+        List<Achievement> earned = new ArrayList<>();
+        for (int bit = crossed.nextSetBit(0); bit >= 0; bit = crossed.nextSetBit(bit + 1)) {
+            Achievement a = rules.achievements().get(bit);
+            p.earned.set(bit);
+            awardAchievement(user, a);
+            socialService.logActivity(user, "ACHIEVEMENT",
+                    "earned the badge " + a.getBadge() + " (" + a.getName() + ")");
+            earned.add(a);
+        }
+        return earned;
+    }
+
+    private Progress load(User user, Rules rules) {
+        Progress p = new Progress(LocalDateTime.now());
+        p.counters[Counter.GAMES_PLAYED.ordinal()] = userGameStatsRepository.sumGamesPlayedByUserId(user.getId());
+        p.counters[Counter.TOTAL_SCORE.ordinal()] = user.getTotalScore();
+        Integer best = bestScoreRepository.findTopScoreByUserId(user.getId());
+        p.counters[Counter.BEST_SCORE.ordinal()] = best == null ? 0 : best;
+        for (UserAchievement ua : userAchievementRepository.findByUser(user)) {
+            Integer bit = rules.bitById().get(ua.getAchievement().getId());
+            if (bit != null) {
+                p.earned.set(bit);
+            }
+        }
+        return p;
     }
 
-    private boolean isCriteriaMet(User user, Game game, int scoreValue, Achievement achievement) {
-        switch (achievement.getType()) {
-            case "FIRST_GAME":
-                return scoreRepository.findByUser(user).size() >= achievement.getCriteria();
-            case "TOTAL_SCORE":
-                return user.getTotalScore() >= achievement.getCriteria();
-            case "SINGLE_SCORE":
-                return scoreValue >= achievement.getCriteria();
-            default:
-                return false;
+    private Rules rules() {
+        Rules current = rules;
+        if (current == null) {
+            current = Rules.of(achievementRepository.findAll());
+            rules = current;
         }
+        return current;
     }
 
     private void awardAchievement(User user, Achievement achievement) {
@@ -0,0 +1,197 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Activity;
+import com.example.backend.event.ActivityLoggedEvent;
+import com.example.backend.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes feed activity off the caller's path.
+ *
+ * An activity is queued once the caller's transaction commits, so a rolled
+ * back action never shows up in a feed, and a drainer inserts the queue in
+ * batches on a short timer or as soon as a batch worth is waiting.
+ * {@link ActivityLoggedEvent} is published once the row exists and has its id.
+ * When the queue is full the caller writes its activity itself, which slows
+ * that caller down instead of losing the entry.
+ */
+@Service
+public class ActivityLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogService.class);
+
+    private static final String INSERT =
+            "INSERT INTO activities (user_id, type, content, created_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${social.activity.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${social.activity.batch-size:200}")
+    private int batchSize = 200;
+
+    private BlockingQueue<Activity> queue;
+
+    // Own transaction even when called while the caller's is completing
+    private TransactionTemplate transactionTemplate;
+
+    // At most one triggered flush waiting; the timer covers anything it misses
+    private final ExecutorService flusher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), r -> {
+                Thread thread = new Thread(r, "activity-writer");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private Counter overflows;
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("social.activity.queued", queue, BlockingQueue::size).register(meterRegistry);
+        overflows = Counter.builder("social.activity.overflow")
+                .description("Activities written by the caller because the queue was full")
+                .register(meterRegistry);
+        dropped = Counter.builder("social.activity.dropped")
+                .description("Activities that could not be written, e.g. for a deleted user")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    public void log(Activity activity) {
+        logAll(List.of(activity));
+    }
+
+    public void logAll(List<Activity> activities) {
+        if (activities.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> enqueue(activities));
+    }
+
+    @Scheduled(fixedDelayString = "${social.activity.flush-ms:100}")
+    public synchronized void flush() {
+        List<Activity> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void enqueue(List<Activity> activities) {
+        List<Activity> overflow = new ArrayList<>();
+        for (Activity activity : activities) {
+            if (!queue.offer(activity)) {
+                overflow.add(activity);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            overflows.increment(overflow.size());
+            writeBatch(overflow);
+        }
+        if (queue.size() >= batchSize) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    private void writeBatch(List<Activity> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} activities failed, writing them one by one", batch.size(), e);
+            for (Activity activity : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(activity)));
+                } catch (RuntimeException single) {
+                    dropped.increment();
+                    log.warn("Dropping {} activity for user {}", activity.getType(), activity.getUser().getId(),
+                            single);
+                }
+            }
+        }
+    }
+
+    private void insert(List<Activity> batch) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Activity activity = batch.get(i);
+                        ps.setLong(1, activity.getUser().getId());
+                        ps.setString(2, activity.getType());
+                        ps.setString(3, activity.getContent());
+                        ps.setTimestamp(4, Timestamp.valueOf(activity.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> ids = keys.getKeyList();
+        if (ids.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated ids, got " + ids.size());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Activity activity = batch.get(i);
+            activity.setId(((Number) ids.get(i).values().iterator().next()).longValue());
+            // Listeners run once this transaction commits
+            eventPublisher.publishEvent(new ActivityLoggedEvent(activity));
+        }
+    }
+
+    int queued() {
+        return queue.size();
+    }
+}
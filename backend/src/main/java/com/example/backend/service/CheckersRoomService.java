@@ -2,10 +2,12 @@ package com.example.backend.service;
 
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
+import com.example.backend.event.GameFinishedEvent;
 import com.example.backend.repository.GameRoomRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,9 @@ public class CheckersRoomService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public GameRoom startGame(Long roomId, User user) throws Exception {
         GameRoom room = gameRoomRepository.findById(roomId)
@@ -134,6 +139,9 @@ public class CheckersRoomService {
             Map<String, String> playersMap = (Map<String, String>) currentGameState.get("players");
             String usernameWinner = playersMap.get(colorWinner);
 
+            if (!"FINISHED".equals(room.getStatus())) {
+                eventPublisher.publishEvent(GameFinishedEvent.fromColors(room.getGameType(), playersMap, colorWinner));
+            }
             room.setStatus("FINISHED");
             currentGameState.put("winner", colorWinner); // Store winner in game state too
 
@@ -2,10 +2,12 @@ package com.example.backend.service;
 
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
+import com.example.backend.event.GameFinishedEvent;
 import com.example.backend.repository.GameRoomRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,9 @@ public class ChessRoomService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Constants matching frontend
     private static final int W_PAWN = 1, W_ROOK = 2, W_KNIGHT = 3, W_BISHOP = 4, W_QUEEN = 5, W_KING = 6;
     private static final int B_PAWN = 11, B_ROOK = 12, B_KNIGHT = 13, B_BISHOP = 14, B_QUEEN = 15, B_KING = 16;
@@ -105,6 +110,11 @@ public class ChessRoomService {
         if (winnerObj != null) {
             String winner = (String) winnerObj;
             currentGameState.put("winner", winner);
+            if (!"FINISHED".equals(room.getStatus())) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> players = (Map<String, String>) currentGameState.get("players");
+                eventPublisher.publishEvent(GameFinishedEvent.fromColors(room.getGameType(), players, winner));
+            }
             room.setStatus("FINISHED");
 
             // Update session stats
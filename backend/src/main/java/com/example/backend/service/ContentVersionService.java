@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.event.ActivityLoggedEvent;
+import com.example.backend.event.GameFinishedEvent;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.AfterCommit;
+import com.example.backend.util.VersionStamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versions of responses assembled from several tables, so their endpoints can
+ * answer a repeat request with 304 before running any query.
+ *
+ * A player's profile version moves with anything shown on it: the user row,
+ * scores, finished matches, activities and achievements (awarded together with
+ * an activity). The global feed moves with every logged activity and with edits
+ * to the users embedded in it. Bumps happen after commit.
+ */
+@Service
+public class ContentVersionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final VersionStamp globalFeed = new VersionStamp();
+    private final Map<Long, VersionStamp> profiles = new ConcurrentHashMap<>();
+
+    public VersionStamp.Version globalFeed() {
+        return globalFeed.current();
+    }
+
+    public VersionStamp.Version profile(Long userId) {
+        return profiles.computeIfAbsent(userId, id -> new VersionStamp()).current();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        touchProfile(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogged(ActivityLoggedEvent event) {
+        touchProfile(event.activity().getUser().getId());
+        globalFeed.bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        for (Object[] row : userRepository.findIdsByUsernameIn(event.standings())) {
+            touchProfile((Long) row[1]);
+        }
+    }
+
+    /** The user row was saved; it shows on the profile and inside feed items. */
+    public void userChanged(Long userId) {
+        AfterCommit.run(() -> {
+            touchProfile(userId);
+            globalFeed.bump();
+        });
+    }
+
+    public void userRemoved(Long userId) {
+        AfterCommit.run(() -> {
+            profiles.remove(userId);
+            globalFeed.bump();
+        });
+    }
+
+    private void touchProfile(Long userId) {
+        profiles.computeIfAbsent(userId, id -> new VersionStamp()).bump();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recently verified HTTP Basic credentials, so repeat requests skip BCrypt and
+ * the user lookup.
+ *
+ * Entries are keyed by an HMAC of username and password under a key that never
+ * leaves the process, so the cache holds no password or reusable hash. They
+ * live for a short TTL in a bounded LRU, and a user's entries are evicted when
+ * their role or password changes or the account is deleted.
+ */
+@Service
+public class CredentialCacheService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private record Entry(String username, Authentication authentication, long expiresAt) {
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.basic-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    @Value("${auth.basic-cache.ttl-seconds:60}")
+    private long ttlSeconds = 60;
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    private Map<String, Entry> entries;
+
+    private Counter hits;
+    private Counter misses;
+
+    public CredentialCacheService() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        key = new SecretKeySpec(bytes, ALGORITHM);
+    }
+
+    @PostConstruct
+    public void init() {
+        entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        Gauge.builder("auth.basic-cache.size", this, CredentialCacheService::size).register(meterRegistry);
+        hits = Counter.builder("auth.basic-cache.requests").tag("result", "hit")
+                .description("Basic logins answered from the cache")
+                .register(meterRegistry);
+        misses = Counter.builder("auth.basic-cache.requests").tag("result", "miss")
+                .description("Basic logins that ran the full BCrypt check")
+                .register(meterRegistry);
+    }
+
+    /** The authentication cached for exactly these credentials, if still fresh. */
+    public Optional<Authentication> get(String username, String password) {
+        String cacheKey = keyOf(username, password);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(cacheKey);
+            if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(cacheKey);
+                entry = null;
+            }
+        }
+        (entry == null ? misses : hits).increment();
+        return Optional.ofNullable(entry).map(Entry::authentication);
+    }
+
+    public void put(String username, String password, Authentication authentication) {
+        Entry entry = new Entry(username, authentication, System.nanoTime() + ttlSeconds * 1_000_000_000L);
+        String cacheKey = keyOf(username, password);
+        synchronized (this) {
+            entries.put(cacheKey, entry);
+        }
+    }
+
+    /** Drops every cached login of the user; call when their password or role changes. */
+    public synchronized void evict(String username) {
+        entries.values().removeIf(entry -> entry.username().equals(username));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private String keyOf(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.repository.FriendshipRepository;
+import com.example.backend.repository.GameMatchRepository;
+import com.example.backend.repository.GameRoomRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.LongHashSet;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * "People you may know": friends of friends ranked by mutual friends plus how
+ * often they have played together in matches and rooms.
+ *
+ * A scheduled batch snapshots the friendship graph and co-play history into
+ * sorted primitive arrays, ranks every user on a fork-join pool, and swaps in
+ * the top results per user. Reading someone's suggestions is a map lookup;
+ * nothing here walks the graph on a request thread.
+ */
+@Service
+public class FriendSuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(FriendSuggestionService.class);
+
+    private static final int BATCH = 1000;
+
+    public record Suggestion(Long userId, String username, String displayName, String avatarEmoji, Integer level,
+            int mutualFriends, int coPlays) {
+    }
+
+    record Candidate(int index, int mutualFriends, int coPlays) {
+        int score() {
+            return mutualFriends + coPlays;
+        }
+    }
+
+    // Users by dense index; ids are sorted and every row of friends and partners is sorted by index
+    record Graph(long[] ids, int[][] friends, int[][] partners, int[][] coPlays) {
+    }
+
+    // Weakest first, so a bounded min-heap can drop it
+    private static final Comparator<Candidate> WEAKEST_FIRST = Comparator.comparingInt(Candidate::score)
+            .thenComparingInt(Candidate::mutualFriends)
+            .thenComparing(Comparator.comparingInt(Candidate::index).reversed());
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private GameMatchRepository gameMatchRepository;
+
+    @Autowired
+    private GameRoomRepository gameRoomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${social.suggestions.top-k:20}")
+    private int topK = 20;
+
+    @Value("${social.suggestions.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    private volatile Map<Long, List<Suggestion>> suggestions = Map.of();
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** Latest suggestions for the user, minus anyone they have befriended since the last run. */
+    public List<Suggestion> getSuggestions(User user) {
+        return suggestions.getOrDefault(user.getId(), List.of()).stream()
+                .filter(s -> !socialGraphService.areFriends(user.getId(), s.userId()))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${social.suggestions.refresh-ms:900000}",
+            initialDelayString = "${social.suggestions.initial-delay-ms:30000}")
+    public void refresh() {
+        long started = System.currentTimeMillis();
+        Graph graph = buildGraph(friendshipRepository.findAllEdges(), loadCoPlays());
+        List<Candidate>[] ranked = rank(graph, topK, pool);
+
+        Set<Long> suggestedIds = new HashSet<>();
+        for (List<Candidate> candidates : ranked) {
+            candidates.forEach(c -> suggestedIds.add(graph.ids()[c.index()]));
+        }
+        Map<Long, User> users = loadUsers(suggestedIds);
+
+        Map<Long, List<Suggestion>> next = new HashMap<>();
+        for (int i = 0; i < ranked.length; i++) {
+            List<Suggestion> list = new ArrayList<>(ranked[i].size());
+            for (Candidate c : ranked[i]) {
+                User user = users.get(graph.ids()[c.index()]);
+                if (user != null) {
+                    list.add(new Suggestion(user.getId(), user.getUsername(), user.getDisplayName(),
+                            user.getAvatarEmoji(), user.getLevel(), c.mutualFriends(), c.coPlays()));
+                }
+            }
+            if (!list.isEmpty()) {
+                next.put(graph.ids()[i], List.copyOf(list));
+            }
+        }
+        suggestions = next;
+        log.info("Ranked friend suggestions for {} users in {} ms", next.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Candidate>[] rank(Graph graph, int topK, ForkJoinPool pool) {
+        List<Candidate>[] ranked = new List[graph.ids().length];
+        pool.invoke(new RankTask(graph, topK, ranked, 0, ranked.length));
+        return ranked;
+    }
+
+    static Graph buildGraph(List<Object[]> edges, Map<Long, Map<Long, Integer>> coPlays) {
+        LongHashSet seen = new LongHashSet();
+        for (Object[] edge : edges) {
+            seen.add(((Number) edge[0]).longValue());
+            seen.add(((Number) edge[1]).longValue());
+        }
+        coPlays.forEach((id, partners) -> {
+            seen.add(id);
+            partners.keySet().forEach(seen::add);
+        });
+        long[] ids = seen.toArray();
+        Arrays.sort(ids);
+
+        int[] degree = new int[ids.length];
+        int[][] pairs = new int[edges.size()][];
+        for (int e = 0; e < pairs.length; e++) {
+            int a = Arrays.binarySearch(ids, ((Number) edges.get(e)[0]).longValue());
+            int b = Arrays.binarySearch(ids, ((Number) edges.get(e)[1]).longValue());
+            pairs[e] = new int[] { a, b };
+            degree[a]++;
+            degree[b]++;
+        }
+        int[][] friends = new int[ids.length][];
+        for (int i = 0; i < ids.length; i++) {
+            friends[i] = new int[degree[i]];
+            degree[i] = 0;
+        }
+        for (int[] pair : pairs) {
+            friends[pair[0]][degree[pair[0]]++] = pair[1];
+            friends[pair[1]][degree[pair[1]]++] = pair[0];
+        }
+        for (int[] row : friends) {
+            Arrays.sort(row);
+        }
+
+        int[][] partners = new int[ids.length][0];
+        int[][] counts = new int[ids.length][0];
+        coPlays.forEach((id, byPartner) -> {
+            int i = Arrays.binarySearch(ids, id);
+            int[][] row = byPartner.entrySet().stream()
+                    .map(p -> new int[] { Arrays.binarySearch(ids, p.getKey()), p.getValue() })
+                    .sorted(Comparator.comparingInt(p -> p[0]))
+                    .toArray(int[][]::new);
+            partners[i] = Arrays.stream(row).mapToInt(p -> p[0]).toArray();
+            counts[i] = Arrays.stream(row).mapToInt(p -> p[1]).toArray();
+        });
+        return new Graph(ids, friends, partners, counts);
+    }
+
+    static List<Candidate> rankOne(Graph graph, int user, int topK) {
+        int[] mine = graph.friends()[user];
+        int[] partners = graph.partners()[user];
+        int[] counts = graph.coPlays()[user];
+        LongHashSet seen = new LongHashSet();
+        PriorityQueue<Candidate> best = new PriorityQueue<>(WEAKEST_FIRST);
+
+        for (int friend : mine) {
+            for (int candidate : graph.friends()[friend]) {
+                if (candidate == user || Arrays.binarySearch(mine, candidate) >= 0 || !seen.add(candidate)) {
+                    continue;
+                }
+                int played = Arrays.binarySearch(partners, candidate);
+                keep(best, new Candidate(candidate, intersectionSize(mine, graph.friends()[candidate]),
+                        played >= 0 ? counts[played] : 0), topK);
+            }
+        }
+        // People they have played with but share no friends with
+        for (int p = 0; p < partners.length; p++) {
+            int candidate = partners[p];
+            if (candidate == user || Arrays.binarySearch(mine, candidate) >= 0 || !seen.add(candidate)) {
+                continue;
+            }
+            keep(best, new Candidate(candidate, 0, counts[p]), topK);
+        }
+
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(WEAKEST_FIRST.reversed());
+        return ranked;
+    }
+
+    static int intersectionSize(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private static void keep(PriorityQueue<Candidate> best, Candidate candidate, int topK) {
+        if (best.size() < topK) {
+            best.add(candidate);
+        } else if (WEAKEST_FIRST.compare(candidate, best.peek()) > 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private static final class RankTask extends RecursiveAction {
+
+        private static final int THRESHOLD = 256;
+
+        private final Graph graph;
+        private final int topK;
+        private final List<Candidate>[] ranked;
+        private final int from;
+        private final int to;
+
+        RankTask(Graph graph, int topK, List<Candidate>[] ranked, int from, int to) {
+            this.graph = graph;
+            this.topK = topK;
+            this.ranked = ranked;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    ranked[i] = rankOne(graph, i, topK);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RankTask(graph, topK, ranked, from, mid), new RankTask(graph, topK, ranked, mid, to));
+        }
+    }
+
+    // user id -> partner id -> games played together
+    private Map<Long, Map<Long, Integer>> loadCoPlays() {
+        Map<Long, Map<Long, Integer>> coPlays = new HashMap<>();
+        for (Object[] row : gameMatchRepository.countPlayedPairs()) {
+            addCoPlay(coPlays, ((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                    ((Number) row[2]).intValue());
+        }
+
+        List<List<String>> rosters = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        for (Object[] row : gameRoomRepository.findPlayedRosters()) {
+            try {
+                List<String> roster = objectMapper.readValue((String) row[0],
+                        new TypeReference<List<Map<String, Object>>>() {
+                        }).stream().map(p -> (String) p.get("username")).filter(u -> u != null).toList();
+                rosters.add(roster);
+                weights.add(row[1] == null ? 1 : Math.max(1, ((Number) row[1]).intValue()));
+                usernames.addAll(roster);
+            } catch (Exception e) {
+                log.debug("Skipping unreadable room roster", e);
+            }
+        }
+        Map<String, Long> idsByUsername = new HashMap<>();
+        for (List<String> chunk : chunks(new ArrayList<>(usernames))) {
+            userRepository.findIdsByUsernameIn(chunk)
+                    .forEach(row -> idsByUsername.put((String) row[0], ((Number) row[1]).longValue()));
+        }
+        for (int r = 0; r < rosters.size(); r++) {
+            List<Long> ids = rosters.get(r).stream().map(idsByUsername::get).filter(id -> id != null).toList();
+            for (int i = 0; i < ids.size(); i++) {
+                for (int j = i + 1; j < ids.size(); j++) {
+                    addCoPlay(coPlays, ids.get(i), ids.get(j), weights.get(r));
+                }
+            }
+        }
+        return coPlays;
+    }
+
+    private static void addCoPlay(Map<Long, Map<Long, Integer>> coPlays, long a, long b, int games) {
+        if (a == b) {
+            return;
+        }
+        coPlays.computeIfAbsent(a, id -> new HashMap<>()).merge(b, games, Integer::sum);
+        coPlays.computeIfAbsent(b, id -> new HashMap<>()).merge(a, games, Integer::sum);
+    }
+
+    private Map<Long, User> loadUsers(Collection<Long> ids) {
+        Map<Long, User> users = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(ids))) {
+            userRepository.findAllById(chunk).forEach(user -> users.put(user.getId(), user));
+        }
+        return users;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += BATCH) {
+            chunks.add(values.subList(i, Math.min(values.size(), i + BATCH)));
+        }
+        return chunks;
+    }
+}
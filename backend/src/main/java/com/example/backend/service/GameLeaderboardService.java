@@ -0,0 +1,163 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PlayerSummary;
+import com.example.backend.entity.BestScore;
+import com.example.backend.entity.Game;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.BestScoreRepository;
+import com.example.backend.repository.GameRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.RankedBoard;
+import com.example.backend.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-game leaderboards of personal bests, one entry per user per game.
+ *
+ * Bests are persisted in best_scores and mirrored in a ranked board per game.
+ * Readers never touch either: each game publishes an immutable snapshot of its
+ * top {@link #TOP_K} that is swapped in only when a submission lands inside
+ * it, so a read is a map lookup no matter how busy the submit path is. Scores
+ * that do not beat the player's best cost no database write at all.
+ */
+@Service
+public class GameLeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(GameLeaderboardService.class);
+
+    public static final int TOP_K = 100;
+
+    @Autowired
+    private BestScoreRepository bestScoreRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // keyed by game type
+    private final Map<String, RankedBoard> boards = new ConcurrentHashMap<>();
+    private final Map<String, List<Map<String, Object>>> topSnapshots = new ConcurrentHashMap<>();
+
+    // Runs after GameService has seeded the games
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBoards() {
+        if (bestScoreRepository.count() == 0) {
+            int rows = bestScoreRepository.backfillFromScores();
+            log.info("Backfilled {} best scores from score history", rows);
+        }
+        Map<Long, String> typesById = gameRepository.findAll().stream()
+                .collect(Collectors.toMap(Game::getId, Game::getType));
+        for (BestScore best : bestScoreRepository.findAll()) {
+            String gameType = typesById.get(best.getGameId());
+            if (gameType != null) {
+                boardFor(gameType).raise(best.getUserId(), best.getScoreValue());
+            }
+        }
+        typesById.values().forEach(this::publishTop);
+    }
+
+    // Inside the submitting transaction, so the best row commits with the score
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void persistBestScore(ScoreSubmittedEvent event) {
+        Long current = boardFor(event.gameType()).scoreOf(event.userId());
+        if (current != null && current >= event.scoreValue()) {
+            return;
+        }
+        LocalDateTime achievedAt = event.createdAt() != null ? event.createdAt() : LocalDateTime.now();
+        bestScoreRepository.upsertBest(event.userId(), event.gameId(), event.scoreValue(), achievedAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        int rank = boardFor(event.gameType()).raise(event.userId(), event.scoreValue());
+        if (rank > 0 && rank <= TOP_K) {
+            publishTop(event.gameType());
+        }
+    }
+
+    public List<Map<String, Object>> getTop(String gameType, int limit) {
+        List<Map<String, Object>> top = topSnapshots.getOrDefault(gameType.toLowerCase(), List.of());
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /** The full board of personal bests for a game, or null if nobody has played it. */
+    public RankedBoard getBoard(String gameType) {
+        return boards.get(gameType.toLowerCase());
+    }
+
+    public void onProfileChanged(Long userId) {
+        boards.forEach((gameType, board) -> {
+            int rank = board.rankOf(userId);
+            if (rank > 0 && rank <= TOP_K) {
+                publishTop(gameType);
+            }
+        });
+    }
+
+    public void removeUser(Long userId) {
+        bestScoreRepository.deleteByUserId(userId);
+        AfterCommit.run(() -> boards.forEach((gameType, board) -> {
+            int rank = board.rankOf(userId);
+            board.remove(userId);
+            if (rank > 0 && rank <= TOP_K) {
+                publishTop(gameType);
+            }
+        }));
+    }
+
+    public void removeGame(Game game) {
+        bestScoreRepository.deleteByGameId(game.getId());
+        boards.remove(game.getType().toLowerCase());
+        topSnapshots.remove(game.getType().toLowerCase());
+    }
+
+    private RankedBoard boardFor(String gameType) {
+        return boards.computeIfAbsent(gameType.toLowerCase(), t -> new RankedBoard());
+    }
+
+    private void publishTop(String gameType) {
+        RankedBoard board = boardFor(gameType);
+        // Serialized per game so an older snapshot can never replace a newer one
+        synchronized (board) {
+            List<RankedBoard.Entry> entries = board.page(0, TOP_K);
+            Map<Long, PlayerSummary> users = userRepository.findSummariesByIdIn(entries.stream()
+                    .map(RankedBoard.Entry::memberId).toList()).stream()
+                    .collect(Collectors.toMap(PlayerSummary::getId, Function.identity()));
+
+            List<Map<String, Object>> rows = new ArrayList<>(entries.size());
+            for (RankedBoard.Entry entry : entries) {
+                PlayerSummary user = users.get(entry.memberId());
+                if (user == null) {
+                    continue;
+                }
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("rank", rows.size() + 1);
+                row.put("username", user.getUsername());
+                row.put("displayName", user.getDisplayName());
+                row.put("avatarEmoji", user.getAvatarEmoji());
+                row.put("score", entry.score());
+                rows.add(Collections.unmodifiableMap(row));
+            }
+            topSnapshots.put(gameType.toLowerCase(), List.copyOf(rows));
+        }
+    }
+}
@@ -3,23 +3,59 @@ package com.example.backend.service;
 import com.example.backend.entity.Game;
 import com.example.backend.repository.GameRepository;
 import com.example.backend.repository.ScoreRepository;
+import com.example.backend.util.VersionStamp;
+import com.example.backend.util.AfterCommit;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * The game catalog. Games only change through seeding and admin deletes, so
+ * lookups are served from an immutable snapshot that is rebuilt and swapped in
+ * whole after each change, and score submission never queries the games table.
+ */
 @Service
 public class GameService {
 
+    private record Catalog(List<Game> all, Map<String, Game> byType, Map<String, Game> byName, Map<Long, Game> byId) {
+
+        static Catalog of(List<Game> games) {
+            Map<String, Game> byType = new HashMap<>();
+            Map<String, Game> byName = new HashMap<>();
+            Map<Long, Game> byId = new HashMap<>();
+            for (Game game : games) {
+                byType.put(game.getType(), game);
+                byName.put(game.getName(), game);
+                byId.put(game.getId(), game);
+            }
+            return new Catalog(List.copyOf(games), Map.copyOf(byType), Map.copyOf(byName), Map.copyOf(byId));
+        }
+    }
+
     @Autowired
     private GameRepository gameRepository;
 
     @Autowired
     private ScoreRepository scoreRepository;
 
+    @Autowired
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Autowired
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @Autowired
+    private UserGameStatsService userGameStatsService;
+
+    private volatile Catalog catalog;
+    private final VersionStamp catalogVersion = new VersionStamp();
+
     @PostConstruct
     public void seedGames() {
         seedGame("Memory Match", "Test your memory by matching pairs of cards.", "memory");
@@ -44,6 +80,7 @@ public class GameService {
         seedGame("Battleship", "Sink the enemy fleet! Place ships and fire away.", "battleship");
         seedGame("Flappy Bird", "Tap to fly through the pipes. How far can you go?", "flappybird");
         seedGame("Brick Breaker", "Destroy all bricks with the ball. Don't lose the ball!", "brickbreaker");
+        reload();
     }
 
     private void seedGame(String name, String description, String type) {
@@ -53,28 +90,52 @@ public class GameService {
     }
 
     public List<Game> getAllGames() {
-        return gameRepository.findAll();
+        return catalog().all();
     }
 
     public Optional<Game> getGameByName(String name) {
-        return gameRepository.findByName(name);
+        return Optional.ofNullable(name == null ? null : catalog().byName().get(name));
     }
 
     public Optional<Game> getGameByType(String type) {
-        return gameRepository.findByType(type);
+        return Optional.ofNullable(type == null ? null : catalog().byType().get(type));
     }
 
     public Optional<Game> getGameById(@org.springframework.lang.NonNull Long id) {
-        return gameRepository.findById(id);
+        return Optional.ofNullable(catalog().byId().get(id));
     }
 
     @Transactional
     public void deleteGame(@org.springframework.lang.NonNull Game game) {
         scoreRepository.deleteByGame(game);
+        gameLeaderboardService.removeGame(game);
+        windowedLeaderboardService.removeGame(game);
+        userGameStatsService.removeGame(game);
         gameRepository.delete(game);
+        // Swap the snapshot once the delete is visible, not while it can still roll back
+        AfterCommit.run(this::reload);
     }
 
     public long countGames() {
-        return gameRepository.count();
+        return catalog().all().size();
+    }
+
+    /** Rebuilds the snapshot from the database. */
+    public void reload() {
+        catalog = Catalog.of(gameRepository.findAll());
+        catalogVersion.bump();
+    }
+
+    public VersionStamp.Version getCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            reload();
+            current = catalog;
+        }
+        return current;
     }
 }
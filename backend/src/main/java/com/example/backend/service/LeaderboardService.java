@@ -0,0 +1,244 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PlayerSummary;
+import com.example.backend.entity.User;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.RankedBoard;
+import com.example.backend.util.VersionStamp;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Global leaderboard by total score, kept in memory.
+ *
+ * The board is loaded from the users table at startup and moved on every
+ * submitted score, so rank lookups and pages never sort the table. The top
+ * page is what nearly every visitor asks for; it is kept as serialized JSON
+ * and only re-rendered after a change that touches it.
+ */
+@Service
+public class LeaderboardService {
+
+    public static final int TOP_SIZE = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Autowired
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @Autowired
+    private SocialService socialService;
+
+    private final RankedBoard board = new RankedBoard();
+
+    // Rendered top page tagged with the version it was rendered at
+    private record TopPage(long version, byte[] json) {
+    }
+
+    private final AtomicReference<TopPage> topPage = new AtomicReference<>();
+    private final VersionStamp topPageVersion = new VersionStamp();
+
+    @PostConstruct
+    public void loadBoard() {
+        for (Object[] row : userRepository.findAllTotalScores()) {
+            Integer totalScore = (Integer) row[1];
+            board.put((Long) row[0], totalScore == null ? 0 : totalScore);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        updateScore(event.userId(), event.totalScore());
+    }
+
+    public void updateScore(Long userId, long totalScore) {
+        int before = board.rankOf(userId);
+        int after = board.put(userId, totalScore);
+        if (onTopPage(before) || onTopPage(after)) {
+            topPageChanged();
+        }
+    }
+
+    public void removeUser(Long userId) {
+        int before = board.rankOf(userId);
+        board.remove(userId);
+        if (onTopPage(before)) {
+            topPageChanged();
+        }
+    }
+
+    // Profile edits (display name, avatar) show up on the cached top page
+    public void onProfileChanged(Long userId) {
+        if (onTopPage(board.rankOf(userId))) {
+            topPageChanged();
+        }
+    }
+
+    private void topPageChanged() {
+        topPageVersion.bump();
+    }
+
+    /** Moves whenever the content of {@link #getTopPageJson()} may have changed. */
+    public VersionStamp.Version getTopPageVersion() {
+        return topPageVersion.current();
+    }
+
+    /** The top {@link #TOP_SIZE} players as a JSON array of {@link PlayerSummary}. */
+    public byte[] getTopPageJson() {
+        // Version first: a change during rendering bumps it, so the page is rendered again next time
+        long version = topPageVersion.current().number();
+        TopPage cached = topPage.get();
+        if (cached != null && cached.version() == version) {
+            return cached.json();
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(playersInOrder(board.page(0, TOP_SIZE)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not render leaderboard", e);
+        }
+        // A slower render of an older version must not replace a newer page
+        TopPage rendered = new TopPage(version, json);
+        topPage.accumulateAndGet(rendered, (current, next) ->
+                current == null || current.version() < next.version() ? next : current);
+        return json;
+    }
+
+    public List<Map<String, Object>> getPage(int page, int size) {
+        int offset = page * size;
+        List<RankedBoard.Entry> entries = board.page(offset, size);
+        List<PlayerSummary> users = playersInOrder(entries);
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            result.add(toRow(offset + i + 1, users.get(i)));
+        }
+        return result;
+    }
+
+    public Map<String, Object> getRank(User user) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        int rank = board.rankOf(user.getId());
+        result.put("rank", rank == 0 ? null : rank);
+        // From the board, so the total always matches the rank even if the entity is a cached copy
+        Long score = board.scoreOf(user.getId());
+        result.put("totalScore", score == null ? user.getTotalScore() : Integer.valueOf(score.intValue()));
+        result.put("players", board.size());
+        return result;
+    }
+
+    /**
+     * The caller's rank and up to {@code radius} neighbours on each side.
+     *
+     * @param gameType     a game's personal-best board, or null for total score
+     * @param window       a live daily/weekly/season board, or null for all time
+     * @param friendsOnly  rank only among the caller and their friends
+     */
+    public Map<String, Object> getAroundMe(User user, String gameType, WindowedLeaderboardService.Window window,
+            boolean friendsOnly, int radius) {
+        boolean allGames = gameType == null || gameType.isBlank();
+        RankedBoard source;
+        if (window != null) {
+            source = windowedLeaderboardService.currentBoard(window, gameType);
+        } else {
+            source = allGames ? board : gameLeaderboardService.getBoard(gameType);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scope", friendsOnly ? "friends" : "global");
+        result.put("game", allGames ? null : gameType.toLowerCase());
+        result.put("window", window);
+
+        RankedBoard.Slice slice = null;
+        int players = 0;
+        Map<Long, PlayerSummary> known = new HashMap<>();
+        if (source != null && friendsOnly) {
+            // Friend lists are small: rank the caller's circle on a board of its own
+            RankedBoard circle = new RankedBoard();
+            List<User> members = new ArrayList<>(socialService.getFriends(user));
+            members.add(user);
+            for (User member : members) {
+                Long score = source.scoreOf(member.getId());
+                if (score != null) {
+                    circle.put(member.getId(), score);
+                    known.put(member.getId(), PlayerSummary.of(member));
+                }
+            }
+            slice = circle.around(user.getId(), radius);
+            players = circle.size();
+        } else if (source != null) {
+            slice = source.around(user.getId(), radius);
+            players = source.size();
+        }
+
+        List<Map<String, Object>> standings = new ArrayList<>();
+        if (slice != null) {
+            List<Long> missing = slice.entries().stream().map(RankedBoard.Entry::memberId)
+                    .filter(id -> !known.containsKey(id)).toList();
+            userRepository.findSummariesByIdIn(missing).forEach(p -> known.put(p.getId(), p));
+
+            for (int i = 0; i < slice.entries().size(); i++) {
+                RankedBoard.Entry entry = slice.entries().get(i);
+                PlayerSummary person = known.get(entry.memberId());
+                if (person == null) {
+                    continue; // deleted while we were reading
+                }
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("rank", slice.firstRank() + i);
+                row.put("username", person.getUsername());
+                row.put("displayName", person.getDisplayName());
+                row.put("avatarEmoji", person.getAvatarEmoji());
+                row.put("score", entry.score());
+                row.put("me", person.getId().equals(user.getId()));
+                standings.add(row);
+            }
+        }
+        result.put("rank", slice == null ? null : slice.memberRank());
+        result.put("players", players);
+        result.put("standings", standings);
+        return result;
+    }
+
+    private List<PlayerSummary> playersInOrder(List<RankedBoard.Entry> entries) {
+        List<Long> ids = entries.stream().map(RankedBoard.Entry::memberId).toList();
+        Map<Long, PlayerSummary> byId = userRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PlayerSummary::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(u -> u != null).toList();
+    }
+
+    private static Map<String, Object> toRow(int rank, PlayerSummary user) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("rank", rank);
+        row.put("username", user.getUsername());
+        row.put("displayName", user.getDisplayName());
+        row.put("avatarEmoji", user.getAvatarEmoji());
+        row.put("level", user.getLevel());
+        row.put("totalScore", user.getTotalScore());
+        return row;
+    }
+
+    private static boolean onTopPage(int rank) {
+        return rank > 0 && rank <= TOP_SIZE;
+    }
+}
@@ -2,12 +2,15 @@ package com.example.backend.service;
 
 import com.example.backend.entity.GameMatch;
 import com.example.backend.entity.User;
+import com.example.backend.event.GameFinishedEvent;
 import com.example.backend.repository.GameMatchRepository;
 import com.example.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +24,12 @@ public class MatchService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TurnTimerService turnTimerService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public GameMatch createMatchInvite(User inviter, String opponentUsername, String gameType, String initialBoard) {
         // Check they're not challenging themselves
@@ -65,7 +74,7 @@ public class MatchService {
 
         match.setStatus("ACTIVE");
         match.setLastMoveAt(LocalDateTime.now());
-        return matchRepository.save(match);
+        return saveAndRearm(match);
     }
 
     @Transactional
@@ -83,7 +92,7 @@ public class MatchService {
 
         match.setStatus("DECLINED");
         match.setLastMoveAt(LocalDateTime.now());
-        return matchRepository.save(match);
+        return saveAndRearm(match);
     }
 
     @Transactional
@@ -108,7 +117,10 @@ public class MatchService {
         match.setStatus("FORFEITED");
         match.setCurrentTurn(winner); // Store winner in currentTurn field
         match.setLastMoveAt(LocalDateTime.now());
-        return matchRepository.save(match);
+
+        eventPublisher.publishEvent(new GameFinishedEvent(match.getGameType(),
+                List.of(winner, user.getUsername()), false));
+        return saveAndRearm(match);
     }
 
     @Transactional
@@ -129,15 +141,75 @@ public class MatchService {
         match.setCurrentTurn(nextTurn);
         match.setLastMoveAt(LocalDateTime.now());
 
-        return matchRepository.save(match);
+        return saveAndRearm(match);
     }
 
+    // winner is the winner's username or "draw". Both clients report the end of a match: the first
+    // report finishes it, and the result is rated once both reports are in and agree
     @Transactional
-    public GameMatch finishMatch(@org.springframework.lang.NonNull Long matchId, String status) {
+    public GameMatch finishMatch(@org.springframework.lang.NonNull Long matchId, String status, String winner,
+            User user) {
         GameMatch match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
-        match.setStatus(status); // FINISHED
-        return matchRepository.save(match);
+
+        boolean isPlayer1 = match.getPlayer1().equals(user);
+        if (!isPlayer1 && !match.getPlayer2().equals(user)) {
+            throw new RuntimeException("You are not part of this match");
+        }
+        if (!"FINISHED".equals(status)) {
+            throw new RuntimeException("Unsupported status: " + status);
+        }
+
+        String p1 = match.getPlayer1().getUsername();
+        String p2 = match.getPlayer2().getUsername();
+        if (winner != null && ("draw".equals(winner) || winner.equals(p1) || winner.equals(p2))) {
+            int reported = isPlayer1
+                    ? matchRepository.reportPlayer1Result(matchId, winner)
+                    : matchRepository.reportPlayer2Result(matchId, winner);
+            if (reported == 1) {
+                // Re-read after the report: a concurrent report has committed by the time ours is written
+                GameMatch current = matchRepository.findById(matchId).orElseThrow();
+                if (winner.equals(current.getPlayer1Result()) && winner.equals(current.getPlayer2Result())) {
+                    eventPublisher.publishEvent("draw".equals(winner)
+                            ? new GameFinishedEvent(match.getGameType(), List.of(p1, p2), true)
+                            : new GameFinishedEvent(match.getGameType(),
+                                    List.of(winner, winner.equals(p1) ? p2 : p1), false));
+                }
+            }
+        }
+
+        boolean finished = matchRepository.finishIfActive(matchId, LocalDateTime.now()) == 1;
+        GameMatch current = matchRepository.findById(matchId).orElseThrow();
+        if (finished) {
+            turnTimerService.onMatchTurn(current);
+        }
+        return current;
+    }
+
+    // Turn deadline expired: the player on turn forfeits if they are still idle
+    @Transactional
+    public GameMatch expireTurn(@org.springframework.lang.NonNull Long matchId, Duration timeout) {
+        GameMatch match = matchRepository.findById(matchId).orElse(null);
+        if (match == null || !"ACTIVE".equals(match.getStatus()) || timeout == null) {
+            return match;
+        }
+
+        if (match.getLastMoveAt() != null && match.getLastMoveAt().plus(timeout).isAfter(LocalDateTime.now())) {
+            // A move landed after the deadline was armed
+            turnTimerService.onMatchTurn(match);
+            return match;
+        }
+
+        User idlePlayer = match.getPlayer1().getUsername().equals(match.getCurrentTurn())
+                ? match.getPlayer1()
+                : match.getPlayer2();
+        return forfeitMatch(matchId, idlePlayer);
+    }
+
+    private GameMatch saveAndRearm(GameMatch match) {
+        GameMatch saved = matchRepository.save(match);
+        turnTimerService.onMatchTurn(saved);
+        return saved;
     }
 
     public List<GameMatch> getMyMatches(User user) {
@@ -181,6 +253,8 @@ public class MatchService {
             match.setStatus("ACTIVE");
             match.setPlayer1Replay(false);
             match.setPlayer2Replay(false);
+            match.setPlayer1Result(null);
+            match.setPlayer2Result(null);
             match.setLastMoveAt(LocalDateTime.now());
 
             // Reset board based on game type
@@ -229,6 +303,6 @@ public class MatchService {
             match.setCurrentTurn(p1);
         }
 
-        return matchRepository.save(match);
+        return saveAndRearm(match);
     }
 }
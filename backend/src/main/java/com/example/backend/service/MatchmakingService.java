@@ -0,0 +1,345 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameRoom;
+import com.example.backend.entity.User;
+import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pairs queued players of the same game type by rating and opens a room for
+ * them through the regular room services.
+ *
+ * Each game type has an array of lock-free queues, one per rating bucket.
+ * Tickets are claimed with a CAS on their state, so concurrent enqueues and the
+ * periodic sweep never block each other; stale tickets are dropped lazily when
+ * a scan reaches them. The allowed rating gap widens with time spent waiting.
+ */
+@Service
+public class MatchmakingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+
+    public static final Set<String> SUPPORTED_GAME_TYPES = Set.of("uno", "tictactoe", "connectfour", "checkers",
+            "chess");
+
+    private static final int BUCKET_WIDTH = 50;
+    private static final int BUCKET_COUNT = 80; // ratings 0..3999
+
+    private static final int WAITING = 0;
+    private static final int CLAIMED = 1;
+    private static final int MATCHED = 2;
+    private static final int CANCELLED = 3;
+
+    static final class Ticket {
+        final Long userId;
+        final String gameType;
+        final int rating;
+        final long enqueuedNanos;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        volatile Long roomId;
+        volatile String inviteCode;
+        volatile long matchedNanos;
+
+        Ticket(Long userId, String gameType, int rating) {
+            this.userId = userId;
+            this.gameType = gameType;
+            this.rating = rating;
+            this.enqueuedNanos = System.nanoTime();
+        }
+    }
+
+    private static final class GameQueue {
+        @SuppressWarnings("unchecked")
+        final ConcurrentLinkedQueue<Ticket>[] buckets = new ConcurrentLinkedQueue[BUCKET_COUNT];
+
+        GameQueue() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new ConcurrentLinkedQueue<>();
+            }
+        }
+    }
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private UnoRoomService unoRoomService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Creating and joining the room commit together, so a failed join leaves no room behind
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${matchmaking.initial-rating-gap:100}")
+    private int initialRatingGap = 100;
+
+    @Value("${matchmaking.gap-growth-per-second:20}")
+    private int gapGrowthPerSecond = 20;
+
+    @Value("${matchmaking.max-rating-gap:1000}")
+    private int maxRatingGap = 1000;
+
+    private final Map<String, GameQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    // Room creation touches the database; keep it off the enqueue and sweep paths
+    private final ExecutorService roomCreator = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "matchmaking-rooms");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Timer timeToMatch;
+    private Counter enqueued;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        timeToMatch = Timer.builder("matchmaking.time.to.match")
+                .description("Time from enqueue until a partner is found")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        enqueued = Counter.builder("matchmaking.enqueued").register(meterRegistry);
+        Gauge.builder("matchmaking.waiting", waiting, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        roomCreator.shutdown();
+    }
+
+    public Map<String, Object> enqueue(User user, String gameType) {
+        String type = gameType == null ? "" : gameType.toLowerCase();
+        if (!SUPPORTED_GAME_TYPES.contains(type)) {
+            throw new RuntimeException("Matchmaking is not available for " + gameType);
+        }
+
+        Ticket fresh = new Ticket(user.getId(), type, ratingFor(user, type));
+        // Atomic per user, so a double click or a second tab cannot leave a second live ticket
+        Ticket ticket = tickets.compute(user.getId(), (id, existing) -> {
+            if (existing != null && existing.state.get() <= CLAIMED) {
+                if (existing.gameType.equals(type)) {
+                    return existing;
+                }
+                throw new RuntimeException("Already queued for " + existing.gameType);
+            }
+            return fresh;
+        });
+        if (ticket != fresh) {
+            return describe(ticket);
+        }
+
+        queues.computeIfAbsent(type, t -> new GameQueue()).buckets[bucketOf(ticket.rating)].offer(ticket);
+        waiting.incrementAndGet();
+        enqueued.increment();
+
+        tryMatch(ticket);
+        return describe(ticket);
+    }
+
+    /**
+     * Leaves the queue. Returns false when the ticket was already claimed for a
+     * match, in which case the player stays in it.
+     */
+    public boolean cancel(User user) {
+        Ticket ticket = tickets.get(user.getId());
+        if (ticket == null) {
+            return true;
+        }
+        if (ticket.state.compareAndSet(WAITING, CANCELLED)) {
+            waiting.decrementAndGet();
+            tickets.remove(user.getId(), ticket);
+            return true;
+        }
+        return ticket.state.get() == CANCELLED;
+    }
+
+    public Map<String, Object> getStatus(User user) {
+        Ticket ticket = tickets.get(user.getId());
+        if (ticket == null) {
+            Map<String, Object> status = new HashMap<>();
+            status.put("state", "IDLE");
+            return status;
+        }
+        return describe(ticket);
+    }
+
+    // Widen every waiting ticket's window and retry; also forgets finished tickets
+    @Scheduled(fixedDelayString = "${matchmaking.sweep-ms:250}")
+    public void sweep() {
+        for (GameQueue queue : queues.values()) {
+            for (ConcurrentLinkedQueue<Ticket> bucket : queue.buckets) {
+                for (Ticket ticket : bucket) {
+                    int state = ticket.state.get();
+                    if (state == WAITING) {
+                        tryMatch(ticket);
+                    } else if (state != CLAIMED) {
+                        // Claimed tickets belong to whoever claimed them; they may be released
+                        bucket.remove(ticket);
+                    }
+                }
+            }
+        }
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(5);
+        tickets.values().removeIf(t -> t.state.get() == MATCHED && t.matchedNanos < cutoff);
+    }
+
+    int ratingFor(User user, String gameType) {
+        return (int) Math.round(ratingService.getRating(user.getId(), gameType).rating());
+    }
+
+    int allowedGap(Ticket ticket, long nowNanos) {
+        long waitedSeconds = TimeUnit.NANOSECONDS.toSeconds(nowNanos - ticket.enqueuedNanos);
+        return (int) Math.min(maxRatingGap, initialRatingGap + waitedSeconds * gapGrowthPerSecond);
+    }
+
+    private void tryMatch(Ticket ticket) {
+        GameQueue queue = queues.get(ticket.gameType);
+        if (queue == null || ticket.state.get() != WAITING) {
+            return;
+        }
+        long now = System.nanoTime();
+        int gap = allowedGap(ticket, now);
+        int home = bucketOf(ticket.rating);
+        int span = gap / BUCKET_WIDTH + 1;
+
+        // Nearest buckets first so the closest rating wins
+        for (int offset = 0; offset <= span; offset++) {
+            for (int index : offset == 0 ? new int[] { home } : new int[] { home - offset, home + offset }) {
+                if (index < 0 || index >= BUCKET_COUNT) {
+                    continue;
+                }
+                for (Ticket candidate : queue.buckets[index]) {
+                    if (candidate == ticket || candidate.userId.equals(ticket.userId)
+                            || candidate.state.get() != WAITING) {
+                        continue;
+                    }
+                    int diff = Math.abs(candidate.rating - ticket.rating);
+                    if (diff > Math.max(gap, allowedGap(candidate, now))) {
+                        continue;
+                    }
+                    if (claim(ticket, candidate)) {
+                        queue.buckets[bucketOf(ticket.rating)].remove(ticket);
+                        queue.buckets[index].remove(candidate);
+                        roomCreator.execute(() -> openRoom(ticket, candidate));
+                        return;
+                    }
+                    if (ticket.state.get() != WAITING) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean claim(Ticket ticket, Ticket candidate) {
+        if (!ticket.state.compareAndSet(WAITING, CLAIMED)) {
+            return false;
+        }
+        if (!candidate.state.compareAndSet(WAITING, CLAIMED)) {
+            ticket.state.set(WAITING);
+            return false;
+        }
+        waiting.addAndGet(-2);
+        return true;
+    }
+
+    private void openRoom(Ticket first, Ticket second) {
+        // The player who waited longer hosts
+        Ticket host = first.enqueuedNanos <= second.enqueuedNanos ? first : second;
+        Ticket guest = host == first ? second : first;
+        try {
+            User hostUser = userRepository.findById(host.userId).orElseThrow();
+            User guestUser = userRepository.findById(guest.userId).orElseThrow();
+
+            GameRoom room = transactionTemplate.execute(status -> {
+                try {
+                    GameRoom created = "uno".equals(host.gameType)
+                            ? unoRoomService.createRoom(hostUser, 2)
+                            : roomService.createRoom(hostUser, host.gameType, 2);
+                    // Joining fills the room, which starts the game
+                    return roomService.joinRoom(created.getInviteCode(), guestUser);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            });
+
+            long now = System.nanoTime();
+            for (Ticket ticket : new Ticket[] { host, guest }) {
+                ticket.roomId = room.getId();
+                ticket.inviteCode = room.getInviteCode();
+                ticket.matchedNanos = now;
+                timeToMatch.record(now - ticket.enqueuedNanos, TimeUnit.NANOSECONDS);
+                ticket.state.set(MATCHED);
+            }
+        } catch (Exception e) {
+            log.warn("Could not open matchmaking room for {} and {}: {}", host.userId, guest.userId, e.getMessage());
+            requeue(host);
+            requeue(guest);
+        }
+    }
+
+    private void requeue(Ticket ticket) {
+        if (tickets.get(ticket.userId) != ticket) {
+            return;
+        }
+        ticket.state.set(WAITING);
+        waiting.incrementAndGet();
+        queues.get(ticket.gameType).buckets[bucketOf(ticket.rating)].offer(ticket);
+    }
+
+    private Map<String, Object> describe(Ticket ticket) {
+        Map<String, Object> status = new HashMap<>();
+        int state = ticket.state.get();
+        status.put("state", state == MATCHED ? "MATCHED" : state == CANCELLED ? "IDLE" : "SEARCHING");
+        status.put("gameType", ticket.gameType);
+        status.put("rating", ticket.rating);
+        status.put("waitedSeconds", TimeUnit.NANOSECONDS.toSeconds(
+                (state == MATCHED ? ticket.matchedNanos : System.nanoTime()) - ticket.enqueuedNanos));
+        if (state == MATCHED) {
+            status.put("roomId", ticket.roomId);
+            status.put("inviteCode", ticket.inviteCode);
+        }
+        return status;
+    }
+
+    private static int bucketOf(int rating) {
+        return Math.max(0, Math.min(BUCKET_COUNT - 1, rating / BUCKET_WIDTH));
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.event.PresenceChangedEvent;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Who is online, kept in memory.
+ *
+ * A heartbeat only stamps the user's entry and re-arms its expiry on a timing
+ * wheel, so it costs no database write. users.last_active_at is written when a
+ * user goes offline, either by logging out or by missing heartbeats for the
+ * online timeout, with all expiries of a tick going out as one batch.
+ *
+ * Every transition (online, offline, or a change of the game being played) is
+ * published as a {@link PresenceChangedEvent}; repeated heartbeats are not.
+ */
+@Service
+public class PresenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PresenceService.class);
+
+    private record Seen(User user, long nanos, String game) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${presence.online-timeout-seconds:300}")
+    private long onlineTimeoutSeconds = 300;
+
+    private final Map<Long, Seen> online = new ConcurrentHashMap<>();
+
+    // 1s ticks, 64 slots per level, 2 levels: covers ~68 minutes
+    private final HierarchicalTimingWheel<Long> expiries = new HierarchicalTimingWheel<>(1000, 6, 2,
+            System.currentTimeMillis());
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("presence.online", online, Map::size).register(meterRegistry);
+    }
+
+    // Users who were active just before a restart stay online until their timeout runs out
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        LocalDateTime now = LocalDateTime.now();
+        for (User user : userRepository.findByLastActiveAtAfter(now.minusSeconds(onlineTimeoutSeconds))) {
+            long idleNanos = Duration.between(user.getLastActiveAt(), now).toNanos();
+            online.put(user.getId(), new Seen(user, System.nanoTime() - idleNanos, null));
+            expiries.schedule(user.getId(), onlineTimeoutSeconds * 1000 - idleNanos / 1_000_000);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persist(new ArrayList<>(online.values()));
+    }
+
+    // Keeps whatever game the user was last reported playing
+    public void touch(User user) {
+        update(user, previous -> previous == null ? null : previous.game());
+    }
+
+    /** Marks the user online and playing {@code game}, or not playing anything when null. */
+    public void touch(User user, String game) {
+        update(user, previous -> game);
+    }
+
+    public void logout(User user) {
+        expiries.cancel(user.getId());
+        Seen seen = online.remove(user.getId());
+        if (seen != null) {
+            persist(List.of(seen));
+            publishOffline(seen);
+        }
+    }
+
+    /** The user's current presence as a change event, if they are online. */
+    public Optional<PresenceChangedEvent> current(Long userId) {
+        Seen seen = online.get(userId);
+        return seen == null ? Optional.empty()
+                : Optional.of(new PresenceChangedEvent(snapshot(seen), true, seen.game()));
+    }
+
+    public boolean isOnline(Long userId) {
+        return online.containsKey(userId);
+    }
+
+    /** Online users as of their last heartbeat, with lastActiveAt filled in from memory. */
+    public List<User> getOnlineUsers() {
+        return online.values().stream().map(PresenceService::snapshot).toList();
+    }
+
+    // Deleted users just disappear; there is no row left to update
+    public void forget(Long userId) {
+        expiries.cancel(userId);
+        Seen seen = online.remove(userId);
+        if (seen != null) {
+            publishOffline(seen);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${presence.expiry-tick-ms:1000}")
+    public void expire() {
+        long staleBefore = System.nanoTime() - Duration.ofSeconds(onlineTimeoutSeconds).toNanos();
+        List<Seen> expired = new ArrayList<>();
+        for (Long userId : expiries.advanceTo(System.currentTimeMillis())) {
+            // A heartbeat that raced the wheel keeps the entry
+            online.computeIfPresent(userId, (id, seen) -> {
+                if (seen.nanos() - staleBefore > 0) {
+                    return seen;
+                }
+                expired.add(seen);
+                return null;
+            });
+        }
+        persist(expired);
+        expired.forEach(this::publishOffline);
+    }
+
+    private void update(User user, Function<Seen, String> gameAfter) {
+        Seen[] previous = new Seen[1];
+        Seen current = online.compute(user.getId(), (id, seen) -> {
+            previous[0] = seen;
+            return new Seen(user, System.nanoTime(), gameAfter.apply(seen));
+        });
+        expiries.schedule(user.getId(), onlineTimeoutSeconds * 1000);
+        if (previous[0] == null || !Objects.equals(previous[0].game(), current.game())) {
+            eventPublisher.publishEvent(new PresenceChangedEvent(snapshot(current), true, current.game()));
+        }
+    }
+
+    private void publishOffline(Seen seen) {
+        eventPublisher.publishEvent(new PresenceChangedEvent(snapshot(seen), false, null));
+    }
+
+    private void persist(Collection<Seen> offline) {
+        if (offline.isEmpty()) {
+            return;
+        }
+        List<Seen> rows = new ArrayList<>(offline);
+        try {
+            jdbcTemplate.batchUpdate("UPDATE users SET last_active_at = ? WHERE id = ?", rows, rows.size(),
+                    (ps, seen) -> {
+                        ps.setTimestamp(1, Timestamp.valueOf(lastActiveAt(seen)));
+                        ps.setLong(2, seen.user().getId());
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Could not store last activity for {} users", rows.size(), e);
+        }
+    }
+
+    // A copy, so readers never see an entity another request is changing
+    private static User snapshot(Seen seen) {
+        User user = new User();
+        BeanUtils.copyProperties(seen.user(), user);
+        user.setLastActiveAt(lastActiveAt(seen));
+        return user;
+    }
+
+    private static LocalDateTime lastActiveAt(Seen seen) {
+        return LocalDateTime.now().minusNanos(System.nanoTime() - seen.nanos());
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.event.FriendshipChangedEvent;
+import com.example.backend.event.PresenceChangedEvent;
+import com.example.backend.util.LongHashSet;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent presence updates for friends.
+ *
+ * A subscriber gets a snapshot of their friends who are online, then one
+ * "presence" event per friend who comes online, goes offline or changes game.
+ * Subscribers are indexed by the friends they watch, so a presence change only
+ * touches the streams of that user's subscribed friends.
+ *
+ * Changes are never sent on the thread that reports them. Each stream has an
+ * outbox holding only the newest state per friend, drained by its own task, so
+ * a slow client just sees fewer intermediate states and never holds up other
+ * streams. A snapshot is read when it is sent, after dropping whatever was
+ * queued before it, so a delta is never older than the snapshot it follows.
+ */
+@Service
+public class PresenceStreamService {
+
+    private final class Outbox implements Runnable {
+        private final Long subscriberId;
+        private final SseEmitter emitter;
+        // Friend id -> newest payload not sent yet; guarded by this, like the flags
+        private final Map<Long, Map<String, Object>> pending = new LinkedHashMap<>();
+        private boolean snapshotDue = true;
+        private boolean draining;
+        private boolean closed;
+
+        private Outbox(Long subscriberId, SseEmitter emitter) {
+            this.subscriberId = subscriberId;
+            this.emitter = emitter;
+        }
+
+        void offer(Long friendId, Map<String, Object> payload) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // Re-inserted so friends are sent in the order they last changed
+                pending.remove(friendId);
+                pending.put(friendId, payload);
+            }
+            schedule();
+        }
+
+        void schedule() {
+            synchronized (this) {
+                if (draining || closed) {
+                    return;
+                }
+                draining = true;
+            }
+            pusher.execute(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                boolean snapshot;
+                List<Map<String, Object>> deltas;
+                synchronized (this) {
+                    snapshot = snapshotDue;
+                    snapshotDue = false;
+                    if (snapshot) {
+                        // The snapshot read below already covers these
+                        pending.clear();
+                    }
+                    deltas = new ArrayList<>(pending.values());
+                    pending.clear();
+                    if (closed || (!snapshot && deltas.isEmpty())) {
+                        draining = false;
+                        return;
+                    }
+                }
+                if (snapshot && !send("snapshot", snapshot())) {
+                    return;
+                }
+                for (Map<String, Object> delta : deltas) {
+                    if (!send("presence", delta)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.clear();
+        }
+
+        private List<Map<String, Object>> snapshot() {
+            List<Map<String, Object>> online = new ArrayList<>();
+            watching.getOrDefault(subscriberId, new LongHashSet()).forEach(friendId -> presenceService
+                    .current(friendId).ifPresent(current -> online.add(payload(current))));
+            return online;
+        }
+
+        private boolean send(String name, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the stream is dropped and it reconnects with a fresh snapshot
+                unsubscribe(subscriberId, emitter);
+                return false;
+            }
+        }
+    }
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Value("${presence.stream-timeout-ms:1800000}")
+    private long streamTimeoutMillis = 1800000;
+
+    // Subscriber id -> their open streams, one per tab
+    private final Map<Long, List<Outbox>> streams = new ConcurrentHashMap<>();
+    // Subscriber id -> friends they watch
+    private final Map<Long, LongHashSet> watching = new ConcurrentHashMap<>();
+    // User id -> subscribers who are their friends
+    private final Map<Long, Set<Long>> watchers = new ConcurrentHashMap<>();
+
+    // Drains run on virtual threads: a send blocked on a slow client parks only its own stream
+    private Executor pusher = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("presence-push-", 0).factory());
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(outboxes -> outboxes.forEach(outbox -> outbox.emitter.complete()));
+        if (pusher instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    public SseEmitter subscribe(User user) {
+        Long userId = user.getId();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Outbox outbox = new Outbox(userId, emitter);
+        synchronized (this) {
+            streams.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(outbox);
+            if (!watching.containsKey(userId)) {
+                watch(userId, socialGraphService.friendsOf(userId));
+            }
+        }
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(userId, emitter));
+
+        outbox.schedule();
+        return emitter;
+    }
+
+    @EventListener
+    public void onPresenceChanged(PresenceChangedEvent event) {
+        Long userId = event.user().getId();
+        Map<String, Object> payload = payload(event);
+        for (Long subscriberId : watchers.getOrDefault(userId, Set.of())) {
+            offerAll(subscriberId, userId, payload);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        for (Long userId : List.of(event.userId(), event.otherId())) {
+            if (streams.containsKey(userId)) {
+                refreshFriends(userId);
+            }
+        }
+    }
+
+    int subscribers() {
+        return streams.size();
+    }
+
+    // New friends who are online show up, former friends disappear
+    private void refreshFriends(Long userId) {
+        LongHashSet friends = socialGraphService.friendsOf(userId);
+        LongHashSet before;
+        synchronized (this) {
+            before = unwatch(userId);
+            watch(userId, friends);
+        }
+        friends.forEach(friendId -> {
+            if (!before.contains(friendId)) {
+                presenceService.current(friendId).ifPresent(current -> offerAll(userId, friendId, payload(current)));
+            }
+        });
+        before.forEach(friendId -> {
+            if (!friends.contains(friendId)) {
+                presenceService.current(friendId).ifPresent(current -> offerAll(userId, friendId,
+                        payload(new PresenceChangedEvent(current.user(), false, null))));
+            }
+        });
+    }
+
+    private synchronized void unsubscribe(Long userId, SseEmitter emitter) {
+        List<Outbox> outboxes = streams.get(userId);
+        if (outboxes == null) {
+            return;
+        }
+        for (Outbox outbox : outboxes) {
+            if (outbox.emitter == emitter) {
+                outbox.close();
+                outboxes.remove(outbox);
+            }
+        }
+        if (outboxes.isEmpty()) {
+            streams.remove(userId);
+            unwatch(userId);
+        }
+    }
+
+    private void watch(Long userId, LongHashSet friends) {
+        watching.put(userId, friends);
+        friends.forEach(friendId -> watchers.computeIfAbsent(friendId, id -> ConcurrentHashMap.newKeySet())
+                .add(userId));
+    }
+
+    private LongHashSet unwatch(Long userId) {
+        LongHashSet friends = watching.remove(userId);
+        if (friends == null) {
+            return new LongHashSet();
+        }
+        friends.forEach(friendId -> watchers.computeIfPresent(friendId, (id, subscribers) -> {
+            subscribers.remove(userId);
+            return subscribers.isEmpty() ? null : subscribers;
+        }));
+        return friends;
+    }
+
+    private void offerAll(Long subscriberId, Long friendId, Map<String, Object> payload) {
+        for (Outbox outbox : streams.getOrDefault(subscriberId, List.of())) {
+            outbox.offer(friendId, payload);
+        }
+    }
+
+    private static Map<String, Object> payload(PresenceChangedEvent event) {
+        User user = event.user();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("username", user.getUsername());
+        payload.put("displayName", user.getDisplayName());
+        payload.put("avatarEmoji", user.getAvatarEmoji());
+        payload.put("level", user.getLevel());
+        payload.put("online", event.online());
+        payload.put("game", event.game());
+        return payload;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.entity.UserRating;
+import com.example.backend.event.GameFinishedEvent;
+import com.example.backend.repository.UserRatingRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.AfterCommit;
+import com.example.backend.util.Glicko2;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user, per-game-type Glicko-2 ratings.
+ *
+ * The whole user_ratings table is held in memory (a few doubles per row) so
+ * matchmaking and rating boards never query it. Each finished game is rated
+ * immediately as a one-game period; the scheduled period close then only has
+ * to widen the deviation of players who did not play, which it does in
+ * parallel across users.
+ *
+ * Cached ratings are immutable and replaced only after their write commits,
+ * so reads never lock. Writers of one game type take that type's lock so two
+ * games cannot rate from the same starting point.
+ */
+@Service
+public class RatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingService.class);
+
+    @Autowired
+    private UserRatingRepository userRatingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Own transaction: games are rated after the finishing transaction has committed
+    private TransactionTemplate transactionTemplate;
+
+    // gameType -> userId -> rating
+    private final Map<String, Map<Long, CachedRating>> ratings = new ConcurrentHashMap<>();
+
+    // gameType -> lock held while a change to that type's ratings is computed and saved
+    private final Map<String, Object> writeLocks = new ConcurrentHashMap<>();
+
+    private record CachedRating(Long id, Glicko2.Rating rating, int gamesPlayed, boolean ratedThisPeriod) {
+        static CachedRating of(UserRating row) {
+            return new CachedRating(row.getId(), toGlicko(row), row.getGamesPlayed(), row.isRatedThisPeriod());
+        }
+    }
+
+    @PostConstruct
+    public void loadRatings() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (UserRating rating : userRatingRepository.findAll()) {
+            ratings.computeIfAbsent(rating.getGameType(), t -> new ConcurrentHashMap<>())
+                    .put(rating.getUserId(), CachedRating.of(rating));
+        }
+    }
+
+    public Glicko2.Rating getRating(Long userId, String gameType) {
+        CachedRating rating = ratings.getOrDefault(gameType.toLowerCase(), Map.of()).get(userId);
+        return rating == null ? Glicko2.Rating.DEFAULT : rating.rating();
+    }
+
+    public Map<String, Glicko2.Rating> getUserRatings(Long userId) {
+        Map<String, Glicko2.Rating> result = new TreeMap<>();
+        ratings.forEach((gameType, byUser) -> {
+            CachedRating rating = byUser.get(userId);
+            if (rating != null) {
+                result.put(gameType, rating.rating());
+            }
+        });
+        return result;
+    }
+
+    // Highest conservative rating (rating - 2 * deviation) first
+    public List<Map<String, Object>> getTopRatings(String gameType, int limit) {
+        List<Map.Entry<Long, CachedRating>> top = ratings.getOrDefault(gameType.toLowerCase(), Map.of())
+                .entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<Long, CachedRating> e) -> e.getValue().rating().rating()
+                                - 2 * e.getValue().rating().deviation())
+                        .reversed())
+                .limit(limit)
+                .toList();
+        Map<Long, User> users = userRepository.findAllById(top.stream().map(Map.Entry::getKey).toList())
+                .stream().collect(Collectors.toMap(User::getId, u -> u));
+
+        List<Map<String, Object>> board = new ArrayList<>();
+        for (Map.Entry<Long, CachedRating> rated : top) {
+            User user = users.get(rated.getKey());
+            if (user == null) {
+                continue;
+            }
+            Glicko2.Rating rating = rated.getValue().rating();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", board.size() + 1);
+            entry.put("username", user.getUsername());
+            entry.put("displayName", user.getDisplayName());
+            entry.put("avatarEmoji", user.getAvatarEmoji());
+            entry.put("rating", Math.round(rating.rating()));
+            entry.put("deviation", Math.round(rating.deviation()));
+            entry.put("gamesPlayed", rated.getValue().gamesPlayed());
+            board.add(entry);
+        }
+        return board;
+    }
+
+    // Rate the game after the transaction that finished it commits
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        List<User> players = event.standings().stream()
+                .map(userRepository::findByUsername)
+                .flatMap(Optional::stream)
+                .toList();
+        if (players.size() < 2) {
+            return;
+        }
+
+        synchronized (writeLock(event.gameType())) {
+            Map<Long, CachedRating> byUser = ratings.computeIfAbsent(event.gameType(), t -> new ConcurrentHashMap<>());
+            // Everyone is rated against the pre-game ratings of the others
+            Map<Long, Glicko2.Rating> before = new HashMap<>();
+            for (User player : players) {
+                CachedRating rating = byUser.get(player.getId());
+                before.put(player.getId(), rating == null ? Glicko2.Rating.DEFAULT : rating.rating());
+            }
+
+            List<UserRating> changed = new ArrayList<>();
+            for (int i = 0; i < players.size(); i++) {
+                List<Glicko2.Result> results = new ArrayList<>();
+                for (int j = 0; j < players.size(); j++) {
+                    if (i != j) {
+                        double score = event.draw() ? 0.5 : (i < j ? 1.0 : 0.0);
+                        results.add(new Glicko2.Result(before.get(players.get(j).getId()), score));
+                    }
+                }
+                Long userId = players.get(i).getId();
+                CachedRating current = byUser.get(userId);
+                changed.add(toRow(userId, event.gameType(), current == null ? null : current.id(),
+                        Glicko2.update(before.get(userId), results),
+                        current == null ? 1 : current.gamesPlayed() + 1, true));
+            }
+            saveAndPublish(event.gameType(), changed);
+        }
+    }
+
+    // Close the rating period: players who sat it out get a wider deviation
+    @Scheduled(cron = "${ratings.period-close-cron:0 0 4 * * *}")
+    public void closeRatingPeriod() {
+        for (String gameType : List.copyOf(ratings.keySet())) {
+            synchronized (writeLock(gameType)) {
+                // Fresh rows built from the cache; cached values stay as they are until the save commits
+                List<UserRating> changed = ratings.get(gameType).entrySet().parallelStream()
+                        .map(e -> {
+                            CachedRating rating = e.getValue();
+                            Glicko2.Rating closed = rating.ratedThisPeriod()
+                                    ? rating.rating()
+                                    : Glicko2.decay(rating.rating());
+                            return toRow(e.getKey(), gameType, rating.id(), closed, rating.gamesPlayed(), false);
+                        })
+                        .toList();
+                saveAndPublish(gameType, changed);
+            }
+        }
+    }
+
+    private void saveAndPublish(String gameType, List<UserRating> changed) {
+        List<UserRating> saved;
+        try {
+            saved = transactionTemplate.execute(status -> userRatingRepository.saveAll(changed));
+        } catch (RuntimeException e) {
+            log.warn("Could not save {} {} ratings", changed.size(), gameType, e);
+            return;
+        }
+        // Committed: new rows carry their generated ids into the cache
+        Map<Long, CachedRating> byUser = ratings.computeIfAbsent(gameType, t -> new ConcurrentHashMap<>());
+        for (UserRating rating : saved) {
+            byUser.put(rating.getUserId(), CachedRating.of(rating));
+        }
+    }
+
+    private Object writeLock(String gameType) {
+        return writeLocks.computeIfAbsent(gameType, t -> new Object());
+    }
+
+    @Transactional
+    public void deleteUserRatings(Long userId) {
+        userRatingRepository.deleteByUserId(userId);
+        AfterCommit.run(() -> ratings.values().forEach(byUser -> byUser.remove(userId)));
+    }
+
+    private static Glicko2.Rating toGlicko(UserRating rating) {
+        return new Glicko2.Rating(rating.getRating(), rating.getDeviation(), rating.getVolatility());
+    }
+
+    private static UserRating toRow(Long userId, String gameType, Long id, Glicko2.Rating rating, int gamesPlayed,
+            boolean ratedThisPeriod) {
+        return new UserRating(id, userId, gameType, rating.rating(), rating.deviation(), rating.volatility(),
+                gamesPlayed, ratedThisPeriod, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Activity;
+import com.example.backend.entity.Game;
+import com.example.backend.entity.User;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Front door for score submissions.
+ *
+ * A submission is validated, queued and acknowledged straight away; a drainer
+ * writes the queue in batches, one transaction and one connection per batch,
+ * with every player's total and level bumped once per batch no matter how many
+ * scores they sent. Bursts therefore queue up here instead of in the
+ * connection pool. When the queue is full the submission falls back to the
+ * synchronous {@link ScoreService#submitScore} path.
+ *
+ * An acknowledgement means the score is queued, not stored: until the next
+ * flush (normally within scores.ingest.flush-ms) it exists only in
+ * memory. A graceful shutdown flushes the queue, but a crash or a killed
+ * process loses whatever was still queued.
+ */
+@Service
+public class ScoreIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreIngestionService.class);
+
+    record PendingScore(Long userId, Game game, int scoreValue, LocalDateTime createdAt) {
+    }
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private ScoreService scoreService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SocialService socialService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${scores.ingest.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${scores.ingest.batch-size:500}")
+    private int batchSize = 500;
+
+    private BlockingQueue<PendingScore> queue;
+
+    // Queued but not yet written, per user, so acks can report the new total
+    private final Map<Long, Long> pendingTotals = new ConcurrentHashMap<>();
+
+    private Counter overflows;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("scores.ingest.queued", queue, BlockingQueue::size).register(meterRegistry);
+        overflows = Counter.builder("scores.ingest.overflow")
+                .description("Submissions written synchronously because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Queued scores are only in memory; write them before the process goes away
+        flush();
+    }
+
+    public User submit(User user, String gameType, int scoreValue) {
+        Game game = gameFor(gameType);
+        PendingScore pending = new PendingScore(user.getId(), game, scoreValue, LocalDateTime.now());
+        if (!queue.offer(pending)) {
+            overflows.increment();
+            // Stored now, but earlier scores of this user may still be queued
+            User stored = scoreService.submitScore(user, gameType, scoreValue);
+            return projected(stored, pendingTotals.getOrDefault(user.getId(), 0L));
+        }
+        return projected(user, pendingTotals.merge(user.getId(), (long) scoreValue, Long::sum));
+    }
+
+    // The given entity stays untouched; the ack is a copy with the projected stats
+    private static User projected(User user, long queuedTotal) {
+        User ack = new User();
+        BeanUtils.copyProperties(user, ack);
+        ack.setTotalScore((int) (user.getTotalScore() + queuedTotal));
+        ack.setLevel(1 + ack.getTotalScore() / 1000);
+        return ack;
+    }
+
+    @Scheduled(fixedDelayString = "${scores.ingest.flush-ms:200}")
+    public synchronized void flush() {
+        List<PendingScore> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                log.warn("Batch of {} scores failed, writing them one by one", batch.size(), e);
+                batch.forEach(this::writeSingly);
+            } finally {
+                batch.forEach(s -> pendingTotals.computeIfPresent(s.userId(),
+                        (id, total) -> total == s.scoreValue() ? null : total - s.scoreValue()));
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingScore> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO scores (score_value, created_at, user_id, game_id) VALUES (?, ?, ?, ?)",
+                batch, batch.size(), (ps, s) -> {
+                    ps.setInt(1, s.scoreValue());
+                    ps.setTimestamp(2, Timestamp.valueOf(s.createdAt()));
+                    ps.setLong(3, s.userId());
+                    ps.setLong(4, s.game().getId());
+                });
+
+        // One row update per player per batch
+        Map<Long, Long> totals = new LinkedHashMap<>();
+        batch.forEach(s -> totals.merge(s.userId(), (long) s.scoreValue(), Long::sum));
+        List<Map.Entry<Long, Long>> deltas = new ArrayList<>(totals.entrySet());
+        jdbcTemplate.batchUpdate(
+                "UPDATE users SET total_score = total_score + ?, level = 1 + (total_score + ?) / 1000 WHERE id = ?",
+                deltas, deltas.size(), (ps, d) -> {
+                    ps.setLong(1, d.getValue());
+                    ps.setLong(2, d.getValue());
+                    ps.setLong(3, d.getKey());
+                });
+
+        Map<Long, User> users = userRepository.findAllById(totals.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        if (users.size() < totals.size()) {
+            // A player was deleted while their scores were queued; let the single path sort it out
+            throw new IllegalStateException("Queued scores reference missing users");
+        }
+
+        // Queued for the activity writer once this batch commits
+        socialService.logActivities(batch.stream()
+                .map(s -> new Activity(null, users.get(s.userId()), "SCORE",
+                        "scored " + s.scoreValue() + " in " + s.game().getName(), s.createdAt()))
+                .toList());
+
+        // Replay per score so listeners see each player's running total
+        Map<Long, Long> running = new HashMap<>();
+        users.forEach((id, user) -> running.put(id, (long) user.getTotalScore() - totals.get(id)));
+        for (PendingScore s : batch) {
+            long total = running.merge(s.userId(), (long) s.scoreValue(), Long::sum);
+            eventPublisher.publishEvent(new ScoreSubmittedEvent(s.userId(), s.game().getId(), s.game().getType(),
+                    s.scoreValue(), total, s.createdAt()));
+        }
+    }
+
+    private void writeSingly(PendingScore s) {
+        if (gameService.getGameByType(s.game().getType()).isEmpty()) {
+            log.warn("Dropping score for deleted game {}", s.game().getType());
+            return;
+        }
+        try {
+            userRepository.findById(s.userId()).ifPresentOrElse(
+                    user -> scoreService.submitScore(user, s.game().getType(), s.scoreValue()),
+                    () -> log.warn("Dropping score for deleted user {}", s.userId()));
+        } catch (RuntimeException e) {
+            log.warn("Dropping score {} for user {} in {}", s.scoreValue(), s.userId(), s.game().getType(), e);
+        }
+    }
+
+    private Game gameFor(String gameType) {
+        return gameService.getGameByType(gameType)
+                .orElseThrow(() -> new RuntimeException("Game not found: " + gameType));
+    }
+
+    int queued() {
+        return queue.size();
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.ScoreSummary;
 import com.example.backend.entity.Game;
 import com.example.backend.entity.Score;
 import com.example.backend.entity.User;
+import com.example.backend.event.ScoreSubmittedEvent;
 import com.example.backend.repository.ScoreRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,10 +26,10 @@ public class ScoreService {
     private GameService gameService;
 
     @Autowired
-    private AchievementService achievementService;
+    private SocialService socialService;
 
     @Autowired
-    private SocialService socialService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public User submitScore(User user, String gameType, int scoreValue) {
@@ -39,13 +42,12 @@ public class ScoreService {
         score.setScoreValue(scoreValue);
         scoreRepository.save(score);
 
-        // Update User stats
-        user.setTotalScore(user.getTotalScore() + scoreValue);
-        user.setLevel(1 + user.getTotalScore() / 1000); // Simple level logic
-        User savedUser = userService.saveUser(user);
+        // Update User stats; an increment in SQL, as queued scores are added the same way
+        User savedUser = userService.addToTotalScore(user.getId(), scoreValue);
 
-        // Check for achievements
-        achievementService.checkAchievements(savedUser, game, scoreValue);
+        // Leaderboards and achievements pick this up once the transaction commits
+        eventPublisher.publishEvent(new ScoreSubmittedEvent(savedUser.getId(), game.getId(), game.getType(),
+                scoreValue, savedUser.getTotalScore(), score.getCreatedAt()));
 
         // Log activity
         socialService.logActivity(savedUser, "SCORE", "scored " + scoreValue + " in " + game.getName());
@@ -53,12 +55,8 @@ public class ScoreService {
         return savedUser;
     }
 
-    public List<Score> getUserScores(User user) {
-        return scoreRepository.findByUser(user);
-    }
-
-    public List<Score> getLeaderboard() {
-        return scoreRepository.findTop10ByOrderByScoreValueDesc();
+    public List<ScoreSummary> getUserScores(Long userId) {
+        return scoreRepository.findSummariesByUserId(userId);
     }
 
     public long countScores() {
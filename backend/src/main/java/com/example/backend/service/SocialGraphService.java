@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.event.FriendshipChangedEvent;
+import com.example.backend.repository.FriendshipRepository;
+import com.example.backend.util.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The friendship graph, kept in memory as one primitive id set per user.
+ *
+ * A user's set is loaded from the friendships table the first time it is
+ * asked for. After that, accepted requests and unfriends are applied to it
+ * once they commit, so membership tests and friend lists never go back to the
+ * table. Sets are replaced on change, never mutated, so readers need no lock.
+ */
+@Service
+public class SocialGraphService {
+
+    private static final LongHashSet NONE = new LongHashSet();
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    private final Map<Long, LongHashSet> adjacency = new ConcurrentHashMap<>();
+
+    // Bumped before every change is applied, so a load can tell it raced one
+    private final AtomicLong changes = new AtomicLong();
+
+    /** The user's friend ids. The returned set must not be modified. */
+    public LongHashSet friendsOf(Long userId) {
+        LongHashSet friends = adjacency.get(userId);
+        if (friends != null) {
+            return friends;
+        }
+        // Queried outside the map, so a slow load never blocks other keys in its bin
+        long seen = changes.get();
+        LongHashSet loaded = LongHashSet.of(friendshipRepository.findFriendIds(userId));
+        friends = adjacency.putIfAbsent(userId, loaded);
+        if (friends != null) {
+            return friends;
+        }
+        if (changes.get() != seen) {
+            // A change may have committed after the query and found nothing to update
+            adjacency.remove(userId);
+        }
+        return loaded;
+    }
+
+    public boolean areFriends(Long userId, Long otherId) {
+        return friendsOf(userId).contains(otherId);
+    }
+
+    // Ahead of the other listeners, so they already read the new graph
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        // Loads running now drop their set rather than cache one missing this change
+        update(event.userId(), event.otherId(), event.friends());
+        update(event.otherId(), event.userId(), event.friends());
+    }
+
+    public void removeUser(Long userId) {
+        LongHashSet friends = adjacency.remove(userId);
+        if (friends != null) {
+            friends.forEach(friendId -> update(friendId, userId, false));
+        } else {
+            // Not loaded, so any friend's set may still list them
+            adjacency.keySet().forEach(id -> update(id, userId, false));
+        }
+    }
+
+    private void update(Long userId, long friendId, boolean friends) {
+        changes.incrementAndGet();
+        adjacency.computeIfPresent(userId, (id, current) -> {
+            if (current.contains(friendId) == friends) {
+                return current;
+            }
+            LongHashSet changed = new LongHashSet(current);
+            if (friends) {
+                changed.add(friendId);
+            } else {
+                changed.remove(friendId);
+            }
+            return changed.isEmpty() ? NONE : changed;
+        });
+    }
+}
@@ -1,20 +1,25 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.FeedPage;
 import com.example.backend.entity.Activity;
 import com.example.backend.entity.FriendRequest;
 import com.example.backend.entity.Friendship;
 import com.example.backend.entity.User;
+import com.example.backend.event.FriendshipChangedEvent;
 import com.example.backend.repository.ActivityRepository;
 import com.example.backend.repository.FriendRequestRepository;
 import com.example.backend.repository.FriendshipRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.util.KeysetCursor;
+import com.example.backend.util.LongHashSet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class SocialService {
@@ -31,6 +36,15 @@ public class SocialService {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public void sendFriendRequest(User sender, String receiverUsername) {
         User receiver = userRepository.findByUsername(receiverUsername)
@@ -45,7 +59,7 @@ public class SocialService {
             throw new RuntimeException("Request already pending");
         }
 
-        if (friendshipRepository.findByUsers(sender, receiver).isPresent()) {
+        if (socialGraphService.areFriends(sender.getId(), receiver.getId())) {
             throw new RuntimeException("Already friends");
         }
 
@@ -63,7 +77,7 @@ public class SocialService {
             throw new RuntimeException("Unauthorized");
         }
 
-        if (friendshipRepository.findByUsers(request.getSender(), request.getReceiver()).isPresent()) {
+        if (socialGraphService.areFriends(request.getSender().getId(), request.getReceiver().getId())) {
             request.setStatus(FriendRequest.RequestStatus.ACCEPTED);
             friendRequestRepository.save(request);
             return; // Already friends, just close the request
@@ -74,6 +88,8 @@ public class SocialService {
 
         Friendship friendship = new Friendship(null, request.getSender(), request.getReceiver(), LocalDateTime.now());
         friendshipRepository.save(friendship);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(request.getSender().getId(),
+                request.getReceiver().getId(), true));
 
         logActivity(request.getSender(), "FRIEND_ADDED", "is now friends with " + request.getReceiver().getUsername());
         logActivity(request.getReceiver(), "FRIEND_ADDED", "is now friends with " + request.getSender().getUsername());
@@ -84,15 +100,20 @@ public class SocialService {
     }
 
     public List<User> getFriends(User user) {
-        return friendshipRepository.findByAnyUser(user).stream()
-                .map(f -> f.getUser1().getId().equals(user.getId()) ? f.getUser2() : f.getUser1())
-                .collect(Collectors.toList());
+        LongHashSet friendIds = socialGraphService.friendsOf(user.getId());
+        if (friendIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllById(friendIds.boxed());
     }
 
-    @Transactional
+    // Written in the background once the caller's transaction commits
     public void logActivity(User user, String type, String content) {
-        Activity activity = new Activity(null, user, type, content, LocalDateTime.now());
-        activityRepository.save(activity);
+        activityLogService.log(new Activity(null, user, type, content, LocalDateTime.now()));
+    }
+
+    public void logActivities(List<Activity> activities) {
+        activityLogService.logAll(activities);
     }
 
     @Transactional
@@ -101,16 +122,28 @@ public class SocialService {
                 .orElseThrow(() -> new RuntimeException("User not found: " + friendUsername));
 
         friendshipRepository.deleteByUsers(user, friend);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(user.getId(), friend.getId(), false));
 
         logActivity(user, "UNFRIEND", "is no longer friends with " + friend.getUsername());
         logActivity(friend, "UNFRIEND", "is no longer friends with " + user.getUsername());
     }
 
     public List<Activity> getGlobalFeed() {
-        return activityRepository.findTop50ByOrderByCreatedAtDesc();
+        return getGlobalFeed(null, 50).getItems();
+    }
+
+    public FeedPage getGlobalFeed(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return FeedPage.of(activityRepository.findPageAfter(after.createdAt(), after.id(), Limit.of(size)), size);
+    }
+
+    public FeedPage getUserFeed(User user, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return FeedPage.of(activityRepository.findUserPageAfter(user.getId(), after.createdAt(), after.id(),
+                Limit.of(size)), size);
     }
 
     public boolean areFriends(User user1, User user2) {
-        return friendshipRepository.findByUsers(user1, user2).isPresent();
+        return socialGraphService.areFriends(user1.getId(), user2.getId());
     }
 }
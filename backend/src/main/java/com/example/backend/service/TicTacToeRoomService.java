@@ -2,10 +2,12 @@ package com.example.backend.service;
 
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
+import com.example.backend.event.GameFinishedEvent;
 import com.example.backend.repository.GameRoomRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,9 @@ public class TicTacToeRoomService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public GameRoom startGame(Long roomId, User user) throws Exception {
         GameRoom room = gameRoomRepository.findById(roomId)
@@ -88,6 +93,11 @@ public class TicTacToeRoomService {
         if (winnerObj != null) {
             String winner = (String) winnerObj;
             currentGameState.put("winner", winner);
+            if (!"FINISHED".equals(room.getStatus())) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> players = (Map<String, String>) currentGameState.get("players");
+                eventPublisher.publishEvent(GameFinishedEvent.fromColors(room.getGameType(), players, winner));
+            }
             room.setStatus("FINISHED");
 
             // Update session stats
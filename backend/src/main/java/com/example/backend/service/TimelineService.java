@@ -0,0 +1,264 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.FeedPage;
+import com.example.backend.entity.Activity;
+import com.example.backend.entity.User;
+import com.example.backend.event.ActivityLoggedEvent;
+import com.example.backend.event.FriendshipChangedEvent;
+import com.example.backend.repository.ActivityRepository;
+import com.example.backend.repository.FriendshipRepository;
+import com.example.backend.util.KeysetCursor;
+import com.example.backend.util.LongHashSet;
+import com.example.backend.util.RingBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Friends-only activity feeds.
+ *
+ * Every reader who has opened their feed gets a bounded ring buffer, and each
+ * new activity is pushed into the buffers of its author's friends once it
+ * commits, so a page is served from memory. The activities table is the
+ * persistent backing: buffers are filled from it on first read, and pages
+ * older than a buffer holds are keyset queries against it.
+ *
+ * Authors with more friends than the fan-out limit are not pushed anywhere.
+ * Their recent activity sits in a buffer of their own that readers merge in.
+ *
+ * A new buffer is registered before it is filled, so activity committed in
+ * between is pushed into it; until the fill is done, readers are answered
+ * from storage instead.
+ *
+ * Buffers that have not been read for social.timeline.idle-minutes are
+ * dropped, and past social.timeline.max-buffers the least recently read go
+ * first, so memory follows the readers who are active rather than everyone
+ * who ever opened a feed. A dropped reader is filled from storage again.
+ */
+@Service
+public class TimelineService {
+
+    // Same order as the keyset queries, at the precision the database keeps
+    private static final Comparator<Activity> NEWEST_FIRST = Comparator
+            .comparing((Activity a) -> a.getCreatedAt().truncatedTo(ChronoUnit.MICROS), Comparator.reverseOrder())
+            .thenComparing(Activity::getId, Comparator.reverseOrder());
+
+    private static final class Buffer {
+        private final RingBuffer<Activity> entries;
+        private volatile boolean filled;
+        private volatile long lastReadAt = System.nanoTime();
+
+        private Buffer(int capacity) {
+            this.entries = new RingBuffer<>(capacity);
+        }
+    }
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Value("${social.timeline.capacity:200}")
+    private int capacity = 200;
+
+    @Value("${social.timeline.fanout-limit:500}")
+    private int fanoutLimit = 500;
+
+    @Value("${social.timeline.idle-minutes:30}")
+    private long idleMinutes = 30;
+
+    @Value("${social.timeline.max-buffers:20000}")
+    private int maxBuffers = 20000;
+
+    // Reader id -> activities of their friends
+    private final Map<Long, Buffer> timelines = new ConcurrentHashMap<>();
+    // Celebrity id -> their own activities, merged in on read
+    private final Map<Long, Buffer> outboxes = new ConcurrentHashMap<>();
+    private final Set<Long> celebrities = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCelebrities() {
+        celebrities.addAll(friendshipRepository.findUserIdsWithMoreFriendsThan(fanoutLimit));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogged(ActivityLoggedEvent event) {
+        Activity activity = event.activity();
+        Long authorId = activity.getUser().getId();
+        LongHashSet followers = socialGraphService.friendsOf(authorId);
+        if (followers.size() > fanoutLimit) {
+            celebrities.add(authorId);
+        }
+        if (celebrities.contains(authorId)) {
+            outboxes.computeIfPresent(authorId, (id, outbox) -> {
+                outbox.entries.addNewest(activity);
+                return outbox;
+            });
+            return;
+        }
+        // Only readers with a buffer; everyone else is filled from storage when they first read
+        followers.forEach(followerId -> timelines.computeIfPresent(followerId, (id, timeline) -> {
+            timeline.entries.addNewest(activity);
+            return timeline;
+        }));
+    }
+
+    /** A page of the user's friends' activity, newest first, after the given cursor. */
+    public FeedPage getFriendsFeed(User user, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LongHashSet friends = socialGraphService.friendsOf(user.getId());
+        if (friends.isEmpty()) {
+            return new FeedPage(List.of(), null);
+        }
+
+        List<Buffer> sources = new ArrayList<>();
+        sources.add(timelineFor(user.getId(), friends));
+        for (Long celebrityId : celebrities) {
+            if (friends.contains(celebrityId)) {
+                sources.add(outboxFor(celebrityId));
+            }
+        }
+        long now = System.nanoTime();
+        sources.forEach(source -> source.lastReadAt = now);
+
+        // Another request is still filling a buffer; a partial one would make the feed look finished
+        if (sources.stream().anyMatch(source -> !source.filled)) {
+            return FeedPage.of(activityRepository.findUsersPageAfter(friends.boxed(), after.createdAt(), after.id(),
+                    Limit.of(size)), size);
+        }
+
+        // A full buffer may have dropped rows older than its oldest entry; below that, storage decides
+        Activity horizon = null;
+        Map<Long, Activity> merged = new HashMap<>();
+        for (Buffer source : sources) {
+            List<Activity> entries = source.entries.newest(0, source.entries.capacity());
+            if (entries.size() == source.entries.capacity()) {
+                Activity oldest = Collections.max(entries, NEWEST_FIRST);
+                if (horizon == null || NEWEST_FIRST.compare(oldest, horizon) < 0) {
+                    horizon = oldest;
+                }
+            }
+            // Buffers can briefly hold the same activity twice while they are being filled
+            entries.forEach(a -> merged.putIfAbsent(a.getId(), a));
+        }
+
+        Activity floor = horizon;
+        List<Activity> page = merged.values().stream()
+                .filter(a -> after.isBefore(a.getCreatedAt(), a.getId()))
+                .filter(a -> floor == null || NEWEST_FIRST.compare(a, floor) <= 0)
+                .sorted(NEWEST_FIRST)
+                .limit(size)
+                .toList();
+        if (page.size() < size && horizon != null) {
+            page = activityRepository.findUsersPageAfter(friends.boxed(), after.createdAt(), after.id(),
+                    Limit.of(size));
+        }
+        return FeedPage.of(page, size);
+    }
+
+    // Both sides rebuild their feed on next read; the graph has already been updated
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        for (Long id : List.of(event.userId(), event.otherId())) {
+            timelines.remove(id);
+            if (!celebrities.contains(id) && socialGraphService.friendsOf(id).size() > fanoutLimit) {
+                celebrities.add(id);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${social.timeline.evict-ms:60000}")
+    public void evictIdle() {
+        long idleBefore = System.nanoTime() - Duration.ofMinutes(idleMinutes).toNanos();
+        timelines.values().removeIf(timeline -> timeline.lastReadAt - idleBefore < 0);
+        outboxes.values().removeIf(outbox -> outbox.lastReadAt - idleBefore < 0);
+
+        int excess = timelines.size() - maxBuffers;
+        if (excess > 0) {
+            timelines.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastReadAt - idleBefore))
+                    .limit(excess)
+                    .toList()
+                    .forEach(e -> timelines.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    public void removeUser(Long userId) {
+        // Their activity may sit in friends' buffers
+        socialGraphService.friendsOf(userId).forEach(timelines::remove);
+        timelines.remove(userId);
+        outboxes.remove(userId);
+        celebrities.remove(userId);
+    }
+
+    private Buffer timelineFor(Long userId, LongHashSet friends) {
+        Buffer timeline = timelines.get(userId);
+        if (timeline != null) {
+            return timeline;
+        }
+        // Registered before filling, so activity committed meanwhile is pushed into it
+        Buffer created = new Buffer(capacity);
+        timeline = timelines.putIfAbsent(userId, created);
+        if (timeline != null) {
+            return timeline;
+        }
+        List<Long> pushed = new ArrayList<>();
+        friends.forEach(id -> {
+            if (!celebrities.contains(id)) {
+                pushed.add(id);
+            }
+        });
+        try {
+            if (!pushed.isEmpty()) {
+                activityRepository.findUsersPageAfter(pushed, KeysetCursor.START.createdAt(),
+                        KeysetCursor.START.id(), Limit.of(capacity)).forEach(created.entries::appendOldest);
+            }
+        } catch (RuntimeException e) {
+            timelines.remove(userId, created);
+            throw e;
+        }
+        created.filled = true;
+        return created;
+    }
+
+    private Buffer outboxFor(Long celebrityId) {
+        Buffer outbox = outboxes.get(celebrityId);
+        if (outbox != null) {
+            return outbox;
+        }
+        Buffer created = new Buffer(capacity);
+        outbox = outboxes.putIfAbsent(celebrityId, created);
+        if (outbox != null) {
+            return outbox;
+        }
+        try {
+            activityRepository.findUserPageAfter(celebrityId, KeysetCursor.START.createdAt(),
+                    KeysetCursor.START.id(), Limit.of(capacity)).forEach(created.entries::appendOldest);
+        } catch (RuntimeException e) {
+            outboxes.remove(celebrityId, created);
+            throw e;
+        }
+        created.filled = true;
+        return created;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signed bearer tokens, checked with one HMAC and no database read.
+ *
+ * A token is the base64url claims "type|id|role|expiry|stamp|username", a dot,
+ * and the base64url HMAC-SHA256 of the claims. Access tokens are short-lived, so
+ * a role change applies within one access TTL. Refresh tokens carry a stamp
+ * derived from the password hash, so changing the password revokes them.
+ *
+ * Without auth.token.secret a random key is generated at startup and every
+ * token is invalidated by a restart.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    public enum Type {
+        ACCESS, REFRESH
+    }
+
+    public record Claims(Type type, Long userId, String role, long expiresAt, String stamp, String username) {
+    }
+
+    @Value("${auth.token.secret:}")
+    private String secret = "";
+
+    @Value("${auth.token.access-ttl-seconds:900}")
+    private long accessTtlSeconds = 900;
+
+    @Value("${auth.token.refresh-ttl-seconds:1209600}")
+    private long refreshTtlSeconds = 1209600;
+
+    private Clock clock = Clock.systemUTC();
+
+    private SecretKeySpec key;
+
+    // Mac instances are not thread-safe; one per request thread
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        byte[] bytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("auth.token.secret is not set; using a random key, tokens will not survive a restart");
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(bytes, ALGORITHM);
+    }
+
+    public long getAccessTtlSeconds() {
+        return accessTtlSeconds;
+    }
+
+    public String issueAccessToken(User user) {
+        return sign(Type.ACCESS, user, accessTtlSeconds, "");
+    }
+
+    public String issueRefreshToken(User user) {
+        return sign(Type.REFRESH, user, refreshTtlSeconds, stampOf(user));
+    }
+
+    /** The token's claims if it is well formed, correctly signed, of the given type and unexpired. */
+    public Optional<Claims> verify(String token, Type expected) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(0, dot));
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(hmac(payload), signature)) {
+                return Optional.empty();
+            }
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", 6);
+            Claims claims = new Claims(Type.valueOf(parts[0]), Long.parseLong(parts[1]), parts[2],
+                    Long.parseLong(parts[3]), parts[4], parts[5]);
+            if (claims.type() != expected || claims.expiresAt() <= clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** True if a refresh token was issued for the user's current password. */
+    public boolean isCurrent(Claims claims, User user) {
+        return MessageDigest.isEqual(claims.stamp().getBytes(StandardCharsets.UTF_8),
+                stampOf(user).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String sign(Type type, User user, long ttlSeconds, String stamp) {
+        long expiresAt = clock.instant().getEpochSecond() + ttlSeconds;
+        byte[] payload = String.join("|", type.name(), String.valueOf(user.getId()), user.getRole(),
+                String.valueOf(expiresAt), stamp, user.getUsername()).getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(hmac(payload));
+    }
+
+    private String stampOf(User user) {
+        byte[] digest = hmac(String.valueOf(user.getPassword()).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 9));
+    }
+
+    private byte[] hmac(byte[] data) {
+        return macs.get().doFinal(data);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameMatch;
+import com.example.backend.entity.GameRoom;
+import com.example.backend.repository.GameMatchRepository;
+import com.example.backend.repository.GameRoomRepository;
+import com.example.backend.util.HierarchicalTimingWheel;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Enforces per-turn time limits for UNO rooms and invite matches.
+ *
+ * Every turn change re-arms a single timeout per room/match in a hierarchical
+ * timing wheel, so a move costs O(1) no matter how many games are live. When a
+ * timeout fires the owning service re-checks the game in its own transaction:
+ * UNO rooms auto-draw and pass, matches are forfeited by the idle player.
+ */
+@Service
+public class TurnTimerService {
+
+    private static final Logger log = LoggerFactory.getLogger(TurnTimerService.class);
+
+    public static final String TURN_TIMEOUT_SETTING = "turnTimeoutSeconds";
+
+    private record TurnKey(boolean match, Long id) {
+    }
+
+    @Autowired
+    private GameRoomRepository gameRoomRepository;
+
+    @Autowired
+    private GameMatchRepository gameMatchRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Lazy
+    private UnoRoomService unoRoomService;
+
+    @Autowired
+    @Lazy
+    private MatchService matchService;
+
+    @Value("${game.turn-timer.room-timeout-seconds:60}")
+    private long defaultRoomTimeoutSeconds;
+
+    @Value("${game.turn-timer.match-timeout-seconds:86400}")
+    private long matchTimeoutSeconds;
+
+    // 1s ticks, 64 slots per level, 4 levels: covers ~194 days before parking
+    private final HierarchicalTimingWheel<TurnKey> wheel = new HierarchicalTimingWheel<>(1000, 6, 4,
+            System.currentTimeMillis());
+
+    // Re-arm deadlines for games that were in progress when the server stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void rearmActiveGames() {
+        gameRoomRepository.findByStatus("PLAYING").forEach(this::onRoomTurn);
+        gameMatchRepository.findByStatus("ACTIVE").forEach(this::onMatchTurn);
+        log.info("Turn timer armed with {} live deadlines", wheel.size());
+    }
+
+    // Call after any change to a room's turn or status
+    public void onRoomTurn(GameRoom room) {
+        TurnKey key = new TurnKey(false, room.getId());
+        Duration timeout = roomTimeout(room);
+        if (!"PLAYING".equals(room.getStatus()) || timeout == null) {
+            wheel.cancel(key);
+            return;
+        }
+        wheel.schedule(key, remainingMillis(room.getLastActivityAt(), timeout));
+    }
+
+    // Call after any change to a match's turn or status
+    public void onMatchTurn(GameMatch match) {
+        TurnKey key = new TurnKey(true, match.getId());
+        Duration timeout = matchTimeout();
+        if (!"ACTIVE".equals(match.getStatus()) || timeout == null) {
+            wheel.cancel(key);
+            return;
+        }
+        wheel.schedule(key, remainingMillis(match.getLastMoveAt(), timeout));
+    }
+
+    @Scheduled(fixedDelayString = "${game.turn-timer.tick-ms:1000}")
+    public void tick() {
+        for (TurnKey key : wheel.advanceTo(System.currentTimeMillis())) {
+            try {
+                if (key.match()) {
+                    matchService.expireTurn(key.id(), matchTimeout());
+                } else {
+                    unoRoomService.expireTurn(key.id());
+                }
+            } catch (Exception e) {
+                log.warn("Turn timeout for {} {} failed: {}", key.match() ? "match" : "room", key.id(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    // Only UNO turns are server-driven; other room games submit whole boards from
+    // the client, so there is nothing sensible to auto-play for them.
+    Duration roomTimeout(GameRoom room) {
+        if (!"UNO".equalsIgnoreCase(room.getGameType())) {
+            return null;
+        }
+        long seconds = defaultRoomTimeoutSeconds;
+        if (room.getSettings() != null) {
+            try {
+                Map<String, Object> settings = objectMapper.readValue(room.getSettings(),
+                        new TypeReference<Map<String, Object>>() {
+                        });
+                Object configured = settings.get(TURN_TIMEOUT_SETTING);
+                if (configured instanceof Number number) {
+                    seconds = number.longValue();
+                }
+            } catch (Exception e) {
+                // Malformed settings fall back to the default limit
+            }
+        }
+        return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+    }
+
+    private Duration matchTimeout() {
+        return matchTimeoutSeconds > 0 ? Duration.ofSeconds(matchTimeoutSeconds) : null;
+    }
+
+    private long remainingMillis(LocalDateTime lastActivity, Duration timeout) {
+        if (lastActivity == null) {
+            return timeout.toMillis();
+        }
+        return timeout.toMillis() - Duration.between(lastActivity, LocalDateTime.now()).toMillis();
+    }
+}
@@ -1,17 +1,21 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.RoomSummary;
 import com.example.backend.entity.GameRoom;
 import com.example.backend.entity.User;
+import com.example.backend.event.GameFinishedEvent;
 import com.example.backend.repository.GameRoomRepository;
 import com.example.backend.repository.UserRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -27,6 +31,12 @@ public class UnoRoomService {
     @Autowired
     private RoomService roomService; // Use RoomService for generic operations
 
+    @Autowired
+    private TurnTimerService turnTimerService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // Create a new UNO room
@@ -35,10 +45,16 @@ public class UnoRoomService {
     // just delegate.
     @Transactional
     public GameRoom createRoom(User host, int maxPlayers) throws Exception {
+        return createRoom(host, maxPlayers, new HashMap<>());
+    }
+
+    // Create a new UNO room with settings (e.g. turnTimeoutSeconds)
+    @Transactional
+    public GameRoom createRoom(User host, int maxPlayers, Map<String, Object> settings) throws Exception {
         if (maxPlayers < 2 || maxPlayers > 6) {
             throw new RuntimeException("UNO requires 2-6 players");
         }
-        return roomService.createRoom(host, "UNO", maxPlayers);
+        return roomService.createRoom(host, "UNO", maxPlayers, settings);
     }
 
     // Join a room by invite code
@@ -87,7 +103,7 @@ public class UnoRoomService {
             room.setGamesPlayed(0);
         }
 
-        return gameRoomRepository.save(room);
+        return saveAndRearm(room);
     }
 
     // Initialize UNO game state
@@ -317,6 +333,7 @@ public class UnoRoomService {
                 winners.add(lastPlayer);
             }
             room.setStatus("FINISHED");
+            eventPublisher.publishEvent(new GameFinishedEvent("uno", winners, false));
 
             // Update session wins for the winner (first in winners list)
             if (!winners.isEmpty()) {
@@ -337,7 +354,7 @@ public class UnoRoomService {
         room.setCurrentPlayerUsername((String) players.get(nextIndex).get("username"));
         room.setLastActivityAt(LocalDateTime.now());
 
-        return gameRoomRepository.save(room);
+        return saveAndRearm(room);
     }
 
     // Draw a card - handles penalty stacking
@@ -380,7 +397,7 @@ public class UnoRoomService {
             room.setCurrentPlayerIndex(nextIndex);
             room.setCurrentPlayerUsername((String) players.get(nextIndex).get("username"));
             room.setLastActivityAt(LocalDateTime.now());
-            return gameRoomRepository.save(room);
+            return saveAndRearm(room);
         }
 
         // Check if player already drew this turn
@@ -429,7 +446,7 @@ public class UnoRoomService {
         }
 
         room.setLastActivityAt(LocalDateTime.now());
-        return gameRoomRepository.save(room);
+        return saveAndRearm(room);
     }
 
     // Pass turn - only allowed after drawing a playable card
@@ -471,7 +488,67 @@ public class UnoRoomService {
         room.setCurrentPlayerUsername((String) players.get(nextIndex).get("username"));
         room.setLastActivityAt(LocalDateTime.now());
 
-        return gameRoomRepository.save(room);
+        return saveAndRearm(room);
+    }
+
+    // Turn deadline expired: take any pending penalty (or a single card) for the
+    // idle player and pass to the next one
+    @Transactional
+    public GameRoom expireTurn(Long roomId) throws JsonProcessingException {
+        GameRoom room = gameRoomRepository.findById(roomId).orElse(null);
+        if (room == null || !"PLAYING".equals(room.getStatus())) {
+            return room;
+        }
+
+        Duration timeout = turnTimerService.roomTimeout(room);
+        if (timeout == null) {
+            return room;
+        }
+        if (room.getLastActivityAt() != null && room.getLastActivityAt().plus(timeout).isAfter(LocalDateTime.now())) {
+            // A move landed after the deadline was armed
+            turnTimerService.onRoomTurn(room);
+            return room;
+        }
+
+        Map<String, Object> gameState = objectMapper.readValue(
+                room.getGameState(), new TypeReference<Map<String, Object>>() {
+                });
+        String username = room.getCurrentPlayerUsername();
+
+        @SuppressWarnings("unchecked")
+        Map<String, List<Map<String, Object>>> hands = (Map<String, List<Map<String, Object>>>) gameState.get("hands");
+        if (hands.containsKey(username)) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> pendingPenalty = (Map<String, Object>) gameState.get("pendingPenalty");
+            if (pendingPenalty != null) {
+                drawCardsForPlayer(gameState, username, ((Number) pendingPenalty.get("count")).intValue());
+                gameState.put("pendingPenalty", null);
+            } else if (!Boolean.TRUE.equals(gameState.getOrDefault("hasDrawn", false))) {
+                drawCardsForPlayer(gameState, username, 1);
+            }
+        }
+        gameState.put("hasDrawn", false);
+
+        List<Map<String, Object>> players = objectMapper.readValue(
+                room.getPlayers(), new TypeReference<List<Map<String, Object>>>() {
+                });
+        int direction = (int) gameState.get("direction");
+        int playerCount = players.size();
+        int currentIndex = room.getCurrentPlayerIndex();
+        int nextIndex = (currentIndex + direction + playerCount) % playerCount;
+
+        room.setGameState(objectMapper.writeValueAsString(gameState));
+        room.setCurrentPlayerIndex(nextIndex);
+        room.setCurrentPlayerUsername((String) players.get(nextIndex).get("username"));
+        room.setLastActivityAt(LocalDateTime.now());
+
+        return saveAndRearm(room);
+    }
+
+    private GameRoom saveAndRearm(GameRoom room) {
+        GameRoom saved = gameRoomRepository.save(room);
+        turnTimerService.onRoomTurn(saved);
+        return saved;
     }
 
     @SuppressWarnings("unchecked")
@@ -541,8 +618,8 @@ public class UnoRoomService {
     }
 
     // Get user's active rooms
-    public List<GameRoom> getUserActiveRooms(User user) {
-        return gameRoomRepository.findActiveRoomsByPlayer(user.getUsername());
+    public List<RoomSummary> getUserActiveRooms(String username) {
+        return gameRoomRepository.findActiveRoomsByPlayer(username);
     }
 
     // Play again
@@ -571,6 +648,6 @@ public class UnoRoomService {
         room.setCurrentPlayerUsername((String) players.get(0).get("username"));
         room.setLastActivityAt(LocalDateTime.now());
 
-        return gameRoomRepository.save(room);
+        return saveAndRearm(room);
     }
 }
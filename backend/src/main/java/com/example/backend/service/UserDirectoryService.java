@@ -0,0 +1,196 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AdminUserRow;
+import com.example.backend.dto.UserPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admin view of the users table: filtered keyset pages and full exports.
+ *
+ * Pages are ordered by id and continue strictly after the last id seen, so
+ * every page costs one index range scan however deep it is. Exports read the
+ * same rows through a forward-only cursor with a fetch size and write each row
+ * as it arrives, so memory stays flat whatever the table size.
+ */
+@Service
+public class UserDirectoryService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Format must be csv or ndjson");
+        }
+    }
+
+    /** Optional filters; null means no constraint. */
+    public record Filter(String role, LocalDateTime activeSince, Integer minScore, Integer maxScore) {
+    }
+
+    private static final String COLUMNS = "SELECT id, username, display_name, role, level, total_score, last_active_at "
+            + "FROM users";
+
+    private static final RowMapper<AdminUserRow> ROW_MAPPER = (rs, i) -> {
+        Timestamp lastActiveAt = rs.getTimestamp("last_active_at");
+        return new AdminUserRow(rs.getLong("id"), rs.getString("username"), rs.getString("display_name"),
+                rs.getString("role"), (Integer) rs.getObject("level"), (Integer) rs.getObject("total_score"),
+                lastActiveAt == null ? null : lastActiveAt.toLocalDateTime());
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${admin.users.export-fetch-size:500}")
+    private int exportFetchSize = 500;
+
+    private JdbcTemplate exportTemplate;
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void init() {
+        exportTemplate = new JdbcTemplate(dataSource);
+        exportTemplate.setFetchSize(exportFetchSize);
+        // PostgreSQL only honours the fetch size inside a transaction; otherwise it buffers the whole result
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /** Up to {@code size} users after the cursor (null for the first page), by id. */
+    public UserPage getPage(Filter filter, String cursor, int size) {
+        List<Object> args = new ArrayList<>();
+        String sql = COLUMNS + where(filter, afterId(cursor), args) + " ORDER BY id LIMIT ?";
+        args.add(size);
+        List<AdminUserRow> rows = jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+        String next = rows.size() < size ? null : String.valueOf(rows.get(rows.size() - 1).getId());
+        return new UserPage(rows, next);
+    }
+
+    /** Writes every matching user to {@code out}, streaming rows straight from the database. */
+    public void export(Filter filter, Format format, OutputStream out) throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = COLUMNS + where(filter, 0, args) + " ORDER BY id";
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write("id,username,displayName,role,level,totalScore,lastActiveAt\n");
+        }
+        try {
+            readOnly.executeWithoutResult(status -> exportTemplate.query(sql, rs -> {
+                AdminUserRow row = ROW_MAPPER.mapRow(rs, 0);
+                try {
+                    if (format == Format.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    // Usually the client went away; stop reading rows
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    static String where(Filter filter, long afterId, List<Object> args) {
+        StringBuilder sql = new StringBuilder(" WHERE id > ?");
+        args.add(afterId);
+        if (filter.role() != null) {
+            sql.append(" AND role = ?");
+            args.add(filter.role());
+        }
+        if (filter.activeSince() != null) {
+            sql.append(" AND last_active_at >= ?");
+            args.add(Timestamp.valueOf(filter.activeSince()));
+        }
+        if (filter.minScore() != null) {
+            sql.append(" AND total_score >= ?");
+            args.add(filter.minScore());
+        }
+        if (filter.maxScore() != null) {
+            sql.append(" AND total_score <= ?");
+            args.add(filter.maxScore());
+        }
+        return sql.toString();
+    }
+
+    private static long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static void writeCsv(Writer writer, AdminUserRow row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(csv(row.getUsername()));
+        writer.write(',');
+        writer.write(csv(row.getDisplayName()));
+        writer.write(',');
+        writer.write(csv(row.getRole()));
+        writer.write(',');
+        writer.write(row.getLevel() == null ? "" : row.getLevel().toString());
+        writer.write(',');
+        writer.write(row.getTotalScore() == null ? "" : row.getTotalScore().toString());
+        writer.write(',');
+        writer.write(row.getLastActiveAt() == null ? "" : row.getLastActiveAt().toString());
+        writer.write('\n');
+    }
+
+    static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Display names are user input; keep spreadsheets from running them as formulas
+        if ("=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BackfillCutoff;
+import com.example.backend.entity.CompletedBackfill;
+import com.example.backend.entity.Game;
+import com.example.backend.entity.User;
+import com.example.backend.entity.UserGameStats;
+import com.example.backend.event.GameFinishedEvent;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.BackfillCutoffRepository;
+import com.example.backend.repository.CompletedBackfillRepository;
+import com.example.backend.repository.GameRepository;
+import com.example.backend.repository.UserGameStatsRepository;
+import com.example.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Games played, score sum, best score and last played time per user per game.
+ *
+ * The user_game_stats row is bumped inside the transaction that records the
+ * score or finishes the room, so it always agrees with the scores table and
+ * reading someone's stats is one indexed lookup on user_id. Databases that
+ * predate the table are filled from score history once: scores up to a cutoff
+ * taken before the first request are history, later ones are counted live.
+ */
+@Service
+public class UserGameStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserGameStatsService.class);
+
+    private static final String BACKFILL = "user_game_stats";
+    private static final int BACKFILL_ATTEMPTS = 3;
+
+    @Autowired
+    private UserGameStatsRepository userGameStatsRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CompletedBackfillRepository completedBackfillRepository;
+
+    @Autowired
+    private BackfillCutoffRepository backfillCutoffRepository;
+
+    @Value("${stats.backfill-threads:4}")
+    private int backfillThreads = 4;
+
+    // Before the web server starts, so no live score can land on both sides of the cutoff. Kept
+    // across restarts: a backfill retried on the next start must use the same boundary
+    @PostConstruct
+    public void takeBackfillCutoff() {
+        if (!completedBackfillRepository.existsById(BACKFILL) && !backfillCutoffRepository.existsById(BACKFILL)) {
+            backfillCutoffRepository.save(new BackfillCutoff(BACKFILL, userGameStatsRepository.findMaxScoreId(),
+                    LocalDateTime.now()));
+        }
+    }
+
+    // Runs after GameService has seeded the games
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfNeeded() {
+        if (completedBackfillRepository.existsById(BACKFILL)) {
+            return;
+        }
+        long cutoffId = backfillCutoffRepository.findById(BACKFILL).map(BackfillCutoff::getScoreId).orElse(0L);
+        long maxUserId = userGameStatsRepository.findMaxScoredUserId();
+
+        // Disjoint user id slices, so the inserts never touch the same row
+        int slices = Math.max(1, backfillThreads);
+        long sliceSize = maxUserId / slices + 1;
+        AtomicInteger rows = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(slices);
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < slices && i * sliceSize < maxUserId; i++) {
+                long fromId = i * sliceSize + 1;
+                long toId = Math.min(maxUserId, (i + 1) * sliceSize);
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    if (!backfillSlice(fromId, toId, cutoffId, rows)) {
+                        failed.incrementAndGet();
+                    }
+                }, pool));
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        if (failed.get() > 0) {
+            // No marker, so the next start fills in whatever these slices missed
+            log.warn("Backfilled {} user game stats; {} slices failed and will be retried on the next start",
+                    rows.get(), failed.get());
+            return;
+        }
+        completedBackfillRepository.save(new CompletedBackfill(BACKFILL, LocalDateTime.now()));
+        log.info("Backfilled {} user game stats from score history", rows.get());
+    }
+
+    private boolean backfillSlice(long fromId, long toId, long cutoffId, AtomicInteger rows) {
+        for (int attempt = 1; attempt <= BACKFILL_ATTEMPTS; attempt++) {
+            try {
+                rows.addAndGet(userGameStatsRepository.backfillFromScores(fromId, toId, cutoffId));
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Stats backfill failed for users {} to {} (attempt {} of {})", fromId, toId, attempt,
+                        BACKFILL_ATTEMPTS, e);
+            }
+        }
+        return false;
+    }
+
+    // Inside the submitting transaction, so the stats commit with the score
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void persistScore(ScoreSubmittedEvent event) {
+        LocalDateTime playedAt = event.createdAt() != null ? event.createdAt() : LocalDateTime.now();
+        userGameStatsRepository.upsertScore(event.userId(), event.gameId(), event.scoreValue(), playedAt);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        Game game = gameRepository.findByType(event.gameType()).orElse(null);
+        if (game == null) {
+            return;
+        }
+        LocalDateTime playedAt = LocalDateTime.now();
+        for (String username : event.standings()) {
+            userRepository.findByUsername(username)
+                    .ifPresent(player -> userGameStatsRepository.upsertGame(player.getId(), game.getId(), playedAt));
+        }
+    }
+
+    /** The player's stats per game, most recently played first. */
+    public List<Map<String, Object>> getStats(User user) {
+        List<UserGameStats> stats = userGameStatsRepository.findByUserId(user.getId());
+        if (stats.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Game> games = gameRepository.findAllById(stats.stream().map(UserGameStats::getGameId).toList())
+                .stream().collect(Collectors.toMap(Game::getId, Function.identity()));
+
+        return stats.stream()
+                .filter(s -> games.containsKey(s.getGameId()))
+                .sorted(Comparator.comparing(UserGameStats::getLastPlayedAt,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .map(s -> {
+                    Game game = games.get(s.getGameId());
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("gameType", game.getType());
+                    row.put("gameName", game.getName());
+                    row.put("gamesPlayed", s.getGamesPlayed());
+                    row.put("bestScore", s.getBestScore());
+                    row.put("averageScore", s.getGamesPlayed() == 0 ? 0 : s.getScoreSum() / s.getGamesPlayed());
+                    row.put("lastPlayedAt", s.getLastPlayedAt());
+                    return row;
+                })
+                .toList();
+    }
+
+    public void removeUser(Long userId) {
+        userGameStatsRepository.deleteByUserId(userId);
+    }
+
+    public void removeGame(Game game) {
+        userGameStatsRepository.deleteByGameId(game.getId());
+    }
+}
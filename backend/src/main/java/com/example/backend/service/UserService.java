@@ -2,12 +2,17 @@ package com.example.backend.service;
 
 import com.example.backend.entity.User;
 import com.example.backend.repository.*;
+import com.example.backend.util.AfterCommit;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -34,6 +39,56 @@ public class UserService {
     @Autowired
     private FriendRequestRepository friendRequestRepository;
 
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private AchievementService achievementService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Autowired
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @Autowired
+    private UserGameStatsService userGameStatsService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private CredentialCacheService credentialCacheService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    private volatile String unknownUserHash;
+
+    @Value("${users.cache.ttl-seconds:30}")
+    private long cacheTtlSeconds = 30;
+
+    private record CachedUser(User user, long expiresAt) {
+    }
+
+    // Recently loaded users by id, for requests that need the signed-in user's entity
+    private final Map<Long, CachedUser> recentUsers = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedUser> eldest) {
+                    return size() > 1024;
+                }
+            });
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -42,8 +97,39 @@ public class UserService {
         return userRepository.findById(id);
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    /** The user if the password matches; the only place a login pays for a BCrypt check. */
+    public Optional<User> authenticate(String username, String password) {
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty()) {
+            // Same cost as a wrong password, so timing does not reveal which usernames exist
+            passwordEncoder.matches(password, unknownUserHash());
+            return Optional.empty();
+        }
+        return user.filter(u -> passwordEncoder.matches(password, u.getPassword()));
+    }
+
+    private String unknownUserHash() {
+        if (unknownUserHash == null) {
+            unknownUserHash = passwordEncoder.encode("unknown-user");
+        }
+        return unknownUserHash;
+    }
+
+    /**
+     * A copy of the user, cached for a few seconds. Saves through this service
+     * evict it, but totals changed by batched SQL may lag by up to the TTL, so
+     * callers that read or update score counters use findById instead.
+     */
+    public User getCachedUser(Long id) {
+        CachedUser cached = recentUsers.get(id);
+        if (cached == null || cached.expiresAt() - System.nanoTime() <= 0) {
+            User user = userRepository.findById(id).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            cached = new CachedUser(user, System.nanoTime() + cacheTtlSeconds * 1_000_000_000L);
+            recentUsers.put(id, cached);
+        }
+        User copy = new User();
+        BeanUtils.copyProperties(cached.user(), copy);
+        return copy;
     }
 
     public User registerUser(@org.springframework.lang.NonNull User user) {
@@ -57,11 +143,25 @@ public class UserService {
         if (user.getTotalScore() == null)
             user.setTotalScore(0);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        leaderboardService.updateScore(saved.getId(), saved.getTotalScore());
+        return saved;
     }
 
     public User saveUser(@org.springframework.lang.NonNull User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        recentUsers.remove(saved.getId());
+        contentVersionService.userChanged(saved.getId());
+        return saved;
+    }
+
+    /** Adds a score to the user's total and level in SQL and returns the updated user. */
+    @org.springframework.transaction.annotation.Transactional
+    public User addToTotalScore(@org.springframework.lang.NonNull Long id, int scoreValue) {
+        userRepository.addToTotalScore(id, scoreValue);
+        recentUsers.remove(id);
+        contentVersionService.userChanged(id);
+        return userRepository.findById(id).orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
     @org.springframework.transaction.annotation.Transactional
@@ -74,8 +174,26 @@ public class UserService {
         userAchievementRepository.deleteByUser(user);
         friendshipRepository.deleteByAnyUser(user);
         friendRequestRepository.deleteByAnyUser(user);
+        ratingService.deleteUserRatings(id);
+        gameLeaderboardService.removeUser(id);
+        windowedLeaderboardService.removeUser(id);
+        userGameStatsService.removeUser(id);
+        contentVersionService.userRemoved(id);
 
         userRepository.delete(user);
+
+        // In-memory state goes once the delete has committed; a rollback leaves the user as they were.
+        // The timeline goes first, as it looks up the friends the graph is about to forget
+        String username = user.getUsername();
+        AfterCommit.run(() -> {
+            timelineService.removeUser(id);
+            socialGraphService.removeUser(id);
+            presenceService.forget(id);
+            credentialCacheService.evict(username);
+            recentUsers.remove(id);
+            achievementService.forgetUser(id);
+            leaderboardService.removeUser(id);
+        });
     }
 
     public User toggleUserRole(@org.springframework.lang.NonNull Long id) {
@@ -88,26 +206,14 @@ public class UserService {
             user.setRole("ADMIN");
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        recentUsers.remove(saved.getId());
+        credentialCacheService.evict(saved.getUsername());
+        contentVersionService.userChanged(saved.getId());
+        return saved;
     }
 
     public long countUsers() {
         return userRepository.count();
     }
-
-    public List<User> getTopUsersByScore() {
-        return userRepository.findTop10ByOrderByTotalScoreDesc();
-    }
-
-    // Update user's last active timestamp
-    public void updateLastActive(@org.springframework.lang.NonNull User user) {
-        user.setLastActiveAt(LocalDateTime.now());
-        userRepository.save(user);
-    }
-
-    // Get users who were active in the last 5 minutes
-    public List<User> getOnlineUsers() {
-        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(5);
-        return userRepository.findByLastActiveAtAfter(cutoff);
-    }
 }
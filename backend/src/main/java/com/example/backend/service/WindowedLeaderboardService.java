@@ -0,0 +1,401 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PlayerSummary;
+import com.example.backend.entity.Game;
+import com.example.backend.entity.LeaderboardSeason;
+import com.example.backend.entity.LeaderboardSnapshot;
+import com.example.backend.entity.ScoreBucket;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.GameRepository;
+import com.example.backend.repository.LeaderboardSeasonRepository;
+import com.example.backend.repository.LeaderboardSnapshotRepository;
+import com.example.backend.repository.ScoreBucketRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.AfterCommit;
+import com.example.backend.util.RankedBoard;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Daily, weekly and seasonal leaderboards.
+ *
+ * Scores are folded into per-day buckets (one row per day, season, user and
+ * game) as they are submitted, and the open window of each kind is kept as
+ * in-memory boards: total score across games plus best score per game. When a
+ * window closes its final standings are frozen into leaderboard_snapshots and
+ * a fresh, empty window is swapped in. Starting a new season is the same swap:
+ * old buckets keep their season id, nothing is rewritten. A window whose
+ * snapshot could not be written is kept and frozen again on the next roll.
+ * A score counts towards the windows of its own time: one that arrives after
+ * its day or season closed lands in that window's bucket but not in the
+ * boards that replaced it.
+ */
+@Service
+public class WindowedLeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(WindowedLeaderboardService.class);
+
+    public enum Window {
+        DAILY, WEEKLY, SEASON
+    }
+
+    public static final String ALL_GAMES = "all";
+    public static final int SNAPSHOT_SIZE = 100;
+
+    private static final class WindowBoards {
+        private final String key;
+        private final RankedBoard totals = new RankedBoard();
+        private final Map<String, RankedBoard> bestByGame = new ConcurrentHashMap<>();
+
+        private WindowBoards(String key) {
+            this.key = key;
+        }
+
+        private void add(Long userId, String gameType, long total, int best) {
+            totals.add(userId, total);
+            bestByGame.computeIfAbsent(gameType, t -> new RankedBoard()).raise(userId, best);
+        }
+    }
+
+    @Autowired
+    private ScoreBucketRepository scoreBucketRepository;
+
+    @Autowired
+    private LeaderboardSeasonRepository seasonRepository;
+
+    @Autowired
+    private LeaderboardSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Own transaction: a roll can be triggered after the submitting transaction has committed
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Window, WindowBoards> open = new ConcurrentHashMap<>();
+    private volatile LeaderboardSeason season;
+
+    // Scores are added under the read lock and windows swapped under the write lock, so a closed
+    // window gets no more scores once it is frozen
+    private final ReadWriteLock windowLock = new ReentrantReadWriteLock();
+
+    // Closed windows whose snapshot is not written yet; guarded by this
+    private final Map<Window, List<WindowBoards>> unfrozen = new EnumMap<>(Window.class);
+
+    // Frozen windows never change, so parsed snapshots can be kept
+    private final Map<String, List<Map<String, Object>>> frozenCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Map<String, Object>>> eldest) {
+                    return size() > 256;
+                }
+            });
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadWindows() {
+        season = seasonRepository.findFirstByEndedAtIsNullOrderByIdDesc()
+                .orElseGet(() -> seasonRepository.save(new LeaderboardSeason(null, LocalDateTime.now(), null)));
+
+        LocalDate today = LocalDate.now();
+        Map<Window, WindowBoards> loaded = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            loaded.put(window, new WindowBoards(keyFor(window, today)));
+        }
+
+        Map<Long, String> typesById = gameRepository.findAll().stream()
+                .collect(Collectors.toMap(Game::getId, Game::getType));
+        LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        for (ScoreBucket bucket : scoreBucketRepository.findByDayGreaterThanEqual(weekStart)) {
+            String gameType = typesById.get(bucket.getGameId());
+            if (gameType == null) {
+                continue;
+            }
+            loaded.get(Window.WEEKLY).add(bucket.getUserId(), gameType, bucket.getTotalScore(), bucket.getBestScore());
+            if (bucket.getDay().equals(today)) {
+                loaded.get(Window.DAILY).add(bucket.getUserId(), gameType, bucket.getTotalScore(),
+                        bucket.getBestScore());
+            }
+        }
+        for (ScoreBucket bucket : scoreBucketRepository.findBySeasonId(season.getId())) {
+            String gameType = typesById.get(bucket.getGameId());
+            if (gameType != null) {
+                loaded.get(Window.SEASON).add(bucket.getUserId(), gameType, bucket.getTotalScore(),
+                        bucket.getBestScore());
+            }
+        }
+        open.putAll(loaded);
+    }
+
+    // Inside the submitting transaction, so the bucket commits with the score
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void persistBucket(ScoreSubmittedEvent event) {
+        LocalDateTime at = timeOf(event);
+        scoreBucketRepository.upsertScore(at.toLocalDate(), seasonAt(at).getId(), event.userId(), event.gameId(),
+                event.scoreValue());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreSubmitted(ScoreSubmittedEvent event) {
+        if (!keyFor(Window.DAILY, LocalDate.now()).equals(open.get(Window.DAILY).key)) {
+            rollWindows();
+        }
+        LocalDateTime at = timeOf(event);
+        String gameType = event.gameType().toLowerCase();
+        windowLock.readLock().lock();
+        try {
+            boolean inSeason = !at.isBefore(season.getStartedAt());
+            for (Map.Entry<Window, WindowBoards> entry : open.entrySet()) {
+                Window window = entry.getKey();
+                WindowBoards boards = entry.getValue();
+                if (window == Window.SEASON ? inSeason : boards.key.equals(keyFor(window, at.toLocalDate()))) {
+                    boards.add(event.userId(), gameType, event.scoreValue(), event.scoreValue());
+                }
+            }
+        } finally {
+            windowLock.readLock().unlock();
+        }
+    }
+
+    // Close any day or week that has ended
+    @Scheduled(cron = "${leaderboard.window-roll-cron:5 0 * * * *}")
+    public void rollWindows() {
+        rollWindows(LocalDate.now());
+    }
+
+    synchronized void rollWindows(LocalDate today) {
+        unfrozen.forEach((window, pending) -> pending.removeIf(closed -> freeze(window, closed)));
+        Map<Window, WindowBoards> closed = new EnumMap<>(Window.class);
+        windowLock.writeLock().lock();
+        try {
+            for (Window window : new Window[] { Window.DAILY, Window.WEEKLY }) {
+                String key = keyFor(window, today);
+                WindowBoards closing = open.get(window);
+                if (closing != null && !closing.key.equals(key)) {
+                    open.put(window, new WindowBoards(key));
+                    closed.put(window, closing);
+                }
+            }
+        } finally {
+            windowLock.writeLock().unlock();
+        }
+        closed.forEach(this::freezeOrKeep);
+    }
+
+    /** Ends the running season and opens a new one; the old standings are frozen as they were. */
+    public synchronized LeaderboardSeason startNewSeason() {
+        LeaderboardSeason ended = season;
+        ended.setEndedAt(LocalDateTime.now());
+        seasonRepository.save(ended);
+
+        LeaderboardSeason next = seasonRepository.save(new LeaderboardSeason(null, LocalDateTime.now(), null));
+        WindowBoards closing;
+        windowLock.writeLock().lock();
+        try {
+            closing = open.put(Window.SEASON, new WindowBoards(keyFor(Window.SEASON, null, next)));
+            season = next;
+        } finally {
+            windowLock.writeLock().unlock();
+        }
+        freezeOrKeep(Window.SEASON, closing);
+        return next;
+    }
+
+    public Map<String, Object> getCurrent(Window window, String gameType, int limit) {
+        WindowBoards boards = open.get(window);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", window);
+        result.put("key", boards.key);
+        result.put("standings", rows(board(boards, gameType), 0, limit));
+        return result;
+    }
+
+    public Map<String, Object> getFrozen(Window window, String key, String gameType) {
+        String scope = scopeOf(gameType);
+        List<Map<String, Object>> standings = frozenCache.computeIfAbsent(window + "/" + key + "/" + scope,
+                k -> snapshotRepository.findByWindowKindAndWindowKeyAndGameType(window.name(), key, scope)
+                        .map(this::parse)
+                        .orElse(null));
+        if (standings == null) {
+            throw new RuntimeException("No leaderboard for " + window + " " + key);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", window);
+        result.put("key", key);
+        result.put("standings", standings);
+        return result;
+    }
+
+    /** The live board for a window, across all games or for one game type. */
+    public RankedBoard currentBoard(Window window, String gameType) {
+        return board(open.get(window), gameType);
+    }
+
+    public void removeUser(Long userId) {
+        scoreBucketRepository.deleteByUserId(userId);
+        AfterCommit.run(() -> {
+            for (WindowBoards boards : open.values()) {
+                boards.totals.remove(userId);
+                boards.bestByGame.values().forEach(board -> board.remove(userId));
+            }
+        });
+    }
+
+    public void removeGame(Game game) {
+        scoreBucketRepository.deleteByGameId(game.getId());
+        // Totals already include the game's scores; they age out with the window
+        for (WindowBoards boards : open.values()) {
+            boards.bestByGame.remove(game.getType().toLowerCase());
+        }
+    }
+
+    private void freezeOrKeep(Window window, WindowBoards closed) {
+        if (!freeze(window, closed)) {
+            unfrozen.computeIfAbsent(window, w -> new ArrayList<>()).add(closed);
+        }
+    }
+
+    private boolean freeze(Window window, WindowBoards closed) {
+        List<LeaderboardSnapshot> snapshots = new ArrayList<>();
+        try {
+            snapshots.add(snapshot(window, closed.key, ALL_GAMES, closed.totals));
+            closed.bestByGame.forEach((gameType, board) -> snapshots.add(snapshot(window, closed.key, gameType,
+                    board)));
+            transactionTemplate.executeWithoutResult(status -> {
+                // A retry after a commit that only looked failed has nothing left to do
+                if (snapshotRepository.findByWindowKindAndWindowKeyAndGameType(window.name(), closed.key, ALL_GAMES)
+                        .isEmpty()) {
+                    snapshotRepository.saveAll(snapshots);
+                }
+            });
+            log.info("Froze {} leaderboard {} ({} boards)", window, closed.key, snapshots.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not freeze {} leaderboard {}, will retry on the next roll", window, closed.key, e);
+            return false;
+        }
+    }
+
+    private LeaderboardSnapshot snapshot(Window window, String key, String gameType, RankedBoard board) {
+        try {
+            String standings = objectMapper.writeValueAsString(rows(board, 0, SNAPSHOT_SIZE));
+            return new LeaderboardSnapshot(null, window.name(), key, gameType, standings, LocalDateTime.now());
+        } catch (Exception e) {
+            throw new RuntimeException("Could not serialize leaderboard", e);
+        }
+    }
+
+    private List<Map<String, Object>> parse(LeaderboardSnapshot snapshot) {
+        try {
+            return List.copyOf(objectMapper.readValue(snapshot.getStandings(),
+                    new TypeReference<List<Map<String, Object>>>() {
+                    }));
+        } catch (Exception e) {
+            throw new RuntimeException("Corrupt leaderboard snapshot " + snapshot.getId(), e);
+        }
+    }
+
+    private List<Map<String, Object>> rows(RankedBoard board, int offset, int limit) {
+        if (board == null) {
+            return List.of();
+        }
+        List<RankedBoard.Entry> entries = board.page(offset, limit);
+        Map<Long, PlayerSummary> users = userRepository.findSummariesByIdIn(entries.stream()
+                .map(RankedBoard.Entry::memberId).toList()).stream()
+                .collect(Collectors.toMap(PlayerSummary::getId, Function.identity()));
+        List<Map<String, Object>> rows = new ArrayList<>(entries.size());
+        for (RankedBoard.Entry entry : entries) {
+            PlayerSummary user = users.get(entry.memberId());
+            if (user == null) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", offset + rows.size() + 1);
+            row.put("username", user.getUsername());
+            row.put("displayName", user.getDisplayName());
+            row.put("avatarEmoji", user.getAvatarEmoji());
+            row.put("score", entry.score());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static RankedBoard board(WindowBoards boards, String gameType) {
+        String scope = scopeOf(gameType);
+        return ALL_GAMES.equals(scope) ? boards.totals : boards.bestByGame.get(scope);
+    }
+
+    private static String scopeOf(String gameType) {
+        return gameType == null || gameType.isBlank() ? ALL_GAMES : gameType.toLowerCase();
+    }
+
+    private static LocalDateTime timeOf(ScoreSubmittedEvent event) {
+        return event.createdAt() != null ? event.createdAt() : LocalDateTime.now();
+    }
+
+    // Late scores from before the running season started count towards the season they were set in
+    private LeaderboardSeason seasonAt(LocalDateTime at) {
+        LeaderboardSeason current = season;
+        if (!at.isBefore(current.getStartedAt())) {
+            return current;
+        }
+        return seasonRepository.findFirstByStartedAtLessThanEqualOrderByStartedAtDesc(at).orElse(current);
+    }
+
+    private String keyFor(Window window, LocalDate day) {
+        return keyFor(window, day, season);
+    }
+
+    private static String keyFor(Window window, LocalDate day, LeaderboardSeason season) {
+        return switch (window) {
+            case DAILY -> day.toString();
+            case WEEKLY -> String.format("%d-W%02d", day.get(IsoFields.WEEK_BASED_YEAR),
+                    day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case SEASON -> "season-" + season.getId();
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.util;
+
+import java.util.List;
+
+/**
+ * Glicko-2 rating maths (Glickman, "Example of the Glicko-2 system").
+ * Ratings are kept on the familiar Glicko scale (1500 / 350) and converted to
+ * the internal scale only while computing.
+ */
+public final class Glicko2 {
+
+    public static final double DEFAULT_RATING = 1500.0;
+    public static final double DEFAULT_DEVIATION = 350.0;
+    public static final double DEFAULT_VOLATILITY = 0.06;
+
+    private static final double SCALE = 173.7178;
+    private static final double TAU = 0.5;
+    private static final double EPSILON = 0.000001;
+
+    public record Rating(double rating, double deviation, double volatility) {
+        public static final Rating DEFAULT = new Rating(DEFAULT_RATING, DEFAULT_DEVIATION, DEFAULT_VOLATILITY);
+    }
+
+    /** One game against {@code opponent}; score is 1 for a win, 0.5 draw, 0 loss. */
+    public record Result(Rating opponent, double score) {
+    }
+
+    private Glicko2() {
+    }
+
+    /** Rates one rating period in which the player played {@code results}. */
+    public static Rating update(Rating player, List<Result> results) {
+        if (results.isEmpty()) {
+            return decay(player);
+        }
+        double mu = (player.rating() - DEFAULT_RATING) / SCALE;
+        double phi = player.deviation() / SCALE;
+        double sigma = player.volatility();
+
+        double vInverse = 0;
+        double deltaSum = 0;
+        for (Result result : results) {
+            double muJ = (result.opponent().rating() - DEFAULT_RATING) / SCALE;
+            double g = g(result.opponent().deviation() / SCALE);
+            double e = 1.0 / (1.0 + Math.exp(-g * (mu - muJ)));
+            vInverse += g * g * e * (1 - e);
+            deltaSum += g * (result.score() - e);
+        }
+        double v = 1.0 / vInverse;
+        double delta = v * deltaSum;
+
+        double newSigma = volatility(phi, sigma, v, delta);
+        double phiStar = Math.sqrt(phi * phi + newSigma * newSigma);
+        double newPhi = 1.0 / Math.sqrt(1.0 / (phiStar * phiStar) + 1.0 / v);
+        double newMu = mu + newPhi * newPhi * deltaSum;
+
+        return new Rating(newMu * SCALE + DEFAULT_RATING, Math.min(newPhi * SCALE, DEFAULT_DEVIATION), newSigma);
+    }
+
+    /** A rating period without games only widens the deviation. */
+    public static Rating decay(Rating player) {
+        double phi = player.deviation() / SCALE;
+        double phiStar = Math.sqrt(phi * phi + player.volatility() * player.volatility());
+        return new Rating(player.rating(), Math.min(phiStar * SCALE, DEFAULT_DEVIATION), player.volatility());
+    }
+
+    private static double g(double phi) {
+        return 1.0 / Math.sqrt(1.0 + 3.0 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    // Step 5: Illinois-method root finding for the new volatility
+    private static double volatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+        java.util.function.DoubleUnaryOperator f = x -> {
+            double ex = Math.exp(x);
+            double d = phi2 + v + ex;
+            return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / (TAU * TAU);
+        };
+
+        double lower = a;
+        double upper;
+        if (delta2 > phi2 + v) {
+            upper = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f.applyAsDouble(a - k * TAU) < 0) {
+                k++;
+            }
+            upper = a - k * TAU;
+        }
+
+        double fLower = f.applyAsDouble(lower);
+        double fUpper = f.applyAsDouble(upper);
+        while (Math.abs(upper - lower) > EPSILON) {
+            double c = lower + (lower - upper) * fLower / (fUpper - fLower);
+            double fC = f.applyAsDouble(c);
+            if (fC * fUpper <= 0) {
+                lower = upper;
+                fLower = fUpper;
+            } else {
+                fLower = fLower / 2;
+            }
+            upper = c;
+            fUpper = fC;
+        }
+        return Math.exp(lower / 2);
+    }
+}
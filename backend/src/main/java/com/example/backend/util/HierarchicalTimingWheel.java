@@ -0,0 +1,160 @@
+package com.example.backend.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by an arbitrary id.
+ *
+ * Level 0 has one slot per tick, every higher level covers {@code wheelSize}
+ * slots of the level below it. Timeouts are placed by their distance from the
+ * current tick and cascade down a level when their slot comes round, so
+ * scheduling, rescheduling and cancelling are O(1) regardless of how many
+ * timeouts are live. Scheduling a key that is already pending replaces it.
+ *
+ * All methods are synchronized; callers run the returned expired keys outside
+ * of the wheel.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private static final class Timeout<K> {
+        private final K key;
+        private final long deadlineTick;
+        private Timeout<K> prev;
+        private Timeout<K> next;
+
+        private Timeout(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int mask;
+    private final int levels;
+    private final long maxDelayTicks;
+    // slots[level][index] is a sentinel head of a circular doubly-linked list
+    private final Timeout<K>[][] slots;
+    private final Map<K, Timeout<K>> pending = new HashMap<>();
+    private final long startMillis;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelBits, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelBits <= 0 || levels <= 0 || wheelBits * levels >= 62) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        this.levels = levels;
+        this.maxDelayTicks = (1L << (wheelBits * levels)) - 1;
+        this.startMillis = startMillis;
+        this.slots = new Timeout[levels][1 << wheelBits];
+        for (Timeout<K>[] level : slots) {
+            for (int i = 0; i < level.length; i++) {
+                Timeout<K> head = new Timeout<>(null, -1);
+                head.prev = head;
+                head.next = head;
+                level[i] = head;
+            }
+        }
+    }
+
+    /**
+     * Arms (or re-arms) {@code key} to expire {@code delayMillis} from the wheel's
+     * current time. A non-positive delay expires on the next tick.
+     */
+    public synchronized void schedule(K key, long delayMillis) {
+        cancel(key);
+        long delayTicks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        Timeout<K> timeout = new Timeout<>(key, currentTick + delayTicks);
+        pending.put(key, timeout);
+        place(timeout);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = pending.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.unlink();
+        return true;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Advances the wheel up to {@code nowMillis} and returns every key whose
+     * deadline has passed, in deadline order.
+     */
+    public synchronized List<K> advanceTo(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Timeout<K> head = slots[0][(int) (currentTick & mask)];
+            Timeout<K> timeout = head.next;
+            while (timeout != head) {
+                Timeout<K> next = timeout.next;
+                timeout.unlink();
+                pending.remove(timeout.key);
+                expired.add(timeout.key);
+                timeout = next;
+            }
+        }
+        return expired;
+    }
+
+    // When the lower bits of the clock wrap to zero, the matching slot of the next
+    // level up is due: re-place its timeouts by their now smaller distance.
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (wheelBits * level)) - 1)) != 0) {
+                return;
+            }
+            Timeout<K> head = slots[level][(int) ((currentTick >>> (wheelBits * level)) & mask)];
+            Timeout<K> timeout = head.next;
+            while (timeout != head) {
+                Timeout<K> next = timeout.next;
+                timeout.unlink();
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<K> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        long slotTick = timeout.deadlineTick;
+        if (delta > maxDelayTicks) {
+            // Park in the farthest slot; it is re-placed once that slot cascades
+            slotTick = currentTick + maxDelayTicks;
+            delta = maxDelayTicks;
+        }
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (wheelBits * (level + 1)))) {
+            level++;
+        }
+        Timeout<K> head = slots[level][(int) ((slotTick >>> (wheelBits * level)) & mask)];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+}
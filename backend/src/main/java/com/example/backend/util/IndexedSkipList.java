@@ -0,0 +1,186 @@
+package com.example.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skip list that also knows the position of every element.
+ *
+ * Each forward link stores how many elements it jumps over, so besides the
+ * usual O(log n) insert/remove/lookup it can answer "what is the rank of x"
+ * and "which element is at index i" in O(log n), and a slice of m elements
+ * starting at any index in O(log n + m). Elements must be unique under the
+ * comparator.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public class IndexedSkipList<K> {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double PROMOTE = 0.25;
+
+    private static final class Node<K> {
+        private final K key;
+        private final Node<K>[] next;
+        // span[i]: how many positions next[i] is ahead of this node
+        private final int[] span;
+
+        @SuppressWarnings("unchecked")
+        private Node(K key, int level) {
+            this.key = key;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private final Node<K> head = new Node<>(null, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    public IndexedSkipList(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Inserts {@code key}; returns false if an equal element is already present. */
+    @SuppressWarnings("unchecked")
+    public boolean add(K key) {
+        Node<K>[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && comparator.compare(x.next[i].key, key) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        if (x.next[0] != null && comparator.compare(x.next[0].key, key) == 0) {
+            return false;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node<K> node = new Node<>(key, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+        return true;
+    }
+
+    /** Removes the element equal to {@code key}; returns false if there was none. */
+    @SuppressWarnings("unchecked")
+    public boolean remove(K key) {
+        Node<K>[] update = new Node[MAX_LEVEL];
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].key, key) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node<K> target = x.next[0];
+        if (target == null || comparator.compare(target.key, key) != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /** Zero-based position of {@code key}, or -1 if it is not present. */
+    public int indexOf(K key) {
+        int traversed = 0;
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].key, key) <= 0) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        if (x != head && comparator.compare(x.key, key) == 0) {
+            return traversed - 1;
+        }
+        return -1;
+    }
+
+    public K get(int index) {
+        Node<K> node = nodeAt(index);
+        if (node == null) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return node.key;
+    }
+
+    /** Up to {@code count} elements starting at {@code fromIndex}, in order. */
+    public List<K> range(int fromIndex, int count) {
+        List<K> result = new ArrayList<>(Math.max(0, Math.min(count, size - fromIndex)));
+        Node<K> node = nodeAt(fromIndex);
+        while (node != null && result.size() < count) {
+            result.add(node.key);
+            node = node.next[0];
+        }
+        return result;
+    }
+
+    private Node<K> nodeAt(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int target = index + 1;
+        int traversed = 0;
+        Node<K> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= target) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == target) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && random.nextDouble() < PROMOTE) {
+            level++;
+        }
+        return level;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by (createdAt DESC, id DESC), handed to clients as
+ * an opaque string. The next page is everything strictly after the position,
+ * so paging deep costs the same as the first page.
+ *
+ * Times are kept to the microsecond, the precision the database stores, so a
+ * cursor taken from an in-memory row matches the stored one exactly.
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) {
+
+    /** Sorts before every real row. */
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    public KeysetCursor {
+        createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /** The cursor for a client value; null or blank means the first page. */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            long micros = Long.parseLong(parts[0]);
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+            return new KeysetCursor(createdAt, Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + createdAt.getNano() / 1000;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((micros + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** True if a row at (createdAt, id) comes after this position. */
+    public boolean isBefore(LocalDateTime rowCreatedAt, long rowId) {
+        int byTime = createdAt.compareTo(rowCreatedAt.truncatedTo(ChronoUnit.MICROS));
+        return byTime > 0 || (byTime == 0 && id > rowId);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of primitive longs, open addressing with linear probing.
+ *
+ * Values are stored unboxed in a single array kept at most half full, so a
+ * membership test is a hash and a short scan with no allocation. Zero marks an
+ * empty slot and is tracked separately. Not thread-safe; callers that share a
+ * set copy it to change it.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0;
+
+    private long[] table;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(4);
+    }
+
+    public LongHashSet(int expectedSize) {
+        table = new long[tableSizeFor(expectedSize)];
+    }
+
+    public LongHashSet(LongHashSet other) {
+        table = other.table.clone();
+        size = other.size;
+        hasZero = other.hasZero;
+    }
+
+    public static LongHashSet of(Iterable<Long> values) {
+        LongHashSet set = new LongHashSet();
+        values.forEach(set::add);
+        return set;
+    }
+
+    /** Returns true if the value was not already present. */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int slot = slotOf(value, table);
+        if (table[slot] == value) {
+            return false;
+        }
+        table[slot] = value;
+        size++;
+        if (2 * size > table.length) {
+            resize(table.length * 2);
+        }
+        return true;
+    }
+
+    /** Returns true if the value was present. */
+    public boolean remove(long value) {
+        if (value == EMPTY) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int mask = table.length - 1;
+        int slot = slotOf(value, table);
+        if (table[slot] != value) {
+            return false;
+        }
+        table[slot] = EMPTY;
+        size--;
+        // Re-seat the rest of the probe run so lookups never stop at the hole
+        for (int i = (slot + 1) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            long moved = table[i];
+            table[i] = EMPTY;
+            table[slotOf(moved, table)] = moved;
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        return table[slotOf(value, table)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (hasZero) {
+            action.accept(EMPTY);
+        }
+        for (long value : table) {
+            if (value != EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] values = new long[size];
+        int[] next = new int[1];
+        forEach(value -> values[next[0]++] = value);
+        return values;
+    }
+
+    /** Boxed copy, for APIs such as query parameters that need a collection. */
+    public List<Long> boxed() {
+        List<Long> values = new ArrayList<>(size);
+        forEach(values::add);
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        long[] values = toArray();
+        Arrays.sort(values);
+        return Arrays.toString(values);
+    }
+
+    // Slot holding value, or the empty slot where it would go
+    private static int slotOf(long value, long[] table) {
+        int mask = table.length - 1;
+        int slot = mix(value) & mask;
+        while (table[slot] != EMPTY && table[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        for (long value : old) {
+            if (value != EMPTY) {
+                table[slotOf(value, table)] = value;
+            }
+        }
+    }
+
+    // Sequential ids would otherwise fill neighbouring slots and lengthen probe runs
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 8;
+        while (capacity < 2L * expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
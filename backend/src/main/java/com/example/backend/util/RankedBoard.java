@@ -0,0 +1,158 @@
+package com.example.backend.util;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe leaderboard of members by score, highest first.
+ *
+ * Ties are broken by member id so every member has a distinct rank. Updating a
+ * score, looking up a rank and reading a page of n entries are all
+ * O(log size + n).
+ */
+public class RankedBoard {
+
+    public record Entry(long memberId, long score) {
+    }
+
+    /** A run of consecutive entries; {@code firstRank} is the 1-based rank of the first one. */
+    public record Slice(int memberRank, int firstRank, List<Entry> entries) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::score).reversed()
+            .thenComparingLong(Entry::memberId);
+
+    private final IndexedSkipList<Entry> entries = new IndexedSkipList<>(ORDER);
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Sets the member's score and returns their new 1-based rank. */
+    public int put(long memberId, long score) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.put(memberId, score);
+            if (previous != null) {
+                entries.remove(new Entry(memberId, previous));
+            }
+            Entry entry = new Entry(memberId, score);
+            entries.add(entry);
+            return entries.indexOf(entry) + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds {@code delta} to the member's score (starting from 0) and returns their new 1-based rank. */
+    public int add(long memberId, long delta) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.get(memberId);
+            long score = previous == null ? delta : previous + delta;
+            scores.put(memberId, score);
+            if (previous != null) {
+                entries.remove(new Entry(memberId, previous));
+            }
+            Entry entry = new Entry(memberId, score);
+            entries.add(entry);
+            return entries.indexOf(entry) + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the member's score only if it beats their current one (or they are
+     * new). Returns the new 1-based rank, or 0 if nothing changed.
+     */
+    public int raise(long memberId, long score) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.get(memberId);
+            if (previous != null && previous >= score) {
+                return 0;
+            }
+            scores.put(memberId, score);
+            if (previous != null) {
+                entries.remove(new Entry(memberId, previous));
+            }
+            Entry entry = new Entry(memberId, score);
+            entries.add(entry);
+            return entries.indexOf(entry) + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long memberId) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.remove(memberId);
+            return previous != null && entries.remove(new Entry(memberId, previous));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 1-based rank of the member, or 0 if they are not on the board. */
+    public int rankOf(long memberId) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(memberId);
+            return score == null ? 0 : entries.indexOf(new Entry(memberId, score)) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Long scoreOf(long memberId) {
+        lock.readLock().lock();
+        try {
+            return scores.get(memberId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} entries starting at zero-based position {@code offset}. */
+    public List<Entry> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return entries.range(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The member's rank plus up to {@code radius} entries on either side, read
+     * under one lock so the rank and the neighbours agree. Null if the member
+     * is not on the board.
+     */
+    public Slice around(long memberId, int radius) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(memberId);
+            if (score == null) {
+                return null;
+            }
+            int index = entries.indexOf(new Entry(memberId, score));
+            int from = Math.max(0, index - radius);
+            return new Slice(index + 1, from + 1, entries.range(from, index - from + radius + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
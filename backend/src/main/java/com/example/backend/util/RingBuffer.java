@@ -0,0 +1,61 @@
+package com.example.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread-safe fixed-capacity buffer that keeps the newest items.
+ *
+ * Adding a new item past capacity overwrites the oldest one. Items can also be
+ * appended at the old end while there is room, which is how a buffer is filled
+ * from storage after newer items have already started arriving. Reading n items
+ * from any offset is O(n).
+ */
+public class RingBuffer<T> {
+
+    private final Object[] items;
+    private int head; // index of the newest item
+    private int size;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.items = new Object[capacity];
+    }
+
+    public synchronized void addNewest(T item) {
+        head = (head + 1) % items.length;
+        items[head] = item;
+        size = Math.min(size + 1, items.length);
+    }
+
+    /** Appends behind the oldest item; returns false once the buffer is full. */
+    public synchronized boolean appendOldest(T item) {
+        if (size == items.length) {
+            return false;
+        }
+        items[Math.floorMod(head - size, items.length)] = item;
+        size++;
+        return true;
+    }
+
+    /** Up to {@code limit} items, newest first, skipping the {@code offset} newest. */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> newest(int offset, int limit) {
+        int end = Math.min(size, offset + Math.max(limit, 0));
+        List<T> page = new ArrayList<>(Math.max(end - offset, 0));
+        for (int i = Math.max(offset, 0); i < end; i++) {
+            page.add((T) items[Math.floorMod(head - i, items.length)]);
+        }
+        return page;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.backend.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable set of thresholds, each tagged with an int id, sorted ascending.
+ *
+ * Finding what a counter crossed when it moved from one value to another is a
+ * binary search plus a walk over the crossed entries only, so the cost does not
+ * grow with the thresholds that were left untouched.
+ */
+public final class ThresholdIndex {
+
+    private final long[] thresholds;
+    private final int[] ids;
+
+    public ThresholdIndex(long[] thresholds, int[] ids) {
+        if (thresholds.length != ids.length) {
+            throw new IllegalArgumentException("Thresholds and ids differ in length");
+        }
+        int[] order = IntStream.range(0, thresholds.length).boxed()
+                .sorted(Comparator.comparingLong(i -> thresholds[i]))
+                .mapToInt(Integer::intValue).toArray();
+        this.thresholds = Arrays.stream(order).mapToLong(i -> thresholds[i]).toArray();
+        this.ids = Arrays.stream(order).map(i -> ids[i]).toArray();
+    }
+
+    /** Calls {@code action} with the id of every threshold t where from < t <= to. */
+    public void forEachCrossed(long from, long to, IntConsumer action) {
+        for (int i = firstAbove(from); i < thresholds.length && thresholds[i] <= to; i++) {
+            action.accept(ids[i]);
+        }
+    }
+
+    /** Calls {@code action} with the id of every threshold at or below {@code value}. */
+    public void forEachReached(long value, IntConsumer action) {
+        forEachCrossed(Long.MIN_VALUE, value, action);
+    }
+
+    public int size() {
+        return thresholds.length;
+    }
+
+    // Index of the first threshold strictly greater than value
+    private int firstAbove(long value) {
+        int lo = 0;
+        int hi = thresholds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (thresholds[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version number and modification time of some in-memory content, for
+ * answering conditional GETs without rebuilding the response.
+ *
+ * Bump after the change is visible to readers, and read the version before the
+ * content: a response may then carry an older version than its body, which only
+ * costs a spurious 200, but never a newer one. Numbers restart with the
+ * process, so ETags also carry a per-process epoch.
+ */
+public class VersionStamp {
+
+    private static final String EPOCH = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    public record Version(long number, long modifiedAt) {
+    }
+
+    private final AtomicReference<Version> current = new AtomicReference<>(new Version(0, System.currentTimeMillis()));
+
+    public Version current() {
+        return current.get();
+    }
+
+    public void bump() {
+        // Clamped so Last-Modified never moves backwards with the wall clock
+        current.updateAndGet(v -> new Version(v.number() + 1, Math.max(v.modifiedAt(), System.currentTimeMillis())));
+    }
+
+    /** A strong ETag for content made of the given versions, e.g. {@code "games-k3x9-12"}. */
+    public static String etag(String scope, Version... versions) {
+        StringBuilder tag = new StringBuilder("\"").append(scope).append('-').append(EPOCH);
+        for (Version version : versions) {
+            tag.append('-').append(version.number());
+        }
+        return tag.append('"').toString();
+    }
+
+    /** The latest modification time of the given versions. */
+    public static long lastModified(Version... versions) {
+        long latest = 0;
+        for (Version version : versions) {
+            latest = Math.max(latest, version.modifiedAt());
+        }
+        return latest;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.config.CurrentUserArgumentResolver;
 import com.example.backend.entity.User;
 import com.example.backend.service.AchievementService;
+import com.example.backend.service.ContentVersionService;
 import com.example.backend.service.UserService;
+import com.example.backend.util.VersionStamp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,10 +14,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.security.Principal;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -33,23 +38,28 @@ class AchievementControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ContentVersionService contentVersionService;
+
     @InjectMocks
     private AchievementController achievementController;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(achievementController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(achievementController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                .build();
     }
 
     @Test
     void getMyAchievements_Success() throws Exception {
         // Arrange
-        Principal principal = mock(Principal.class);
-        when(principal.getName()).thenReturn("testuser");
+        Authentication principal = signedIn("testuser");
         User user = new User();
         user.setUsername("testuser");
 
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(contentVersionService.profile(1L)).thenReturn(new VersionStamp().current());
+        when(userService.getCachedUser(1L)).thenReturn(user);
         when(achievementService.getUserAchievements(user)).thenReturn(Collections.emptyList());
 
         // Act & Assert
@@ -57,4 +67,8 @@ class AchievementControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
+
+    private static Authentication signedIn(String username) {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(1L, username, "USER", null), null);
+    }
 }
@@ -1,7 +1,10 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.AdminUserRow;
+import com.example.backend.dto.UserPage;
 import com.example.backend.service.GameService;
 import com.example.backend.service.ScoreService;
+import com.example.backend.service.UserDirectoryService;
 import com.example.backend.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,11 +14,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.util.Collections;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +44,9 @@ class AdminControllerTest {
     @Mock
     private ScoreService scoreService;
 
+    @Mock
+    private UserDirectoryService userDirectoryService;
+
     @InjectMocks
     private AdminController adminController;
 
@@ -58,13 +72,44 @@ class AdminControllerTest {
     }
 
     @Test
-    void getAllUsers_ReturnsList() throws Exception {
+    void getUsers_ReturnsAFilteredKeysetPage() throws Exception {
         // Arrange
-        when(userService.getAllUsers()).thenReturn(Collections.emptyList());
+        UserDirectoryService.Filter filter = new UserDirectoryService.Filter("ADMIN", null, 100, null);
+        when(userDirectoryService.getPage(filter, "41", 200)).thenReturn(new UserPage(
+                List.of(new AdminUserRow(42L, "alice", null, "ADMIN", 2, 1500, null)), "42"));
 
         // Act & Assert
-        mockMvc.perform(get("/api/admin/users"))
+        mockMvc.perform(get("/api/admin/users").param("cursor", "41").param("size", "1000")
+                        .param("role", "admin").param("minScore", "100"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].username").value("alice"))
+                .andExpect(jsonPath("$.nextCursor").value("42"));
+    }
+
+    @Test
+    void exportUsers_StreamsCsv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,username\n1,alice\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userDirectoryService).export(any(), eq(UserDirectoryService.Format.CSV), any());
+
+        // Act & Assert
+        MvcResult started = mockMvc.perform(get("/api/admin/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id,username\n1,alice\n"));
+    }
+
+    @Test
+    void exportUsers_RejectsUnknownFormats() throws Exception {
+        mockMvc.perform(get("/api/admin/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userDirectoryService);
     }
 }
@@ -1,6 +1,10 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.config.CurrentUserArgumentResolver;
 import com.example.backend.entity.User;
+import com.example.backend.service.PresenceService;
+import com.example.backend.service.TokenService;
 import com.example.backend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,14 +14,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.security.Principal;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -31,6 +38,12 @@ class AuthControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private TokenService tokenService;
+
     @InjectMocks
     private AuthController authController;
 
@@ -38,7 +51,9 @@ class AuthControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                .build();
     }
 
     @Test
@@ -78,16 +93,83 @@ class AuthControllerTest {
     @Test
     void getMe_Success() throws Exception {
         // Arrange
-        Principal principal = mock(Principal.class);
-        when(principal.getName()).thenReturn("testuser");
+        Authentication principal = signedIn("testuser");
         User user = new User();
         user.setUsername("testuser");
 
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userService.findById(1L)).thenReturn(Optional.of(user));
 
         // Act & Assert
         mockMvc.perform(get("/api/auth/me").principal(principal))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value("testuser"));
     }
+
+    @Test
+    void logout_MarksUserOffline() throws Exception {
+        // Arrange
+        Authentication principal = signedIn("testuser");
+        User user = new User();
+        user.setUsername("testuser");
+        when(userService.getCachedUser(1L)).thenReturn(user);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/logout").principal(principal))
+                .andExpect(status().isOk());
+        verify(presenceService).logout(user);
+    }
+
+    @Test
+    void login_IssuesTokensForValidCredentials() throws Exception {
+        // Arrange
+        User user = new User();
+        user.setUsername("testuser");
+        when(userService.authenticate("testuser", "secret1")).thenReturn(Optional.of(user));
+        when(tokenService.issueAccessToken(user)).thenReturn("access");
+        when(tokenService.issueRefreshToken(user)).thenReturn("refresh");
+        when(tokenService.getAccessTtlSeconds()).thenReturn(900L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"testuser\",\"password\":\"secret1\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("access"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh"))
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andExpect(jsonPath("$.user.username").value("testuser"));
+    }
+
+    @Test
+    void login_RejectsWrongPassword() throws Exception {
+        // Arrange
+        when(userService.authenticate("testuser", "wrong")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"testuser\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refresh_RejectsTokenIssuedBeforePasswordChange() throws Exception {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        TokenService.Claims claims = new TokenService.Claims(TokenService.Type.REFRESH, 1L, "USER", 0, "stamp", "testuser");
+        when(tokenService.verify("old", TokenService.Type.REFRESH)).thenReturn(Optional.of(claims));
+        when(userService.findById(1L)).thenReturn(Optional.of(user));
+        when(tokenService.isCurrent(eq(claims), any(User.class))).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"old\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static Authentication signedIn(String username) {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(1L, username, "USER", null), null);
+    }
 }
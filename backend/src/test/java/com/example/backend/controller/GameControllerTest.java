@@ -2,6 +2,7 @@ package com.example.backend.controller;
 
 import com.example.backend.entity.Game;
 import com.example.backend.service.GameService;
+import com.example.backend.util.VersionStamp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +16,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.Collections;
 import java.util.Optional;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -39,12 +42,37 @@ class GameControllerTest {
     @Test
     void getAllGames_ReturnsList() throws Exception {
         // Arrange
+        when(gameService.getCatalogVersion()).thenReturn(new VersionStamp().current());
         when(gameService.getAllGames()).thenReturn(Collections.emptyList());
 
         // Act & Assert
         mockMvc.perform(get("/api/games"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "max-age=60, private"));
+    }
+
+    @Test
+    void getAllGames_NotModifiedWhileTheCatalogVersionHolds() throws Exception {
+        // Arrange
+        VersionStamp catalog = new VersionStamp();
+        when(gameService.getCatalogVersion()).thenReturn(catalog.current());
+        String etag = VersionStamp.etag("games", catalog.current());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/games").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        verify(gameService, never()).getAllGames();
+
+        catalog.bump();
+        when(gameService.getCatalogVersion()).thenReturn(catalog.current());
+        when(gameService.getAllGames()).thenReturn(Collections.emptyList());
+        mockMvc.perform(get("/api/games").header("If-None-Match", etag))
+                .andExpect(status().isOk());
     }
 
     @Test
@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
 import com.example.backend.entity.GameMatch;
 import com.example.backend.entity.User;
 import com.example.backend.service.MatchService;
@@ -12,14 +13,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -62,15 +62,15 @@ public class MatchControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "player1")
     void invite_Success() throws Exception {
-        when(userService.findByUsername("player1")).thenReturn(Optional.of(player1));
+        when(userService.getCachedUser(1L)).thenReturn(player1);
         when(matchService.createMatchInvite(any(User.class), eq("player2"), eq("checkers"), anyString()))
                 .thenReturn(match);
 
         String jsonBody = "{\"gameType\": \"checkers\", \"initialBoard\": \"{}\"}";
 
         mockMvc.perform(post("/api/matches/invite/player2")
+                .with(user(new AuthenticatedUser(1L, "player1", "USER", null)))
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(jsonBody))
                 .andExpect(status().isOk())
@@ -80,32 +80,32 @@ public class MatchControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "player2")
     void accept_Success() throws Exception {
         match.setStatus("ACTIVE");
-        when(userService.findByUsername("player2")).thenReturn(Optional.of(player2));
+        when(userService.getCachedUser(2L)).thenReturn(player2);
         when(matchService.acceptMatch(eq(1L), any(User.class))).thenReturn(match);
 
         mockMvc.perform(post("/api/matches/1/accept")
+                .with(user(new AuthenticatedUser(2L, "player2", "USER", null)))
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("ACTIVE"));
     }
 
     @Test
-    @WithMockUser(username = "player1")
     void move_Success() throws Exception {
         match.setStatus("ACTIVE");
         match.setCurrentTurn("player2");
         match.setBoardData("{moved}");
 
-        when(userService.findByUsername("player1")).thenReturn(Optional.of(player1));
+        when(userService.getCachedUser(1L)).thenReturn(player1);
         when(matchService.updateMove(eq(1L), anyString(), eq("player2"), any(User.class)))
                 .thenReturn(match);
 
         String jsonBody = "{\"boardData\": \"{moved}\", \"nextTurn\": \"player2\"}";
 
         mockMvc.perform(post("/api/matches/1/move")
+                .with(user(new AuthenticatedUser(1L, "player1", "USER", null)))
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(jsonBody))
                 .andExpect(status().isOk())
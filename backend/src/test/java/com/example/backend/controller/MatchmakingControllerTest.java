@@ -0,0 +1,72 @@
+package com.example.backend.controller;
+
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.config.CurrentUserArgumentResolver;
+import com.example.backend.entity.User;
+import com.example.backend.service.MatchmakingService;
+import com.example.backend.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class MatchmakingControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private MatchmakingService matchmakingService;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private MatchmakingController matchmakingController;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(matchmakingController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                .build();
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        when(userService.getCachedUser(1L)).thenReturn(user);
+    }
+
+    @Test
+    void cancel_WhileSearching_LeavesQueue() throws Exception {
+        when(matchmakingService.cancel(user)).thenReturn(true);
+
+        mockMvc.perform(delete("/api/matchmaking/queue").principal(signedIn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Left queue"));
+    }
+
+    @Test
+    void cancel_AfterClaim_ReturnsConflict() throws Exception {
+        when(matchmakingService.cancel(user)).thenReturn(false);
+
+        mockMvc.perform(delete("/api/matchmaking/queue").principal(signedIn()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Already matched"));
+    }
+
+    private static Authentication signedIn() {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(1L, "testuser", "USER", null), null);
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.config.CurrentUserArgumentResolver;
 import com.example.backend.entity.User;
 import com.example.backend.service.AchievementService;
+import com.example.backend.service.ContentVersionService;
+import com.example.backend.service.GameLeaderboardService;
+import com.example.backend.service.GameService;
+import com.example.backend.service.LeaderboardService;
+import com.example.backend.service.UserGameStatsService;
 import com.example.backend.service.UserService;
 import com.example.backend.repository.ActivityRepository;
+import com.example.backend.util.VersionStamp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,10 +19,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.security.Principal;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -39,22 +48,42 @@ class ProfileControllerTest {
     @Mock
     private ActivityRepository activityRepository;
 
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Mock
+    private UserGameStatsService userGameStatsService;
+
+    @Mock
+    private ContentVersionService contentVersionService;
+
+    @Mock
+    private GameService gameService;
+
     @InjectMocks
     private ProfileController profileController;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(profileController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(profileController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                .build();
     }
 
     @Test
     void getProfile_Success() throws Exception {
         // Arrange
         User user = new User();
+        user.setId(1L);
         user.setUsername("testuser");
         when(userService.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(contentVersionService.profile(1L)).thenReturn(new VersionStamp().current());
+        when(gameService.getCatalogVersion()).thenReturn(new VersionStamp().current());
         when(achievementService.getUserAchievements(user)).thenReturn(Collections.emptyList());
-        when(activityRepository.findByUserOrderByCreatedAtDesc(user)).thenReturn(Collections.emptyList());
+        when(activityRepository.findUserPageAfter(any(), any(), anyLong(), any())).thenReturn(Collections.emptyList());
 
         // Act & Assert
         mockMvc.perform(get("/api/profiles/testuser"))
@@ -65,11 +94,10 @@ class ProfileControllerTest {
     @Test
     void updateProfile_Success() throws Exception {
         // Arrange
-        Principal principal = mock(Principal.class);
-        when(principal.getName()).thenReturn("testuser");
+        Authentication principal = signedIn("testuser");
         User user = new User();
         user.setUsername("testuser");
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userService.findById(1L)).thenReturn(Optional.of(user));
         when(userService.saveUser(any(User.class))).thenReturn(user);
 
         Map<String, String> payload = new HashMap<>();
@@ -87,4 +115,8 @@ class ProfileControllerTest {
         verify(userService).saveUser(argThat(u -> "New Bio".equals(u.getBio()) && "@tester".equals(u.getTwitter()) &&
                 "Test User".equals(u.getDisplayName()) && "🐱".equals(u.getAvatarEmoji())));
     }
+
+    private static Authentication signedIn(String username) {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(1L, username, "USER", null), null);
+    }
 }
@@ -1,6 +1,9 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.config.CurrentUserArgumentResolver;
 import com.example.backend.entity.User;
+import com.example.backend.service.ScoreIngestionService;
 import com.example.backend.service.ScoreService;
 import com.example.backend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,10 +14,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.security.Principal;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +37,9 @@ class ScoreControllerTest {
     @Mock
     private ScoreService scoreService;
 
+    @Mock
+    private ScoreIngestionService scoreIngestionService;
+
     @Mock
     private UserService userService;
 
@@ -43,14 +50,15 @@ class ScoreControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(scoreController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(scoreController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                .build();
     }
 
     @Test
     void submitScore_Success() throws Exception {
         // Arrange
-        Principal principal = mock(Principal.class);
-        when(principal.getName()).thenReturn("testuser");
+        Authentication principal = signedIn("testuser");
         User user = new User();
         user.setUsername("testuser");
 
@@ -58,8 +66,8 @@ class ScoreControllerTest {
         payload.put("gameType", "snake");
         payload.put("score", 100);
 
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(user));
-        when(scoreService.submitScore(any(User.class), anyString(), anyInt())).thenReturn(user);
+        when(userService.findById(1L)).thenReturn(Optional.of(user));
+        when(scoreIngestionService.submit(any(User.class), anyString(), anyInt())).thenReturn(user);
 
         // Act & Assert
         mockMvc.perform(post("/api/scores")
@@ -68,4 +76,8 @@ class ScoreControllerTest {
                 .content(objectMapper.writeValueAsString(payload)))
                 .andExpect(status().isOk());
     }
+
+    private static Authentication signedIn(String username) {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(1L, username, "USER", null), null);
+    }
 }
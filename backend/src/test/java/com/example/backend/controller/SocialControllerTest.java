@@ -1,8 +1,16 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AuthenticatedUser;
+import com.example.backend.config.CurrentUserArgumentResolver;
 import com.example.backend.entity.User;
+import com.example.backend.service.ContentVersionService;
+import com.example.backend.service.FriendSuggestionService;
+import com.example.backend.service.PresenceService;
+import com.example.backend.service.PresenceStreamService;
 import com.example.backend.service.SocialService;
+import com.example.backend.service.TimelineService;
 import com.example.backend.service.UserService;
+import com.example.backend.util.VersionStamp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,18 +18,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.security.Principal;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,23 +48,39 @@ class SocialControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private PresenceStreamService presenceStreamService;
+
+    @Mock
+    private FriendSuggestionService friendSuggestionService;
+
+    @Mock
+    private ContentVersionService contentVersionService;
+
     @InjectMocks
     private SocialController socialController;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(socialController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(socialController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver())
+                .build();
     }
 
     @Test
     void sendRequest_Success() throws Exception {
         // Arrange
-        Principal principal = mock(Principal.class);
-        when(principal.getName()).thenReturn("sender");
+        Authentication principal = signedIn("sender");
         User sender = new User();
         sender.setUsername("sender");
 
-        when(userService.findByUsername("sender")).thenReturn(Optional.of(sender));
+        when(userService.getCachedUser(1L)).thenReturn(sender);
 
         // Act & Assert
         mockMvc.perform(post("/api/social/request/receiver")
@@ -63,12 +92,11 @@ class SocialControllerTest {
     @Test
     void getFriends_ReturnsList() throws Exception {
         // Arrange
-        Principal principal = mock(Principal.class);
-        when(principal.getName()).thenReturn("testuser");
+        Authentication principal = signedIn("testuser");
         User user = new User();
         user.setUsername("testuser");
 
-        when(userService.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userService.getCachedUser(1L)).thenReturn(user);
         when(socialService.getFriends(user)).thenReturn(Collections.emptyList());
 
         // Act & Assert
@@ -76,4 +104,97 @@ class SocialControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
+
+    @Test
+    void getOnlineUsers_MarksCallerOnlineAndLeavesThemOut() throws Exception {
+        // Arrange
+        Authentication principal = signedIn("testuser");
+        User user = new User();
+        user.setUsername("testuser");
+        User other = new User();
+        other.setUsername("other");
+
+        when(userService.getCachedUser(1L)).thenReturn(user);
+        when(presenceService.getOnlineUsers()).thenReturn(List.of(user, other));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/social/online").principal(principal))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].username").value("other"));
+        verify(presenceService).touch(user);
+    }
+
+    @Test
+    void heartbeat_RejectsMalformedGame() throws Exception {
+        // Arrange
+        Authentication principal = signedIn("testuser");
+        User user = new User();
+        user.setUsername("testuser");
+        when(userService.getCachedUser(1L)).thenReturn(user);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/social/heartbeat").param("game", "<script>").principal(principal))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/social/heartbeat").param("game", "chess").principal(principal))
+                .andExpect(status().isOk());
+        verify(presenceService).touch(user, "chess");
+    }
+
+    @Test
+    void heartbeat_AcceptsHyphenatedGameTypes() throws Exception {
+        // Arrange
+        Authentication principal = signedIn("testuser");
+        User user = new User();
+        user.setUsername("testuser");
+        when(userService.getCachedUser(1L)).thenReturn(user);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/social/heartbeat").param("game", "lane-racer").principal(principal))
+                .andExpect(status().isOk());
+        verify(presenceService).touch(user, "lane-racer");
+    }
+
+    @Test
+    void getSuggestions_ReturnsRankedUsers() throws Exception {
+        // Arrange
+        Authentication principal = signedIn("testuser");
+        User user = new User();
+        user.setUsername("testuser");
+        when(userService.getCachedUser(1L)).thenReturn(user);
+        when(friendSuggestionService.getSuggestions(user)).thenReturn(List.of(
+                new FriendSuggestionService.Suggestion(2L, "other", "Other", null, 3, 2, 1)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/social/suggestions").principal(principal))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].username").value("other"))
+                .andExpect(jsonPath("$[0].mutualFriends").value(2));
+    }
+
+    @Test
+    void getGlobalFeed_RevalidatesAgainstTheFeedVersion() throws Exception {
+        // Arrange
+        VersionStamp feed = new VersionStamp();
+        when(contentVersionService.globalFeed()).thenReturn(feed.current());
+        when(socialService.getGlobalFeed()).thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        String etag = mockMvc.perform(get("/api/social/feed"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/social/feed").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(socialService).getGlobalFeed();
+
+        feed.bump();
+        when(contentVersionService.globalFeed()).thenReturn(feed.current());
+        mockMvc.perform(get("/api/social/feed").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    private static Authentication signedIn(String username) {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(1L, username, "USER", null), null);
+    }
 }
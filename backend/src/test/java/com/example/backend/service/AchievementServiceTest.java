@@ -4,18 +4,36 @@ import com.example.backend.entity.Achievement;
 import com.example.backend.entity.Game;
 import com.example.backend.entity.User;
 import com.example.backend.entity.UserAchievement;
+import com.example.backend.event.GameFinishedEvent;
+import com.example.backend.event.ScoreSubmittedEvent;
 import com.example.backend.repository.AchievementRepository;
+import com.example.backend.repository.BestScoreRepository;
 import com.example.backend.repository.ScoreRepository;
 import com.example.backend.repository.UserAchievementRepository;
+import com.example.backend.repository.UserGameStatsRepository;
+import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +54,21 @@ class AchievementServiceTest {
     @Mock
     private SocialService socialService;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BestScoreRepository bestScoreRepository;
+
+    @Mock
+    private UserGameStatsRepository userGameStatsRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AchievementService achievementService;
 
@@ -47,6 +80,7 @@ class AchievementServiceTest {
     void setUp() {
         user = new User();
         user.setId(1L);
+        user.setUsername("player1");
         user.setTotalScore(1001);
 
         game = new Game();
@@ -99,4 +133,94 @@ class AchievementServiceTest {
         // Assert
         assertTrue(earned.isEmpty());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onScoreSubmitted_EvaluatesAfterTheFact() {
+        runInline();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(achievementRepository.findAll()).thenReturn(List.of(achievement));
+        when(userAchievementRepository.findByUser(user)).thenReturn(Collections.emptyList());
+
+        achievementService.onScoreSubmitted(new ScoreSubmittedEvent(1L, 1L, "snake", 100, 1001, LocalDateTime.now()));
+
+        verify(transactionTemplate).executeWithoutResult(any(Consumer.class));
+        verify(userAchievementRepository).save(argThat(ua -> ua.getAchievement() == achievement));
+    }
+
+    @Test
+    void onGameFinished_CountsTheRoomGameAsPlayed() {
+        runInline();
+        Achievement firstGame = new Achievement(2L, "First Game", "", "FIRST_GAME", 1, "🎯");
+        when(userRepository.findByUsername("player1")).thenReturn(Optional.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(achievementRepository.findAll()).thenReturn(List.of(firstGame));
+        when(userAchievementRepository.findByUser(user)).thenReturn(Collections.emptyList());
+        // Recorded before the evaluation runs
+        when(userGameStatsRepository.sumGamesPlayedByUserId(1L)).thenReturn(1L);
+
+        achievementService.onGameFinished(new GameFinishedEvent("checkers", List.of("player1"), false));
+
+        verify(userAchievementRepository).save(argThat(ua -> ua.getAchievement() == firstGame));
+        verify(scoreRepository, never()).findByUser(any());
+    }
+
+    @Test
+    void onScoreSubmitted_LaterEventsOnlyAwardNewlyCrossedThresholds() {
+        runInline();
+        Achievement elite = new Achievement(3L, "Elite Player", "", "TOTAL_SCORE", 5000, "🥇");
+        Achievement highScore = new Achievement(4L, "High Score", "", "SINGLE_SCORE", 100, "🔥");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(achievementRepository.findAll()).thenReturn(List.of(achievement, elite, highScore));
+        when(userAchievementRepository.findByUser(user)).thenReturn(List.of(new UserAchievement(1L, user, achievement, null)));
+
+        achievementService.onScoreSubmitted(new ScoreSubmittedEvent(1L, 1L, "snake", 50, 1001, LocalDateTime.now()));
+        user.setTotalScore(5100);
+        achievementService.onScoreSubmitted(new ScoreSubmittedEvent(1L, 1L, "snake", 4099, 5100, LocalDateTime.now()));
+
+        verify(userAchievementRepository).save(argThat(ua -> ua.getAchievement() == elite));
+        verify(userAchievementRepository).save(argThat(ua -> ua.getAchievement() == highScore));
+        verify(userAchievementRepository, times(2)).save(any(UserAchievement.class));
+        // Rules and player counters are built once, not per event
+        verify(achievementRepository, times(1)).findAll();
+        verify(userAchievementRepository, times(1)).findByUser(user);
+    }
+
+    @Test
+    void onScoreSubmitted_DroppedCheckReloadsThePlayer() throws Exception {
+        runInline();
+        Achievement highScore = new Achievement(4L, "High Score", "", "SINGLE_SCORE", 100, "🔥");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(achievementRepository.findAll()).thenReturn(List.of(highScore));
+        when(userAchievementRepository.findByUser(user)).thenReturn(Collections.emptyList());
+        when(bestScoreRepository.findTopScoreByUserId(1L)).thenReturn(50, 150);
+        achievementService.onScoreSubmitted(new ScoreSubmittedEvent(1L, 1L, "snake", 50, 1001, LocalDateTime.now()));
+
+        // The 150 is stored, but its check is pushed out of a full backlog
+        List<Runnable> pending = new ArrayList<>();
+        ReflectionTestUtils.setField(achievementService, "evaluator", (Executor) pending::add);
+        achievementService.onScoreSubmitted(new ScoreSubmittedEvent(1L, 1L, "snake", 150, 1001, LocalDateTime.now()));
+        ThreadPoolExecutor full = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        full.getQueue().add(pending.get(0));
+        ReflectionTestUtils.invokeMethod(achievementService, "discardOldest", (Runnable) () -> {
+        }, full);
+        full.shutdown();
+        assertTrue(full.awaitTermination(5, TimeUnit.SECONDS));
+
+        // The next, smaller score reloads the stored best and awards it
+        runInline();
+        achievementService.onScoreSubmitted(new ScoreSubmittedEvent(1L, 1L, "snake", 10, 1001, LocalDateTime.now()));
+
+        verify(userAchievementRepository).save(argThat(ua -> ua.getAchievement() == highScore));
+        assertEquals(1.0, meterRegistry.counter("achievements.dropped").count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runInline() {
+        ReflectionTestUtils.setField(achievementService, "evaluator", (Executor) Runnable::run);
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
 }
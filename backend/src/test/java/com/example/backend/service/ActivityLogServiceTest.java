@@ -0,0 +1,143 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Activity;
+import com.example.backend.entity.User;
+import com.example.backend.event.ActivityLoggedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityLogServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ActivityLogService activityLogService;
+
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @Test
+    void flush_InsertsOneBatchAndPublishesWithIds() {
+        activityLogService.init();
+        generateIds();
+        activityLogService.log(activity(1L));
+        activityLogService.log(activity(2L));
+        verifyNoInteractions(jdbcTemplate);
+
+        activityLogService.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        assertEquals(List.of(1L, 2L), publishedIds());
+        assertEquals(0, activityLogService.queued());
+    }
+
+    @Test
+    void log_InsideTransactionWaitsForCommit() {
+        activityLogService.init();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            activityLogService.log(activity(1L));
+            assertEquals(0, activityLogService.queued());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, activityLogService.queued());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void log_FullQueueIsWrittenByTheCaller() {
+        ReflectionTestUtils.setField(activityLogService, "queueCapacity", 1);
+        activityLogService.init();
+        generateIds();
+
+        activityLogService.log(activity(1L));
+        activityLogService.log(activity(2L));
+
+        assertEquals(1, activityLogService.queued());
+        assertEquals(List.of(1L), publishedIds());
+        assertEquals(1, meterRegistry.counter("social.activity.overflow").count());
+    }
+
+    @Test
+    void flush_FailedBatchIsWrittenOneByOne() {
+        activityLogService.init();
+        activityLogService.log(activity(1L));
+        activityLogService.log(activity(2L));
+        // The batch fails, then the second user turns out to be gone
+        doThrow(new RuntimeException("fk"))
+                .doAnswer(invocation -> {
+                    invocation.getArgument(2, KeyHolder.class).getKeyList().add(Map.of("id", 7L));
+                    return new int[] { 1 };
+                })
+                .doThrow(new RuntimeException("fk"))
+                .when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                        any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+
+        activityLogService.flush();
+
+        assertEquals(List.of(7L), publishedIds());
+        assertEquals(1, meterRegistry.counter("social.activity.dropped").count());
+    }
+
+    private void generateIds() {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter rows = invocation.getArgument(1);
+                    KeyHolder keys = invocation.getArgument(2);
+                    for (int i = 0; i < rows.getBatchSize(); i++) {
+                        keys.getKeyList().add(Map.of("id", nextId.getAndIncrement()));
+                    }
+                    return new int[rows.getBatchSize()];
+                });
+    }
+
+    private List<Long> publishedIds() {
+        ArgumentCaptor<ActivityLoggedEvent> events = ArgumentCaptor.forClass(ActivityLoggedEvent.class);
+        verify(eventPublisher, atLeast(0)).publishEvent(events.capture());
+        return events.getAllValues().stream().map(e -> e.activity().getId()).toList();
+    }
+
+    private static Activity activity(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        return new Activity(null, user, "SCORE", "scored 10 in Snake", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CredentialCacheServiceTest {
+
+    private CredentialCacheService cache;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CredentialCacheService();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        cache.init();
+    }
+
+    @Test
+    void get_OnlyMatchesTheExactCredentials() {
+        Authentication alice = authenticated("alice");
+        cache.put("alice", "secret1", alice);
+
+        assertSame(alice, cache.get("alice", "secret1").orElseThrow());
+        assertTrue(cache.get("alice", "secret2").isEmpty());
+        // The separator keeps "ab"+"c" apart from "a"+"bc"
+        cache.put("ab", "c", authenticated("ab"));
+        assertTrue(cache.get("a", "bc").isEmpty());
+
+        assertEquals(1, meterRegistry.get("auth.basic-cache.requests").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("auth.basic-cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.put("alice", "secret1", authenticated("alice"));
+
+        assertTrue(cache.get("alice", "secret1").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evict_DropsEveryLoginOfTheUser() {
+        cache.put("alice", "secret1", authenticated("alice"));
+        cache.put("alice", "old-password", authenticated("alice"));
+
+        cache.evict("alice");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsDroppedAtCapacity() {
+        cache.put("alice", "secret1", authenticated("alice"));
+        cache.put("bobby", "secret1", authenticated("bobby"));
+        cache.get("alice", "secret1");
+        cache.put("carol", "secret1", authenticated("carol"));
+
+        assertTrue(cache.get("alice", "secret1").isPresent());
+        assertTrue(cache.get("bobby", "secret1").isEmpty());
+    }
+
+    private static Authentication authenticated(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null, List.of());
+    }
+}
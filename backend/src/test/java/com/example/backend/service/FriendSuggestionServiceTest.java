@@ -0,0 +1,149 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.repository.FriendshipRepository;
+import com.example.backend.repository.GameMatchRepository;
+import com.example.backend.repository.GameRoomRepository;
+import com.example.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendSuggestionServiceTest {
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    @Mock
+    private GameMatchRepository gameMatchRepository;
+
+    @Mock
+    private GameRoomRepository gameRoomRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SocialGraphService socialGraphService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private FriendSuggestionService friendSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        friendSuggestionService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        friendSuggestionService.shutdown();
+    }
+
+    @Test
+    void refresh_RanksFriendsOfFriendsAndCoPlayers() {
+        // 1 is friends with 2 and 4; 3 is a friend of both, 5 a friend of 2 who shared a room with 1
+        when(friendshipRepository.findAllEdges()).thenReturn(edges(1, 2, 2, 3, 1, 4, 4, 3, 2, 5));
+        // 6 only played matches against 1
+        when(gameMatchRepository.countPlayedPairs()).thenReturn(rows(new Object[] { 1L, 6L, 2L }));
+        when(gameRoomRepository.findPlayedRosters()).thenReturn(rows(
+                new Object[] { "[{\"username\":\"user1\"},{\"username\":\"user5\"}]", 3 },
+                new Object[] { "not json", 1 }));
+        when(userRepository.findIdsByUsernameIn(any())).thenReturn(rows(
+                new Object[] { "user1", 1L }, new Object[] { "user5", 5L }));
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).map(FriendSuggestionServiceTest::user).toList();
+        });
+
+        friendSuggestionService.refresh();
+        List<FriendSuggestionService.Suggestion> suggestions = friendSuggestionService.getSuggestions(user(1L));
+
+        assertEquals(List.of(5L, 3L, 6L), suggestions.stream().map(FriendSuggestionService.Suggestion::userId).toList());
+        assertEquals(1, suggestions.get(0).mutualFriends());
+        assertEquals(3, suggestions.get(0).coPlays());
+        assertEquals(2, suggestions.get(1).mutualFriends());
+        assertEquals(2, suggestions.get(2).coPlays());
+        assertEquals("user5", suggestions.get(0).username());
+    }
+
+    @Test
+    void getSuggestions_LeavesOutPeopleBefriendedSinceTheLastRun() {
+        when(friendshipRepository.findAllEdges()).thenReturn(edges(1, 2, 2, 3));
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).map(FriendSuggestionServiceTest::user).toList();
+        });
+        when(socialGraphService.areFriends(eq(1L), anyLong())).thenReturn(true);
+
+        friendSuggestionService.refresh();
+
+        assertTrue(friendSuggestionService.getSuggestions(user(1L)).isEmpty());
+        assertTrue(friendSuggestionService.getSuggestions(user(9L)).isEmpty());
+    }
+
+    @Test
+    void rank_KeepsOnlyTheTopKPerUser() {
+        // 1 has one friend, 2, who has 300 other friends: enough to split the work across tasks
+        List<Object[]> edges = new ArrayList<>();
+        edges.add(new Object[] { 1L, 2L });
+        for (long id = 3; id < 303; id++) {
+            edges.add(new Object[] { 2L, id });
+        }
+        FriendSuggestionService.Graph graph = FriendSuggestionService.buildGraph(edges, Map.of());
+
+        List<FriendSuggestionService.Candidate>[] ranked = FriendSuggestionService.rank(graph, 5, ForkJoinPool.commonPool());
+
+        assertEquals(5, ranked[0].size());
+        assertTrue(ranked[1].isEmpty());
+        // Other leaves share friend 2 with each other
+        assertEquals(5, ranked[2].size());
+        assertTrue(ranked[2].stream().allMatch(c -> c.mutualFriends() == 1 && c.index() != 1 && c.index() != 2));
+    }
+
+    @Test
+    void intersectionSize_CountsCommonSortedIds() {
+        assertEquals(2, FriendSuggestionService.intersectionSize(new int[] { 1, 3, 5, 7 }, new int[] { 2, 3, 7, 9 }));
+        assertEquals(0, FriendSuggestionService.intersectionSize(new int[] {}, new int[] { 1 }));
+    }
+
+    private static List<Object[]> edges(long... ids) {
+        List<Object[]> edges = new ArrayList<>();
+        for (int i = 0; i < ids.length; i += 2) {
+            edges.add(new Object[] { ids[i], ids[i + 1] });
+        }
+        return edges;
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+}
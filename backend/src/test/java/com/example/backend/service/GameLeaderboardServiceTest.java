@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PlayerSummary;
+import com.example.backend.entity.BestScore;
+import com.example.backend.entity.Game;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.BestScoreRepository;
+import com.example.backend.repository.GameRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameLeaderboardServiceTest {
+
+    @Mock
+    private BestScoreRepository bestScoreRepository;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private GameLeaderboardService gameLeaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        when(bestScoreRepository.count()).thenReturn(2L);
+        when(gameRepository.findAll()).thenReturn(List.of(new Game(1L, "Snake", "", "snake"),
+                new Game(2L, "2048", "", "2048")));
+        when(bestScoreRepository.findAll()).thenReturn(List.of(
+                new BestScore(1L, 1L, 1L, 300, LocalDateTime.now()),
+                new BestScore(2L, 2L, 1L, 500, LocalDateTime.now())));
+        lenient().when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<PlayerSummary> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                found.add(new PlayerSummary((Long) id, "user" + id, null, null, 1, 0));
+            }
+            return found;
+        });
+        gameLeaderboardService.loadBoards();
+    }
+
+    @Test
+    void getTop_IsPerGame() {
+        List<Map<String, Object>> snake = gameLeaderboardService.getTop("SNAKE", 10);
+
+        assertEquals(2, snake.size());
+        assertEquals("user2", snake.get(0).get("username"));
+        assertEquals(500L, snake.get(0).get("score"));
+        assertTrue(gameLeaderboardService.getTop("2048", 10).isEmpty());
+    }
+
+    @Test
+    void onScoreSubmitted_KeepsOnlyPersonalBest() {
+        gameLeaderboardService.onScoreSubmitted(event(1L, 800));
+        gameLeaderboardService.onScoreSubmitted(event(1L, 100));
+
+        List<Map<String, Object>> snake = gameLeaderboardService.getTop("snake", 10);
+        assertEquals(2, snake.size());
+        assertEquals("user1", snake.get(0).get("username"));
+        assertEquals(800L, snake.get(0).get("score"));
+    }
+
+    @Test
+    void persistBestScore_SkipsScoresBelowTheBest() {
+        gameLeaderboardService.persistBestScore(event(2L, 400));
+
+        verify(bestScoreRepository, never()).upsertBest(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void persistBestScore_UpsertsANewBest() {
+        gameLeaderboardService.persistBestScore(event(3L, 50));
+        gameLeaderboardService.persistBestScore(event(1L, 900));
+
+        verify(bestScoreRepository).upsertBest(eq(3L), eq(1L), eq(50), any());
+        verify(bestScoreRepository).upsertBest(eq(1L), eq(1L), eq(900), any());
+        verify(bestScoreRepository, never()).save(any());
+    }
+
+    private static ScoreSubmittedEvent event(Long userId, int score) {
+        return new ScoreSubmittedEvent(userId, 1L, "snake", score, score, LocalDateTime.now());
+    }
+}
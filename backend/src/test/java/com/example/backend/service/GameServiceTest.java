@@ -10,6 +10,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +25,15 @@ class GameServiceTest {
     @Mock
     private ScoreRepository scoreRepository;
 
+    @Mock
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Mock
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @Mock
+    private UserGameStatsService userGameStatsService;
+
     @InjectMocks
     private GameService gameService;
 
@@ -37,7 +47,7 @@ class GameServiceTest {
     @Test
     void getGameByType_Success() {
         // Arrange
-        when(gameRepository.findByType("TEST")).thenReturn(Optional.of(game));
+        when(gameRepository.findAll()).thenReturn(List.of(game));
 
         // Act
         Optional<Game> result = gameService.getGameByType("TEST");
@@ -47,6 +57,24 @@ class GameServiceTest {
         assertEquals("Test Game", result.get().getName());
     }
 
+    @Test
+    void lookups_ServedFromOneSnapshotUntilAGameIsDeleted() {
+        Game other = new Game(2L, "Other", "Description", "OTHER");
+        when(gameRepository.findAll()).thenReturn(List.of(game, other), List.of(other));
+
+        assertEquals(Optional.of(game), gameService.getGameById(1L));
+        assertEquals(Optional.of(other), gameService.getGameByName("Other"));
+        assertTrue(gameService.getGameByType("MISSING").isEmpty());
+        assertEquals(2, gameService.countGames());
+        verify(gameRepository, times(1)).findAll();
+
+        gameService.deleteGame(game);
+
+        assertTrue(gameService.getGameByType("TEST").isEmpty());
+        assertEquals(List.of(other), gameService.getAllGames());
+        verify(gameRepository, times(2)).findAll();
+    }
+
     @Test
     void deleteGame_Success() {
         // Act
@@ -54,6 +82,7 @@ class GameServiceTest {
 
         // Assert
         verify(scoreRepository, times(1)).deleteByGame(game);
+        verify(gameLeaderboardService, times(1)).removeGame(game);
         verify(gameRepository, times(1)).delete(game);
     }
 }
@@ -0,0 +1,167 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PlayerSummary;
+import com.example.backend.entity.User;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Mock
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @Mock
+    private SocialService socialService;
+
+    @InjectMocks
+    private LeaderboardService leaderboardService;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setUsername("user" + id);
+            user.setTotalScore((int) id * 100);
+            users.add(user);
+            rows.add(new Object[] { id, user.getTotalScore() });
+        }
+        when(userRepository.findAllTotalScores()).thenReturn(rows);
+        lenient().when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<PlayerSummary> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                found.add(PlayerSummary.of(users.get(((Long) id).intValue() - 1)));
+            }
+            return found;
+        });
+        leaderboardService.loadBoard();
+    }
+
+    @Test
+    void getRank_HighestScoreIsFirst() {
+        assertEquals(1, leaderboardService.getRank(users.get(29)).get("rank"));
+        assertEquals(30, leaderboardService.getRank(users.get(0)).get("rank"));
+        assertEquals(30, leaderboardService.getRank(users.get(0)).get("players"));
+    }
+
+    @Test
+    void onScoreSubmitted_MovesUserAndRefreshesTopPage() throws Exception {
+        String before = new String(leaderboardService.getTopPageJson());
+        assertFalse(before.contains("\"user1\""));
+
+        users.get(0).setTotalScore(5000);
+        leaderboardService.onScoreSubmitted(new ScoreSubmittedEvent(1L, 1L, "snake", 4900, 5000,
+                LocalDateTime.now()));
+
+        assertEquals(1, leaderboardService.getRank(users.get(0)).get("rank"));
+        List<?> top = objectMapper.readValue(leaderboardService.getTopPageJson(), List.class);
+        assertEquals(10, top.size());
+        assertEquals("user1", ((Map<?, ?>) top.get(0)).get("username"));
+        // Only the projected columns; no bio, links or role
+        assertEquals(Set.of("id", "username", "displayName", "avatarEmoji", "level", "totalScore"),
+                ((Map<?, ?>) top.get(0)).keySet());
+    }
+
+    @Test
+    void getTopPageJson_ReusesBytesUntilTopChanges() {
+        byte[] first = leaderboardService.getTopPageJson();
+        // Moving within the bottom of the board leaves the top page alone
+        leaderboardService.updateScore(1L, 150);
+
+        assertSame(first, leaderboardService.getTopPageJson());
+        verify(userRepository, times(1)).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void getTopPageJson_SlowRenderDoesNotReplaceNewerPage() throws Exception {
+        List<PlayerSummary> oldTop = List.of(PlayerSummary.of(users.get(29)));
+        // While the old page renders, user1 reaches the top and another reader renders the new page
+        when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            users.get(0).setTotalScore(5000);
+            leaderboardService.updateScore(1L, 5000);
+            leaderboardService.getTopPageJson();
+            return oldTop;
+        }).thenReturn(List.of(PlayerSummary.of(users.get(0))));
+
+        leaderboardService.getTopPageJson();
+        List<?> top = objectMapper.readValue(leaderboardService.getTopPageJson(), List.class);
+
+        assertEquals("user1", ((Map<?, ?>) top.get(0)).get("username"));
+        verify(userRepository, times(2)).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void getPage_ReturnsRanksForArbitraryOffsets() {
+        List<Map<String, Object>> page = leaderboardService.getPage(2, 5);
+
+        assertEquals(5, page.size());
+        assertEquals(11, page.get(0).get("rank"));
+        assertEquals("user20", page.get(0).get("username"));
+    }
+
+    @Test
+    void getAroundMe_ReturnsNeighboursOnBothSides() {
+        Map<String, Object> result = leaderboardService.getAroundMe(users.get(14), null, null, false, 2);
+
+        assertEquals(16, result.get("rank"));
+        assertEquals(30, result.get("players"));
+        List<?> standings = (List<?>) result.get("standings");
+        assertEquals(5, standings.size());
+        assertEquals(14, ((Map<?, ?>) standings.get(0)).get("rank"));
+        assertEquals("user17", ((Map<?, ?>) standings.get(0)).get("username"));
+        assertEquals(true, ((Map<?, ?>) standings.get(2)).get("me"));
+    }
+
+    @Test
+    void getAroundMe_NearTheTopIsClipped() {
+        List<?> standings = (List<?>) leaderboardService.getAroundMe(users.get(29), null, null, false, 3)
+                .get("standings");
+
+        assertEquals(4, standings.size());
+        assertEquals(1, ((Map<?, ?>) standings.get(0)).get("rank"));
+    }
+
+    @Test
+    void getAroundMe_FriendsScopeRanksOnlyTheCircle() {
+        when(socialService.getFriends(users.get(4))).thenReturn(List.of(users.get(0), users.get(19)));
+
+        Map<String, Object> result = leaderboardService.getAroundMe(users.get(4), null, null, true, 5);
+
+        assertEquals(2, result.get("rank"));
+        assertEquals(3, result.get("players"));
+        List<?> standings = (List<?>) result.get("standings");
+        assertEquals("user20", ((Map<?, ?>) standings.get(0)).get("username"));
+        assertEquals("user1", ((Map<?, ?>) standings.get(2)).get("username"));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backend.service;
 
 import com.example.backend.entity.GameMatch;
 import com.example.backend.entity.User;
+import com.example.backend.event.GameFinishedEvent;
 import com.example.backend.repository.GameMatchRepository;
 import com.example.backend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,11 +11,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +32,12 @@ class MatchServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TurnTimerService turnTimerService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MatchService matchService;
 
@@ -134,4 +146,96 @@ class MatchServiceTest {
 
         assertEquals("It is not your turn", exception.getMessage());
     }
+
+    @Test
+    void expireTurn_IdlePlayerForfeits() {
+        match.setStatus("ACTIVE");
+        match.setCurrentTurn("player2");
+        match.setLastMoveAt(LocalDateTime.now().minusHours(2));
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(matchRepository.save(any(GameMatch.class))).thenAnswer(i -> i.getArgument(0));
+
+        GameMatch result = matchService.expireTurn(1L, Duration.ofHours(1));
+
+        assertEquals("FORFEITED", result.getStatus());
+        assertEquals("player1", result.getCurrentTurn()); // winner
+        verify(turnTimerService).onMatchTurn(result);
+        verify(eventPublisher).publishEvent(new GameFinishedEvent("checkers", List.of("player1", "player2"), false));
+    }
+
+    @Test
+    void expireTurn_RecentMove_Rearms() {
+        match.setStatus("ACTIVE");
+        match.setLastMoveAt(LocalDateTime.now());
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+
+        GameMatch result = matchService.expireTurn(1L, Duration.ofHours(1));
+
+        assertEquals("ACTIVE", result.getStatus());
+        verify(matchRepository, never()).save(any(GameMatch.class));
+        verify(turnTimerService).onMatchTurn(match);
+    }
+
+    @Test
+    void finishMatch_AgreedReports_PublishResultOnce() {
+        match.setStatus("ACTIVE");
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(matchRepository.reportPlayer1Result(1L, "player2")).thenAnswer(i -> {
+            match.setPlayer1Result("player2");
+            return 1;
+        });
+        when(matchRepository.reportPlayer2Result(1L, "player2")).thenAnswer(i -> {
+            match.setPlayer2Result("player2");
+            return 1;
+        }).thenReturn(0);
+        when(matchRepository.finishIfActive(eq(1L), any(LocalDateTime.class))).thenAnswer(i -> {
+            match.setStatus("FINISHED");
+            return 1;
+        }).thenReturn(0);
+
+        matchService.finishMatch(1L, "FINISHED", "player2", player1);
+        verify(eventPublisher, never()).publishEvent(any());
+        matchService.finishMatch(1L, "FINISHED", "player2", player2);
+        // Reporting again must not rate the match a second time
+        matchService.finishMatch(1L, "FINISHED", "player2", player2);
+
+        verify(eventPublisher, times(1))
+                .publishEvent(new GameFinishedEvent("checkers", List.of("player2", "player1"), false));
+        verify(turnTimerService, times(1)).onMatchTurn(match);
+    }
+
+    @Test
+    void finishMatch_ConflictingReports_NotRated() {
+        match.setStatus("ACTIVE");
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(matchRepository.reportPlayer1Result(1L, "player1")).thenAnswer(i -> {
+            match.setPlayer1Result("player1");
+            return 1;
+        });
+        when(matchRepository.reportPlayer2Result(1L, "player2")).thenAnswer(i -> {
+            match.setPlayer2Result("player2");
+            return 1;
+        });
+
+        matchService.finishMatch(1L, "FINISHED", "player1", player1);
+        matchService.finishMatch(1L, "FINISHED", "player2", player2);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void finishMatch_NotAParticipant_ThrowsException() {
+        match.setStatus("ACTIVE");
+        User outsider = new User();
+        outsider.setId(3L);
+        outsider.setUsername("outsider");
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> matchService.finishMatch(1L, "FINISHED", "outsider", outsider));
+
+        assertEquals("You are not part of this match", exception.getMessage());
+        verify(matchRepository, never()).finishIfActive(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 }
@@ -0,0 +1,189 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameRoom;
+import com.example.backend.entity.User;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.Glicko2;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatchmakingServiceTest {
+
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private UnoRoomService unoRoomService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RatingService ratingService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private MatchmakingService matchmakingService;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        matchmakingService.init();
+        lenient().when(ratingService.getRating(any(), any())).thenReturn(Glicko2.Rating.DEFAULT);
+
+        alice = new User();
+        alice.setId(1L);
+        alice.setUsername("alice");
+
+        bob = new User();
+        bob.setId(2L);
+        bob.setUsername("bob");
+    }
+
+    @Test
+    void enqueue_PairsPlayersAndOpensRoom() throws Exception {
+        GameRoom room = new GameRoom();
+        room.setId(10L);
+        room.setInviteCode("ABC123");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(bob));
+        when(roomService.createRoom(alice, "chess", 2)).thenReturn(room);
+        when(roomService.joinRoom("ABC123", bob)).thenReturn(room);
+
+        assertEquals("SEARCHING", matchmakingService.enqueue(alice, "chess").get("state"));
+        matchmakingService.enqueue(bob, "CHESS");
+
+        verify(roomService, timeout(2000)).joinRoom("ABC123", bob);
+        Map<String, Object> status = waitForState(alice, "MATCHED");
+        waitForState(bob, "MATCHED");
+        assertEquals(10L, status.get("roomId"));
+        assertEquals(2, meterRegistry.get("matchmaking.time.to.match").timer().count());
+    }
+
+    @Test
+    void enqueue_DifferentGamesDoNotPair() {
+        matchmakingService.enqueue(alice, "chess");
+        matchmakingService.enqueue(bob, "checkers");
+        matchmakingService.sweep();
+
+        assertEquals("SEARCHING", matchmakingService.getStatus(alice).get("state"));
+        assertEquals("SEARCHING", matchmakingService.getStatus(bob).get("state"));
+        verifyNoInteractions(roomService);
+    }
+
+    @Test
+    void cancel_RemovesTicket() throws Exception {
+        matchmakingService.enqueue(alice, "uno");
+        assertTrue(matchmakingService.cancel(alice));
+        matchmakingService.enqueue(bob, "uno");
+
+        assertEquals("IDLE", matchmakingService.getStatus(alice).get("state"));
+        verify(unoRoomService, never()).createRoom(any(User.class), eq(2));
+    }
+
+    @Test
+    void cancel_ClaimedTicket_StaysInTheMatch() throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            opening.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return Optional.of(alice);
+        });
+        when(userRepository.findById(2L)).thenReturn(Optional.of(bob));
+        GameRoom room = new GameRoom();
+        room.setId(10L);
+        room.setInviteCode("ABC123");
+        when(unoRoomService.createRoom(alice, 2)).thenReturn(room);
+        when(roomService.joinRoom("ABC123", bob)).thenReturn(room);
+
+        matchmakingService.enqueue(alice, "uno");
+        matchmakingService.enqueue(bob, "uno");
+        assertTrue(opening.await(2, TimeUnit.SECONDS));
+
+        assertFalse(matchmakingService.cancel(alice));
+        release.countDown();
+        assertEquals(10L, waitForState(alice, "MATCHED").get("roomId"));
+    }
+
+    @Test
+    void enqueue_ConcurrentRequestsFromOneUser_LeaveOneTicket() throws Exception {
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> matchmakingService.enqueue(alice, "chess"));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1.0, meterRegistry.get("matchmaking.waiting").gauge().value());
+        assertEquals(1.0, meterRegistry.get("matchmaking.enqueued").counter().count());
+    }
+
+    @Test
+    void openRoom_FailedJoin_RollsBackTheRoom() throws Exception {
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        GameRoom room = new GameRoom();
+        room.setInviteCode("ABC123");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(bob));
+        when(roomService.createRoom(alice, "chess", 2)).thenReturn(room);
+        when(roomService.joinRoom("ABC123", bob)).thenThrow(new RuntimeException("Room is full"));
+
+        matchmakingService.enqueue(alice, "chess");
+        matchmakingService.enqueue(bob, "chess");
+
+        verify(transactionManager, timeout(2000)).rollback(status);
+        verify(transactionManager, never()).commit(status);
+        // Both players go back to searching
+        waitForState(alice, "SEARCHING");
+    }
+
+    @Test
+    void enqueue_UnsupportedGame_ThrowsException() {
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> matchmakingService.enqueue(alice, "snake"));
+        assertEquals("Matchmaking is not available for snake", exception.getMessage());
+    }
+
+    private Map<String, Object> waitForState(User user, String state) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> status = matchmakingService.getStatus(user);
+            if (state.equals(status.get("state"))) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        fail("Ticket never reached " + state);
+        return null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.event.PresenceChangedEvent;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        presenceService.init();
+    }
+
+    @Test
+    void touch_MarksOnlineWithoutWriting() {
+        presenceService.touch(user(1L));
+        presenceService.touch(user(1L));
+
+        assertTrue(presenceService.isOnline(1L));
+        List<User> online = presenceService.getOnlineUsers();
+        assertEquals(1, online.size());
+        assertNotNull(online.get(0).getLastActiveAt());
+        verifyNoInteractions(jdbcTemplate, userRepository);
+        assertEquals(1, meterRegistry.get("presence.online").gauge().value());
+    }
+
+    @Test
+    void touch_PublishesOnlyTransitions() {
+        presenceService.touch(user(1L));
+        presenceService.touch(user(1L));
+        presenceService.touch(user(1L), "chess");
+        presenceService.touch(user(1L));
+        presenceService.touch(user(1L), null);
+        presenceService.logout(user(1L));
+
+        ArgumentCaptor<PresenceChangedEvent> events = ArgumentCaptor.forClass(PresenceChangedEvent.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        assertEquals(List.of("online null", "online chess", "online null", "offline null"),
+                events.getAllValues().stream()
+                        .map(e -> (e.online() ? "online " : "offline ") + e.game()).toList());
+        assertEquals("user1", events.getValue().user().getUsername());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logout_PersistsLastActiveAt() {
+        presenceService.touch(user(1L));
+
+        presenceService.logout(user(1L));
+
+        assertFalse(presenceService.isOnline(1L));
+        ArgumentCaptor<Collection<?>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE users SET last_active_at"), rows.capture(), eq(1), any());
+        assertEquals(1, rows.getValue().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expire_PersistsTimedOutUsersInOneBatch() {
+        ReflectionTestUtils.setField(presenceService, "onlineTimeoutSeconds", 0L);
+        // A wheel that is a few ticks behind the clock, so the next advance fires
+        ReflectionTestUtils.setField(presenceService, "expiries",
+                new HierarchicalTimingWheel<Long>(1000, 6, 2, System.currentTimeMillis() - 5000));
+        presenceService.touch(user(1L));
+        presenceService.touch(user(2L));
+
+        presenceService.expire();
+
+        assertTrue(presenceService.getOnlineUsers().isEmpty());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE users SET last_active_at"),
+                any(Collection.class), eq(2), any());
+    }
+
+    @Test
+    void restore_KeepsRecentlyActiveUsersOnline() {
+        User recent = user(1L);
+        recent.setLastActiveAt(LocalDateTime.now().minusMinutes(1));
+        when(userRepository.findByLastActiveAtAfter(any())).thenReturn(List.of(recent));
+
+        presenceService.restore();
+
+        assertTrue(presenceService.isOnline(1L));
+        presenceService.forget(1L);
+        assertFalse(presenceService.isOnline(1L));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.event.FriendshipChangedEvent;
+import com.example.backend.event.PresenceChangedEvent;
+import com.example.backend.util.LongHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceStreamServiceTest {
+
+    @Mock
+    private SocialGraphService socialGraphService;
+
+    @Mock
+    private PresenceService presenceService;
+
+    @InjectMocks
+    private PresenceStreamService presenceStreamService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(presenceStreamService, "pusher", (Executor) Runnable::run);
+    }
+
+    @Test
+    void subscribe_SendsOnlineFriendsThenOnlyTheirChanges() throws Exception {
+        when(socialGraphService.friendsOf(1L)).thenReturn(LongHashSet.of(List.of(2L, 3L)));
+        when(presenceService.current(2L)).thenReturn(Optional.of(new PresenceChangedEvent(user(2L), true, "chess")));
+        when(presenceService.current(3L)).thenReturn(Optional.empty());
+
+        try (MockedConstruction<SseEmitter> emitters = mockConstruction(SseEmitter.class)) {
+            presenceStreamService.subscribe(user(1L));
+            presenceStreamService.onPresenceChanged(new PresenceChangedEvent(user(3L), true, null));
+            // Not a friend of the subscriber
+            presenceStreamService.onPresenceChanged(new PresenceChangedEvent(user(4L), true, null));
+
+            List<Object> sent = sent(emitters.constructed().get(0));
+            assertEquals(2, sent.size());
+            assertEquals(List.of(Map.of("username", "user2", "level", 1, "online", true, "game", "chess")),
+                    withoutNulls(sent.get(0)));
+            assertEquals(Map.of("username", "user3", "level", 1, "online", true), withoutNulls(sent.get(1)));
+        }
+    }
+
+    @Test
+    void onFriendshipChanged_StartsAndStopsWatching() throws Exception {
+        when(socialGraphService.friendsOf(1L)).thenReturn(new LongHashSet())
+                .thenReturn(LongHashSet.of(List.of(2L))).thenReturn(new LongHashSet());
+        when(presenceService.current(2L)).thenReturn(Optional.of(new PresenceChangedEvent(user(2L), true, null)));
+
+        try (MockedConstruction<SseEmitter> emitters = mockConstruction(SseEmitter.class)) {
+            presenceStreamService.subscribe(user(1L));
+            presenceStreamService.onFriendshipChanged(new FriendshipChangedEvent(1L, 2L, true));
+            presenceStreamService.onPresenceChanged(new PresenceChangedEvent(user(2L), true, "uno"));
+            presenceStreamService.onFriendshipChanged(new FriendshipChangedEvent(1L, 2L, false));
+            presenceStreamService.onPresenceChanged(new PresenceChangedEvent(user(2L), true, null));
+
+            List<Object> sent = sent(emitters.constructed().get(0));
+            // Snapshot, came online as a new friend, changed game, gone as a former friend
+            assertEquals(4, sent.size());
+            assertEquals(true, ((Map<?, ?>) sent.get(1)).get("online"));
+            assertEquals("uno", ((Map<?, ?>) sent.get(2)).get("game"));
+            assertEquals(false, ((Map<?, ?>) sent.get(3)).get("online"));
+        }
+    }
+
+    @Test
+    void failedSend_DropsTheStream() throws Exception {
+        when(socialGraphService.friendsOf(1L)).thenReturn(new LongHashSet());
+
+        try (MockedConstruction<SseEmitter> emitters = mockConstruction(SseEmitter.class,
+                (emitter, context) -> doThrow(new IllegalStateException("complete")).when(emitter)
+                        .send(any(SseEmitter.SseEventBuilder.class)))) {
+            presenceStreamService.subscribe(user(1L));
+        }
+
+        assertEquals(0, presenceStreamService.subscribers());
+    }
+
+    @Test
+    void slowClient_GetsCoalescedStateWithoutHoldingUpOthers() throws Exception {
+        ReflectionTestUtils.setField(presenceStreamService, "pusher", Executors.newCachedThreadPool());
+        when(socialGraphService.friendsOf(any())).thenReturn(LongHashSet.of(List.of(3L)));
+        when(presenceService.current(3L)).thenReturn(Optional.empty());
+        CountDownLatch slow = new CountDownLatch(1);
+
+        try (MockedConstruction<SseEmitter> emitters = mockConstruction(SseEmitter.class, (emitter, context) -> {
+            if (context.getCount() == 1) {
+                doAnswer(invocation -> slow.await(5, TimeUnit.SECONDS)).when(emitter)
+                        .send(any(SseEmitter.SseEventBuilder.class));
+            }
+        })) {
+            presenceStreamService.subscribe(user(1L));
+            presenceStreamService.subscribe(user(2L));
+            SseEmitter stuck = emitters.constructed().get(0);
+            SseEmitter healthy = emitters.constructed().get(1);
+            // Both snapshots are out (the first one never finishes) before anything changes
+            verify(stuck, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+            verify(healthy, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+
+            presenceStreamService.onPresenceChanged(new PresenceChangedEvent(user(3L), true, "chess"));
+            presenceStreamService.onPresenceChanged(new PresenceChangedEvent(user(3L), true, "uno"));
+            presenceStreamService.onPresenceChanged(new PresenceChangedEvent(user(3L), false, null));
+
+            verify(healthy, timeout(2000).atLeast(2)).send(any(SseEmitter.SseEventBuilder.class));
+            verify(stuck, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+
+            slow.countDown();
+            verify(stuck, timeout(2000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+            List<Object> sent = sent(stuck);
+            // The snapshot, then only the latest of the three changes
+            assertEquals(List.of(), sent.get(0));
+            assertEquals(false, ((Map<?, ?>) sent.get(1)).get("online"));
+        }
+    }
+
+    // The data of every event sent, in order
+    private static List<Object> sent(SseEmitter emitter) throws Exception {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeast(0)).send(events.capture());
+        return events.getAllValues().stream()
+                .map(event -> event.build().stream()
+                        .map(part -> part.getData())
+                        .filter(data -> !(data instanceof String))
+                        .findFirst().orElseThrow())
+                .toList();
+    }
+
+    private static Object withoutNulls(Object data) {
+        if (data instanceof List<?> list) {
+            return list.stream().map(PresenceStreamServiceTest::withoutNulls).toList();
+        }
+        Map<Object, Object> copy = new HashMap<>((Map<?, ?>) data);
+        copy.values().removeIf(Objects::isNull);
+        return copy;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.entity.UserRating;
+import com.example.backend.event.GameFinishedEvent;
+import com.example.backend.repository.UserRatingRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Against the database: ratings are written after the finishing transaction commits
+@SpringBootTest
+class RatingServiceTest {
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRatingRepository userRatingRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Its Postgres upserts do not run on the H2 test database
+    @MockBean
+    private UserGameStatsService userGameStatsService;
+
+    private User winner;
+    private User loser;
+
+    @BeforeEach
+    void setUp() {
+        // The database is shared with other tests in this JVM
+        String suffix = Long.toString(System.nanoTime(), 36);
+        winner = userRepository.save(player("winner_" + suffix));
+        loser = userRepository.save(player("loser_" + suffix));
+    }
+
+    @Test
+    void onGameFinished_PersistsNewAndUpdatedRatings() {
+        finishGame();
+        finishGame();
+
+        Map<Long, UserRating> stored = userRatingRepository.findAll().stream()
+                .filter(r -> "chess".equals(r.getGameType()))
+                .collect(Collectors.toMap(UserRating::getUserId, r -> r));
+        UserRating won = stored.get(winner.getId());
+        UserRating lost = stored.get(loser.getId());
+
+        assertEquals(2, won.getGamesPlayed());
+        assertEquals(2, lost.getGamesPlayed());
+        assertTrue(won.getRating() > lost.getRating());
+        assertEquals(ratingService.getRating(winner.getId(), "chess").rating(), won.getRating(), 1e-9);
+    }
+
+    @Test
+    void closeRatingPeriod_WidensDeviationOnlyForIdlePlayers() {
+        finishGame();
+        double played = ratingService.getRating(winner.getId(), "chess").deviation();
+
+        ratingService.closeRatingPeriod();
+        assertEquals(played, ratingService.getRating(winner.getId(), "chess").deviation(), 1e-9);
+
+        // Sat the next period out
+        ratingService.closeRatingPeriod();
+        double idle = ratingService.getRating(winner.getId(), "chess").deviation();
+        assertTrue(idle > played);
+
+        UserRating stored = userRatingRepository.findAll().stream()
+                .filter(r -> "chess".equals(r.getGameType()) && winner.getId().equals(r.getUserId()))
+                .findFirst().orElseThrow();
+        assertEquals(idle, stored.getDeviation(), 1e-9);
+        assertFalse(stored.isRatedThisPeriod());
+    }
+
+    private void finishGame() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(
+                new GameFinishedEvent("chess", List.of(winner.getUsername(), loser.getUsername()), false)));
+    }
+
+    private static User player(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret123");
+        user.setRole("USER");
+        return user;
+    }
+}
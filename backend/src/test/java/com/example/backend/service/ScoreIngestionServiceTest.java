@@ -0,0 +1,167 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Game;
+import com.example.backend.entity.User;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreIngestionServiceTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private ScoreService scoreService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SocialService socialService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ScoreIngestionService scoreIngestionService;
+
+    private final Game snake = new Game(1L, "Snake", "", "snake");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(gameService.getGameByType("snake")).thenReturn(Optional.of(snake));
+    }
+
+    @Test
+    void submit_AcksWithProjectedTotalsWithoutWriting() {
+        scoreIngestionService.init();
+        User user = user(1L, 900);
+
+        scoreIngestionService.submit(user, "snake", 150);
+        User ack = scoreIngestionService.submit(user, "snake", 50);
+
+        assertEquals(1100, ack.getTotalScore());
+        assertEquals(2, ack.getLevel());
+        assertEquals(900, user.getTotalScore());
+        assertEquals(2, scoreIngestionService.queued());
+        verifyNoInteractions(jdbcTemplate, scoreService);
+    }
+
+    @Test
+    void submit_UnknownGameIsRejected() {
+        scoreIngestionService.init();
+
+        assertThrows(RuntimeException.class, () -> scoreIngestionService.submit(user(1L, 0), "pong", 10));
+        assertEquals(0, scoreIngestionService.queued());
+    }
+
+    @Test
+    void submit_FullQueueFallsBackToDirectWrite() {
+        ReflectionTestUtils.setField(scoreIngestionService, "queueCapacity", 1);
+        scoreIngestionService.init();
+        User user = user(1L, 0);
+
+        when(scoreService.submitScore(user, "snake", 20)).thenReturn(user(1L, 20));
+
+        scoreIngestionService.submit(user, "snake", 10);
+        User ack = scoreIngestionService.submit(user, "snake", 20);
+
+        verify(scoreService).submitScore(user, "snake", 20);
+        assertEquals(1, scoreIngestionService.queued());
+        // The stored total plus the score still queued
+        assertEquals(30, ack.getTotalScore());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_CoalescesTotalsPerUserAndPublishesEachScore() {
+        scoreIngestionService.init();
+        runTransactionsInline();
+        scoreIngestionService.submit(user(1L, 1000), "snake", 100);
+        scoreIngestionService.submit(user(2L, 0), "snake", 50);
+        scoreIngestionService.submit(user(1L, 1000), "snake", 200);
+        // Totals as they read after the batch's update
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user(1L, 1300), user(2L, 50)));
+
+        scoreIngestionService.flush();
+
+        ArgumentCaptor<Collection<?>> updates = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE users"), updates.capture(), eq(2), any());
+        assertEquals(2, updates.getValue().size());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO scores"), any(Collection.class), eq(3), any());
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        List<Long> totals = events.getAllValues().stream()
+                .map(e -> ((ScoreSubmittedEvent) e).totalScore()).toList();
+        assertEquals(List.of(1100L, 50L, 1300L), totals);
+        assertEquals(0, scoreIngestionService.queued());
+    }
+
+    @Test
+    void flush_FailedBatchIsWrittenOneByOne() {
+        scoreIngestionService.init();
+        User user = user(1L, 0);
+        scoreIngestionService.submit(user, "snake", 10);
+        doThrow(new RuntimeException("deadlock")).when(transactionTemplate).executeWithoutResult(any());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        scoreIngestionService.flush();
+
+        verify(scoreService).submitScore(user, "snake", 10);
+        // Nothing left pending, so the next ack starts from the stored total again
+        assertEquals(5, scoreIngestionService.submit(user(1L, 0), "snake", 5).getTotalScore());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static User user(Long id, int totalScore) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setTotalScore(totalScore);
+        return user;
+    }
+}
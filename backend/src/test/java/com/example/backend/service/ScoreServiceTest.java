@@ -3,6 +3,7 @@ package com.example.backend.service;
 import com.example.backend.entity.Game;
 import com.example.backend.entity.Score;
 import com.example.backend.entity.User;
+import com.example.backend.event.ScoreSubmittedEvent;
 import com.example.backend.repository.ScoreRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -30,10 +32,10 @@ class ScoreServiceTest {
     private GameService gameService;
 
     @Mock
-    private AchievementService achievementService;
+    private SocialService socialService;
 
     @Mock
-    private SocialService socialService;
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ScoreService scoreService;
@@ -60,7 +62,13 @@ class ScoreServiceTest {
         int scoreValue = 600;
 
         when(gameService.getGameByType(gameType)).thenReturn(Optional.of(game));
-        when(userService.saveUser(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userService.addToTotalScore(1L, scoreValue)).thenAnswer(invocation -> {
+            User stored = new User();
+            stored.setId(1L);
+            stored.setTotalScore(1100);
+            stored.setLevel(2);
+            return stored;
+        });
 
         // Act
         User updatedUser = scoreService.submitScore(user, gameType, scoreValue);
@@ -70,8 +78,9 @@ class ScoreServiceTest {
         assertEquals(2, updatedUser.getLevel()); // 1 + 1100/1000 = 2
 
         verify(scoreRepository, times(1)).save(any(Score.class));
-        verify(achievementService, times(1)).checkAchievements(eq(updatedUser), eq(game), eq(scoreValue));
+        verify(userService, never()).saveUser(any(User.class));
         verify(socialService, times(1)).logActivity(eq(updatedUser), eq("SCORE"), anyString());
+        verify(eventPublisher, times(1)).publishEvent(any(ScoreSubmittedEvent.class));
     }
 
     @Test
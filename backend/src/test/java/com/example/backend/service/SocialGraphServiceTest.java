@@ -0,0 +1,79 @@
+package com.example.backend.service;
+
+import com.example.backend.event.FriendshipChangedEvent;
+import com.example.backend.repository.FriendshipRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SocialGraphServiceTest {
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    @InjectMocks
+    private SocialGraphService socialGraphService;
+
+    @Test
+    void friendsOf_LoadsOnceThenAnswersFromMemory() {
+        when(friendshipRepository.findFriendIds(1L)).thenReturn(List.of(2L, 3L));
+
+        assertTrue(socialGraphService.areFriends(1L, 2L));
+        assertFalse(socialGraphService.areFriends(1L, 4L));
+        assertEquals(2, socialGraphService.friendsOf(1L).size());
+
+        verify(friendshipRepository, times(1)).findFriendIds(1L);
+    }
+
+    @Test
+    void onFriendshipChanged_UpdatesLoadedSidesWithoutReloading() {
+        when(friendshipRepository.findFriendIds(1L)).thenReturn(List.of(2L));
+        var before = socialGraphService.friendsOf(1L);
+
+        socialGraphService.onFriendshipChanged(new FriendshipChangedEvent(1L, 3L, true));
+        socialGraphService.onFriendshipChanged(new FriendshipChangedEvent(2L, 1L, false));
+
+        assertEquals("[3]", socialGraphService.friendsOf(1L).toString());
+        // Readers holding the old set are not affected
+        assertEquals("[2]", before.toString());
+        // User 3 was never loaded, so nothing is cached for them
+        verify(friendshipRepository, times(1)).findFriendIds(1L);
+        verify(friendshipRepository, never()).findFriendIds(3L);
+    }
+
+    @Test
+    void friendsOf_ChangeCommittedDuringLoadIsNotLostFromTheCache() {
+        // The first query ran before the friendship committed; the event lands before it returns
+        when(friendshipRepository.findFriendIds(1L))
+                .thenAnswer(invocation -> {
+                    socialGraphService.onFriendshipChanged(new FriendshipChangedEvent(1L, 3L, true));
+                    return List.of(2L);
+                })
+                .thenReturn(List.of(2L, 3L));
+
+        assertEquals("[2]", socialGraphService.friendsOf(1L).toString());
+
+        assertTrue(socialGraphService.areFriends(1L, 3L));
+        verify(friendshipRepository, times(2)).findFriendIds(1L);
+    }
+
+    @Test
+    void removeUser_DropsThemFromFriendsSets() {
+        when(friendshipRepository.findFriendIds(1L)).thenReturn(List.of(2L));
+        when(friendshipRepository.findFriendIds(2L)).thenReturn(List.of(1L, 3L));
+        socialGraphService.friendsOf(1L);
+        socialGraphService.friendsOf(2L);
+
+        socialGraphService.removeUser(1L);
+
+        assertEquals("[3]", socialGraphService.friendsOf(2L).toString());
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -36,6 +37,15 @@ class SocialServiceTest {
     @Mock
     private ActivityRepository activityRepository;
 
+    @Mock
+    private ActivityLogService activityLogService;
+
+    @Mock
+    private SocialGraphService socialGraphService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SocialService socialService;
 
@@ -92,6 +102,6 @@ class SocialServiceTest {
         // Assert
         assertEquals(FriendRequest.RequestStatus.ACCEPTED, request.getStatus());
         verify(friendshipRepository, times(1)).save(any(Friendship.class));
-        verify(activityRepository, times(2)).save(any(Activity.class));
+        verify(activityLogService, times(2)).log(any(Activity.class));
     }
 }
@@ -0,0 +1,191 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.FeedPage;
+import com.example.backend.entity.Activity;
+import com.example.backend.entity.User;
+import com.example.backend.event.ActivityLoggedEvent;
+import com.example.backend.event.FriendshipChangedEvent;
+import com.example.backend.repository.ActivityRepository;
+import com.example.backend.repository.FriendshipRepository;
+import com.example.backend.util.KeysetCursor;
+import com.example.backend.util.LongHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    @Mock
+    private SocialGraphService socialGraphService;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    private final LocalDateTime start = LocalDateTime.now().minusHours(1);
+    private long nextActivityId = 1;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timelineService, "fanoutLimit", 2);
+        lenient().when(socialGraphService.friendsOf(1L)).thenReturn(LongHashSet.of(List.of(2L, 3L)));
+        lenient().when(socialGraphService.friendsOf(2L)).thenReturn(LongHashSet.of(List.of(1L)));
+        lenient().when(socialGraphService.friendsOf(3L)).thenReturn(LongHashSet.of(List.of(1L, 4L, 5L)));
+    }
+
+    @Test
+    void getFriendsFeed_FillsFromStorageOnceThenServesPushedActivity() {
+        Activity stored = activity(2L, 0);
+        when(activityRepository.findUsersPageAfter(argThat(ids -> ids.containsAll(List.of(2L, 3L))), any(), anyLong(), any()))
+                .thenReturn(List.of(stored));
+        assertEquals(List.of(stored), timelineService.getFriendsFeed(user(1L), null, 10).getItems());
+
+        Activity pushed = activity(2L, 5);
+        timelineService.onActivityLogged(new ActivityLoggedEvent(pushed));
+
+        FeedPage page = timelineService.getFriendsFeed(user(1L), null, 10);
+        assertEquals(List.of(pushed, stored), page.getItems());
+        assertNull(page.getNextCursor());
+        verify(activityRepository, times(1)).findUsersPageAfter(anyCollection(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getFriendsFeed_WhileTheBufferFills_PagesFromStorage() {
+        List<Activity> stored = List.of(activity(2L, 30), activity(3L, 20), activity(2L, 10));
+        FeedPage[] concurrent = new FeedPage[1];
+        when(activityRepository.findUsersPageAfter(anyCollection(), any(), anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    // A second first read arrives before this fill is done
+                    concurrent[0] = timelineService.getFriendsFeed(user(1L), null, 2);
+                    return stored;
+                })
+                .thenReturn(stored.subList(0, 2));
+
+        timelineService.getFriendsFeed(user(1L), null, 2);
+
+        assertEquals(stored.subList(0, 2), concurrent[0].getItems());
+        assertNotNull(concurrent[0].getNextCursor());
+    }
+
+    @Test
+    void getFriendsFeed_CursorContinuesAfterTheLastItem() {
+        List<Activity> stored = List.of(activity(2L, 30), activity(3L, 20), activity(2L, 10));
+        when(activityRepository.findUsersPageAfter(anyCollection(), any(), anyLong(), any())).thenReturn(stored);
+
+        FeedPage first = timelineService.getFriendsFeed(user(1L), null, 2);
+        FeedPage second = timelineService.getFriendsFeed(user(1L), first.getNextCursor(), 2);
+
+        assertEquals(stored.subList(0, 2), first.getItems());
+        assertEquals(List.of(stored.get(2)), second.getItems());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void onActivityLogged_CelebritiesAreMergedOnRead() {
+        // User 3 has three friends, over the limit of two
+        Activity celebrityPost = activity(3L, 10);
+        Activity older = activity(3L, 1);
+        when(activityRepository.findUsersPageAfter(argThat(ids -> ids.containsAll(List.of(2L, 3L))), any(), anyLong(), any()))
+                .thenReturn(List.of());
+        timelineService.getFriendsFeed(user(1L), null, 10);
+
+        timelineService.onActivityLogged(new ActivityLoggedEvent(celebrityPost));
+        when(activityRepository.findUserPageAfter(eq(3L), any(), anyLong(), any()))
+                .thenReturn(List.of(celebrityPost, older));
+        Activity friendPost = activity(2L, 5);
+        timelineService.onActivityLogged(new ActivityLoggedEvent(friendPost));
+
+        assertEquals(List.of(celebrityPost, friendPost, older),
+                timelineService.getFriendsFeed(user(1L), null, 10).getItems());
+    }
+
+    @Test
+    void getFriendsFeed_PagesPastAFullBufferReadFromStorage() {
+        ReflectionTestUtils.setField(timelineService, "capacity", 2);
+        Activity newest = activity(2L, 30);
+        Activity middle = activity(2L, 20);
+        Activity evicted = activity(2L, 10);
+        when(activityRepository.findUsersPageAfter(anyCollection(), any(), anyLong(), any()))
+                .thenReturn(List.of(newest, middle))
+                .thenReturn(List.of(evicted));
+
+        FeedPage first = timelineService.getFriendsFeed(user(1L), null, 2);
+        FeedPage second = timelineService.getFriendsFeed(user(1L), first.getNextCursor(), 2);
+
+        assertEquals(List.of(evicted), second.getItems());
+        KeysetCursor after = KeysetCursor.decode(first.getNextCursor());
+        verify(activityRepository).findUsersPageAfter(anyCollection(), eq(after.createdAt()), eq(middle.getId()),
+                any());
+    }
+
+    @Test
+    void onFriendshipChanged_RebuildsBothFeeds() {
+        when(activityRepository.findUsersPageAfter(anyCollection(), any(), anyLong(), any())).thenReturn(List.of());
+        timelineService.getFriendsFeed(user(1L), null, 10);
+
+        timelineService.onFriendshipChanged(new FriendshipChangedEvent(1L, 2L, false));
+        timelineService.getFriendsFeed(user(1L), null, 10);
+
+        verify(activityRepository, times(2)).findUsersPageAfter(anyCollection(), any(), anyLong(), any());
+    }
+
+    @Test
+    void evictIdle_DropsBuffersNobodyReads() {
+        when(activityRepository.findUsersPageAfter(anyCollection(), any(), anyLong(), any())).thenReturn(List.of());
+        timelineService.getFriendsFeed(user(1L), null, 10);
+
+        timelineService.evictIdle();
+        timelineService.getFriendsFeed(user(1L), null, 10);
+        verify(activityRepository, times(1)).findUsersPageAfter(anyCollection(), any(), anyLong(), any());
+
+        ReflectionTestUtils.setField(timelineService, "idleMinutes", 0L);
+        timelineService.evictIdle();
+        timelineService.getFriendsFeed(user(1L), null, 10);
+        verify(activityRepository, times(2)).findUsersPageAfter(anyCollection(), any(), anyLong(), any());
+    }
+
+    @Test
+    void evictIdle_OverTheLimitDropsTheLeastRecentlyRead() {
+        ReflectionTestUtils.setField(timelineService, "maxBuffers", 1);
+        when(activityRepository.findUsersPageAfter(anyCollection(), any(), anyLong(), any())).thenReturn(List.of());
+        timelineService.getFriendsFeed(user(2L), null, 10);
+        timelineService.getFriendsFeed(user(1L), null, 10);
+
+        timelineService.evictIdle();
+        timelineService.getFriendsFeed(user(1L), null, 10);
+        verify(activityRepository, times(2)).findUsersPageAfter(anyCollection(), any(), anyLong(), any());
+        timelineService.getFriendsFeed(user(2L), null, 10);
+        verify(activityRepository, times(3)).findUsersPageAfter(anyCollection(), any(), anyLong(), any());
+    }
+
+    private Activity activity(Long userId, int minutes) {
+        return new Activity(nextActivityId++, user(userId), "SCORE", "scored", start.plusMinutes(minutes));
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "test-secret-test-secret-test-secret");
+        tokenService.init();
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("odd|name");
+        user.setRole("ADMIN");
+        user.setPassword("$2a$10$hash");
+    }
+
+    @Test
+    void verify_ReturnsClaimsOfAValidAccessToken() {
+        String token = tokenService.issueAccessToken(user);
+
+        TokenService.Claims claims = tokenService.verify(token, TokenService.Type.ACCESS).orElseThrow();
+
+        assertEquals(7L, claims.userId());
+        assertEquals("odd|name", claims.username());
+        assertEquals("ADMIN", claims.role());
+        // Not usable as the other type
+        assertTrue(tokenService.verify(token, TokenService.Type.REFRESH).isEmpty());
+    }
+
+    @Test
+    void verify_RejectsTamperedMalformedAndForeignTokens() {
+        String token = tokenService.issueAccessToken(user);
+        String forged = tokenService.issueAccessToken(withRole("USER")).split("\\.")[0] + "." + token.split("\\.")[1];
+
+        assertTrue(tokenService.verify(forged, TokenService.Type.ACCESS).isEmpty());
+        assertTrue(tokenService.verify("not-a-token", TokenService.Type.ACCESS).isEmpty());
+        assertTrue(tokenService.verify("a.b", TokenService.Type.ACCESS).isEmpty());
+        assertTrue(tokenService.verify(null, TokenService.Type.ACCESS).isEmpty());
+
+        TokenService other = new TokenService();
+        ReflectionTestUtils.setField(other, "secret", "another-secret-another-secret-123");
+        other.init();
+        assertTrue(other.verify(token, TokenService.Type.ACCESS).isEmpty());
+    }
+
+    @Test
+    void verify_RejectsExpiredTokens() {
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        ReflectionTestUtils.setField(tokenService, "clock", Clock.fixed(now, ZoneOffset.UTC));
+        String token = tokenService.issueAccessToken(user);
+
+        ReflectionTestUtils.setField(tokenService, "clock", Clock.fixed(now.plus(Duration.ofSeconds(899)), ZoneOffset.UTC));
+        assertTrue(tokenService.verify(token, TokenService.Type.ACCESS).isPresent());
+        ReflectionTestUtils.setField(tokenService, "clock", Clock.fixed(now.plus(Duration.ofSeconds(900)), ZoneOffset.UTC));
+        assertTrue(tokenService.verify(token, TokenService.Type.ACCESS).isEmpty());
+    }
+
+    @Test
+    void isCurrent_FailsOnceThePasswordChanges() {
+        TokenService.Claims claims = tokenService.verify(tokenService.issueRefreshToken(user), TokenService.Type.REFRESH)
+                .orElseThrow();
+        assertTrue(tokenService.isCurrent(claims, user));
+
+        user.setPassword("$2a$10$otherhash");
+        assertFalse(tokenService.isCurrent(claims, user));
+    }
+
+    private User withRole(String role) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setPassword(user.getPassword());
+        copy.setRole(role);
+        return copy;
+    }
+}
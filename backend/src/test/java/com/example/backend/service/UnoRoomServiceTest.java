@@ -0,0 +1,132 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.GameRoom;
+import com.example.backend.repository.GameRoomRepository;
+import com.example.backend.repository.UserRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnoRoomServiceTest {
+
+    @Mock
+    private GameRoomRepository gameRoomRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private TurnTimerService turnTimerService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private UnoRoomService unoRoomService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GameRoom room;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Map<String, Object> gameState = new HashMap<>();
+        Map<String, List<Map<String, Object>>> hands = new HashMap<>();
+        hands.put("alice", new ArrayList<>(List.of(card("red", "5"))));
+        hands.put("bob", new ArrayList<>(List.of(card("blue", "7"))));
+        gameState.put("hands", hands);
+        gameState.put("deck", new ArrayList<>(List.of(card("green", "1"), card("yellow", "2"))));
+        gameState.put("discardPile", new ArrayList<>(List.of(card("red", "3"))));
+        gameState.put("direction", 1);
+        gameState.put("hasDrawn", false);
+        gameState.put("pendingPenalty", null);
+
+        room = new GameRoom();
+        room.setId(1L);
+        room.setGameType("UNO");
+        room.setStatus("PLAYING");
+        room.setPlayers(objectMapper.writeValueAsString(List.of(Map.of("username", "alice"),
+                Map.of("username", "bob"))));
+        room.setGameState(objectMapper.writeValueAsString(gameState));
+        room.setCurrentPlayerIndex(0);
+        room.setCurrentPlayerUsername("alice");
+        room.setLastActivityAt(LocalDateTime.now().minusMinutes(5));
+        lenient().when(gameRoomRepository.findById(1L)).thenReturn(Optional.of(room));
+        lenient().when(gameRoomRepository.save(any(GameRoom.class))).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @Test
+    void expireTurn_IdlePlayerDrawsAndIsSkipped() throws Exception {
+        when(turnTimerService.roomTimeout(room)).thenReturn(Duration.ofSeconds(60));
+
+        GameRoom result = unoRoomService.expireTurn(1L);
+
+        assertEquals("bob", result.getCurrentPlayerUsername());
+        assertEquals(1, result.getCurrentPlayerIndex());
+        Map<String, Object> state = objectMapper.readValue(result.getGameState(),
+                new TypeReference<Map<String, Object>>() {
+                });
+        assertEquals(2, ((List<?>) ((Map<?, ?>) state.get("hands")).get("alice")).size());
+        assertEquals(1, ((List<?>) state.get("deck")).size());
+        verify(turnTimerService).onRoomTurn(result);
+    }
+
+    @Test
+    void expireTurn_PendingPenaltyIsDrawnInsteadOfOneCard() throws Exception {
+        Map<String, Object> state = objectMapper.readValue(room.getGameState(),
+                new TypeReference<Map<String, Object>>() {
+                });
+        state.put("pendingPenalty", Map.of("type", "Draw Two", "count", 2));
+        room.setGameState(objectMapper.writeValueAsString(state));
+        when(turnTimerService.roomTimeout(room)).thenReturn(Duration.ofSeconds(60));
+
+        GameRoom result = unoRoomService.expireTurn(1L);
+
+        Map<String, Object> after = objectMapper.readValue(result.getGameState(),
+                new TypeReference<Map<String, Object>>() {
+                });
+        assertEquals(3, ((List<?>) ((Map<?, ?>) after.get("hands")).get("alice")).size());
+        assertNull(after.get("pendingPenalty"));
+        assertEquals("bob", result.getCurrentPlayerUsername());
+    }
+
+    @Test
+    void expireTurn_RecentMove_Rearms() throws Exception {
+        room.setLastActivityAt(LocalDateTime.now());
+        when(turnTimerService.roomTimeout(room)).thenReturn(Duration.ofSeconds(60));
+
+        GameRoom result = unoRoomService.expireTurn(1L);
+
+        assertEquals("alice", result.getCurrentPlayerUsername());
+        verify(gameRoomRepository, never()).save(any(GameRoom.class));
+        verify(turnTimerService).onRoomTurn(room);
+    }
+
+    private static Map<String, Object> card(String color, String value) {
+        Map<String, Object> card = new HashMap<>();
+        card.put("color", color);
+        card.put("value", value);
+        return card;
+    }
+}
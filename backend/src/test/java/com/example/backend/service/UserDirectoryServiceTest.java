@@ -0,0 +1,39 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDirectoryServiceTest {
+
+    @Test
+    void where_AddsOnlyTheGivenFilters() {
+        List<Object> args = new ArrayList<>();
+        String sql = UserDirectoryService.where(new UserDirectoryService.Filter(null, null, null, null), 0, args);
+
+        assertEquals(" WHERE id > ?", sql);
+        assertEquals(List.of(0L), args);
+
+        args.clear();
+        LocalDateTime since = LocalDateTime.of(2026, 10, 1, 0, 0);
+        sql = UserDirectoryService.where(new UserDirectoryService.Filter("ADMIN", since, 100, 500), 42, args);
+
+        assertEquals(" WHERE id > ? AND role = ? AND last_active_at >= ? AND total_score >= ? AND total_score <= ?",
+                sql);
+        assertEquals(List.of(42L, "ADMIN", Timestamp.valueOf(since), 100, 500), args);
+    }
+
+    @Test
+    void csv_QuotesSeparatorsAndDefusesFormulas() {
+        assertEquals("alice", UserDirectoryService.csv("alice"));
+        assertEquals("", UserDirectoryService.csv(null));
+        assertEquals("\"Smith, Jo\"", UserDirectoryService.csv("Smith, Jo"));
+        assertEquals("\"say \"\"hi\"\"\"", UserDirectoryService.csv("say \"hi\""));
+        assertEquals("'=1+1", UserDirectoryService.csv("=1+1"));
+    }
+}
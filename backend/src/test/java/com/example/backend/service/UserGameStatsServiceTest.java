@@ -0,0 +1,165 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BackfillCutoff;
+import com.example.backend.entity.CompletedBackfill;
+import com.example.backend.entity.Game;
+import com.example.backend.entity.User;
+import com.example.backend.entity.UserGameStats;
+import com.example.backend.event.GameFinishedEvent;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.BackfillCutoffRepository;
+import com.example.backend.repository.CompletedBackfillRepository;
+import com.example.backend.repository.GameRepository;
+import com.example.backend.repository.UserGameStatsRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserGameStatsServiceTest {
+
+    @Mock
+    private UserGameStatsRepository userGameStatsRepository;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CompletedBackfillRepository completedBackfillRepository;
+
+    @Mock
+    private BackfillCutoffRepository backfillCutoffRepository;
+
+    @InjectMocks
+    private UserGameStatsService userGameStatsService;
+
+    @Test
+    void persistScore_UpsertsTheRow() {
+        LocalDateTime at = LocalDateTime.now();
+
+        userGameStatsService.persistScore(new ScoreSubmittedEvent(1L, 2L, "snake", 300, 300, at));
+
+        verify(userGameStatsRepository).upsertScore(1L, 2L, 300, at);
+        verify(userGameStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void onGameFinished_CountsAGameForEveryPlayer() {
+        when(gameRepository.findByType("checkers")).thenReturn(Optional.of(new Game(5L, "Checkers", "", "checkers")));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user(2L)));
+
+        userGameStatsService.onGameFinished(new GameFinishedEvent("checkers", List.of("alice", "bob"), false));
+
+        verify(userGameStatsRepository).upsertGame(eq(1L), eq(5L), any());
+        verify(userGameStatsRepository).upsertGame(eq(2L), eq(5L), any());
+    }
+
+    @Test
+    void getStats_ReportsAverageAndNewestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        when(userGameStatsRepository.findByUserId(1L)).thenReturn(List.of(
+                new UserGameStats(1L, 1L, 1L, 4, 1000, 400, now.minusDays(1), true),
+                new UserGameStats(2L, 1L, 2L, 1, 64, 64, now, null)));
+        when(gameRepository.findAllById(any())).thenReturn(List.of(new Game(1L, "Snake", "", "snake"),
+                new Game(2L, "2048", "", "2048")));
+
+        List<Map<String, Object>> stats = userGameStatsService.getStats(user(1L));
+
+        assertEquals("2048", stats.get(0).get("gameType"));
+        assertEquals(250L, stats.get(1).get("averageScore"));
+        assertEquals(400, stats.get(1).get("bestScore"));
+    }
+
+    @Test
+    void backfillIfNeeded_SplitsUsersIntoSlicesAndMarksCompletion() {
+        when(userGameStatsRepository.findMaxScoredUserId()).thenReturn(10L);
+        when(backfillCutoffRepository.findById("user_game_stats"))
+                .thenReturn(Optional.of(new BackfillCutoff("user_game_stats", 50L, LocalDateTime.now())));
+        when(userGameStatsRepository.backfillFromScores(anyLong(), anyLong(), anyLong())).thenReturn(3);
+
+        userGameStatsService.backfillIfNeeded();
+
+        verify(userGameStatsRepository).backfillFromScores(1L, 3L, 50L);
+        verify(userGameStatsRepository).backfillFromScores(10L, 10L, 50L);
+        verify(userGameStatsRepository, times(4)).backfillFromScores(anyLong(), anyLong(), anyLong());
+        verify(completedBackfillRepository).save(argThat(b -> "user_game_stats".equals(b.getName())));
+    }
+
+    @Test
+    void backfillIfNeeded_RetriesAFailedSlice() {
+        when(userGameStatsRepository.findMaxScoredUserId()).thenReturn(10L);
+        when(backfillCutoffRepository.findById("user_game_stats"))
+                .thenReturn(Optional.of(new BackfillCutoff("user_game_stats", 50L, LocalDateTime.now())));
+        when(userGameStatsRepository.backfillFromScores(anyLong(), anyLong(), anyLong())).thenReturn(3);
+        when(userGameStatsRepository.backfillFromScores(4L, 6L, 50L))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(3);
+
+        userGameStatsService.backfillIfNeeded();
+
+        verify(userGameStatsRepository, times(2)).backfillFromScores(4L, 6L, 50L);
+        verify(completedBackfillRepository).save(any(CompletedBackfill.class));
+    }
+
+    @Test
+    void backfillIfNeeded_LeavesUnmarkedWhenASliceKeepsFailing() {
+        when(userGameStatsRepository.findMaxScoredUserId()).thenReturn(10L);
+        when(backfillCutoffRepository.findById("user_game_stats"))
+                .thenReturn(Optional.of(new BackfillCutoff("user_game_stats", 50L, LocalDateTime.now())));
+        when(userGameStatsRepository.backfillFromScores(anyLong(), anyLong(), anyLong())).thenReturn(3);
+        when(userGameStatsRepository.backfillFromScores(4L, 6L, 50L))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        userGameStatsService.backfillIfNeeded();
+
+        verify(userGameStatsRepository, times(3)).backfillFromScores(4L, 6L, 50L);
+        verify(completedBackfillRepository, never()).save(any());
+    }
+
+    @Test
+    void backfillIfNeeded_SkipsOnceMarked() {
+        when(completedBackfillRepository.existsById("user_game_stats")).thenReturn(true);
+
+        userGameStatsService.backfillIfNeeded();
+
+        verify(userGameStatsRepository, never()).backfillFromScores(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void takeBackfillCutoff_KeepsTheFirstCutoff() {
+        when(userGameStatsRepository.findMaxScoreId()).thenReturn(50L);
+        userGameStatsService.takeBackfillCutoff();
+        verify(backfillCutoffRepository).save(argThat(c -> c.getScoreId() == 50L));
+
+        // A later start, with the backfill still unfinished, reuses it
+        when(backfillCutoffRepository.existsById("user_game_stats")).thenReturn(true);
+        userGameStatsService.takeBackfillCutoff();
+        verify(backfillCutoffRepository, times(1)).save(any());
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
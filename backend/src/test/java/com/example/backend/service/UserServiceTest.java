@@ -9,11 +9,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +43,39 @@ class UserServiceTest {
     @Mock
     private FriendRequestRepository friendRequestRepository;
 
+    @Mock
+    private RatingService ratingService;
+
+    @Mock
+    private AchievementService achievementService;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private GameLeaderboardService gameLeaderboardService;
+
+    @Mock
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @Mock
+    private UserGameStatsService userGameStatsService;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private SocialGraphService socialGraphService;
+
+    @Mock
+    private CredentialCacheService credentialCacheService;
+
+    @Mock
+    private ContentVersionService contentVersionService;
+
     @InjectMocks
     private UserService userService;
 
@@ -68,9 +104,33 @@ class UserServiceTest {
         verify(userAchievementRepository, times(1)).deleteByUser(user);
         verify(friendshipRepository, times(1)).deleteByAnyUser(user);
         verify(friendRequestRepository, times(1)).deleteByAnyUser(user);
+        verify(ratingService, times(1)).deleteUserRatings(1L);
+        verify(presenceService, times(1)).forget(1L);
+        verify(socialGraphService, times(1)).removeUser(1L);
+        verify(credentialCacheService, times(1)).evict(user.getUsername());
         verify(userRepository, times(1)).delete(user);
     }
 
+    @Test
+    void deleteUser_ForgetsInMemoryStateOnlyAfterCommit() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUser(1L);
+
+            verify(userRepository).delete(user);
+            verify(socialGraphService, never()).removeUser(anyLong());
+            verify(presenceService, never()).forget(anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(socialGraphService).removeUser(1L);
+            verify(presenceService).forget(1L);
+            verify(credentialCacheService).evict(user.getUsername());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void registerUser_Success() {
         // Arrange
@@ -115,6 +175,7 @@ class UserServiceTest {
 
         // Assert
         assertEquals("ADMIN", result.getRole());
+        verify(credentialCacheService).evict(user.getUsername());
     }
 
     @Test
@@ -141,4 +202,23 @@ class UserServiceTest {
             userService.toggleUserRole(1L);
         });
     }
+
+    @Test
+    void getCachedUser_LoadsOnceUntilTheUserIsSaved() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        User first = userService.getCachedUser(1L);
+        first.setBio("changed by a caller");
+        User second = userService.getCachedUser(1L);
+        userService.saveUser(user);
+        userService.getCachedUser(1L);
+
+        // Assert
+        assertNull(second.getBio());
+        assertNotSame(first, second);
+        verify(userRepository, times(2)).findById(1L);
+    }
 }
@@ -0,0 +1,188 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.PlayerSummary;
+import com.example.backend.entity.Game;
+import com.example.backend.entity.LeaderboardSeason;
+import com.example.backend.entity.LeaderboardSnapshot;
+import com.example.backend.event.ScoreSubmittedEvent;
+import com.example.backend.repository.GameRepository;
+import com.example.backend.repository.LeaderboardSeasonRepository;
+import com.example.backend.repository.LeaderboardSnapshotRepository;
+import com.example.backend.repository.ScoreBucketRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.service.WindowedLeaderboardService.Window;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WindowedLeaderboardServiceTest {
+
+    @Mock
+    private ScoreBucketRepository scoreBucketRepository;
+
+    @Mock
+    private LeaderboardSeasonRepository seasonRepository;
+
+    @Mock
+    private LeaderboardSnapshotRepository snapshotRepository;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private WindowedLeaderboardService windowedLeaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        windowedLeaderboardService.init();
+        when(seasonRepository.findFirstByEndedAtIsNullOrderByIdDesc())
+                .thenReturn(Optional.of(new LeaderboardSeason(1L, LocalDateTime.now().minusDays(30), null)));
+        when(gameRepository.findAll()).thenReturn(List.of(new Game(1L, "Snake", "", "snake")));
+        lenient().when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<PlayerSummary> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                found.add(new PlayerSummary((Long) id, "user" + id, null, null, 1, 0));
+            }
+            return found;
+        });
+        windowedLeaderboardService.loadWindows();
+
+        windowedLeaderboardService.onScoreSubmitted(event(1L, 300));
+        windowedLeaderboardService.onScoreSubmitted(event(1L, 200));
+        windowedLeaderboardService.onScoreSubmitted(event(2L, 400));
+    }
+
+    @Test
+    void getCurrent_TotalsAcrossGamesAndBestPerGame() {
+        List<?> totals = (List<?>) windowedLeaderboardService.getCurrent(Window.DAILY, null, 10).get("standings");
+        List<?> snake = (List<?>) windowedLeaderboardService.getCurrent(Window.WEEKLY, "snake", 10).get("standings");
+
+        assertEquals(500L, ((Map<?, ?>) totals.get(0)).get("score"));
+        assertEquals("user1", ((Map<?, ?>) totals.get(0)).get("username"));
+        assertEquals("user2", ((Map<?, ?>) snake.get(0)).get("username"));
+        assertEquals(300L, ((Map<?, ?>) snake.get(1)).get("score"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollWindows_FreezesClosedDayAndStartsEmpty() {
+        windowedLeaderboardService.rollWindows(LocalDate.now().plusDays(1));
+
+        ArgumentCaptor<List<LeaderboardSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository, atLeastOnce()).saveAll(saved.capture());
+        LeaderboardSnapshot daily = saved.getAllValues().stream().flatMap(List::stream)
+                .filter(s -> "DAILY".equals(s.getWindowKind()) && "all".equals(s.getGameType()))
+                .findFirst().orElseThrow();
+        assertEquals(LocalDate.now().toString(), daily.getWindowKey());
+        assertTrue(daily.getStandings().contains("\"user1\""));
+
+        Map<String, Object> current = windowedLeaderboardService.getCurrent(Window.DAILY, null, 10);
+        assertEquals(LocalDate.now().plusDays(1).toString(), current.get("key"));
+        assertTrue(((List<?>) current.get("standings")).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollWindows_KeepsAFailedFreezeAndRetriesIt() {
+        when(snapshotRepository.saveAll(anyIterable()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        windowedLeaderboardService.rollWindows(LocalDate.now().plusDays(1));
+        assertEquals(LocalDate.now().plusDays(1).toString(),
+                windowedLeaderboardService.getCurrent(Window.DAILY, null, 10).get("key"));
+
+        windowedLeaderboardService.rollWindows(LocalDate.now().plusDays(1));
+
+        // The failed attempt and the retry; the week may have rolled as well
+        ArgumentCaptor<List<LeaderboardSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository, atLeast(2)).saveAll(saved.capture());
+        List<LeaderboardSnapshot> daily = saved.getAllValues().stream().flatMap(List::stream)
+                .filter(s -> "DAILY".equals(s.getWindowKind()) && "all".equals(s.getGameType()))
+                .toList();
+        assertEquals(2, daily.size());
+        assertEquals(LocalDate.now().toString(), daily.get(1).getWindowKey());
+        assertTrue(daily.get(1).getStandings().contains("\"user1\""));
+    }
+
+    @Test
+    void startNewSeason_SwapsInEmptySeason() {
+        when(seasonRepository.save(any(LeaderboardSeason.class))).thenAnswer(invocation -> {
+            LeaderboardSeason season = invocation.getArgument(0);
+            if (season.getId() == null) {
+                season.setId(2L);
+            }
+            return season;
+        });
+
+        windowedLeaderboardService.startNewSeason();
+
+        Map<String, Object> season = windowedLeaderboardService.getCurrent(Window.SEASON, null, 10);
+        assertEquals("season-2", season.get("key"));
+        assertTrue(((List<?>) season.get("standings")).isEmpty());
+        verify(scoreBucketRepository, never()).deleteAll();
+        verify(snapshotRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void onScoreSubmitted_LateScoreSkipsWindowsOfOtherDays() {
+        // Ten days old: outside today and this week, but inside the season that started 30 days ago
+        windowedLeaderboardService.onScoreSubmitted(new ScoreSubmittedEvent(3L, 1L, "snake", 1000, 0,
+                LocalDateTime.now().minusDays(10)));
+
+        List<?> daily = (List<?>) windowedLeaderboardService.getCurrent(Window.DAILY, null, 10).get("standings");
+        List<?> weekly = (List<?>) windowedLeaderboardService.getCurrent(Window.WEEKLY, null, 10).get("standings");
+        List<?> season = (List<?>) windowedLeaderboardService.getCurrent(Window.SEASON, null, 10).get("standings");
+        assertEquals("user1", ((Map<?, ?>) daily.get(0)).get("username"));
+        assertEquals("user1", ((Map<?, ?>) weekly.get(0)).get("username"));
+        assertEquals("user3", ((Map<?, ?>) season.get(0)).get("username"));
+    }
+
+    @Test
+    void persistBucket_TagsLateScoreWithItsOwnSeason() {
+        LocalDateTime at = LocalDateTime.now().minusDays(40);
+        when(seasonRepository.findFirstByStartedAtLessThanEqualOrderByStartedAtDesc(at))
+                .thenReturn(Optional.of(new LeaderboardSeason(7L, at.minusDays(5), LocalDateTime.now().minusDays(30))));
+
+        windowedLeaderboardService.persistBucket(new ScoreSubmittedEvent(1L, 1L, "snake", 50, 0, at));
+        windowedLeaderboardService.persistBucket(event(1L, 60));
+
+        verify(scoreBucketRepository).upsertScore(at.toLocalDate(), 7L, 1L, 1L, 50);
+        verify(scoreBucketRepository).upsertScore(LocalDate.now(), 1L, 1L, 1L, 60);
+    }
+
+    private static ScoreSubmittedEvent event(Long userId, int score) {
+        return new ScoreSubmittedEvent(userId, 1L, "snake", score, 0, LocalDateTime.now());
+    }
+}
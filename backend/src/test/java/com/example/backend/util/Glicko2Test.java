@@ -0,0 +1,36 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Glicko2Test {
+
+    @Test
+    void update_MatchesGlickmansWorkedExample() {
+        Glicko2.Rating player = new Glicko2.Rating(1500, 200, 0.06);
+        List<Glicko2.Result> results = List.of(
+                new Glicko2.Result(new Glicko2.Rating(1400, 30, 0.06), 1.0),
+                new Glicko2.Result(new Glicko2.Rating(1550, 100, 0.06), 0.0),
+                new Glicko2.Result(new Glicko2.Rating(1700, 300, 0.06), 0.0));
+
+        Glicko2.Rating updated = Glicko2.update(player, results);
+
+        assertEquals(1464.06, updated.rating(), 0.01);
+        assertEquals(151.52, updated.deviation(), 0.01);
+        assertEquals(0.05999, updated.volatility(), 0.00001);
+    }
+
+    @Test
+    void decay_WidensDeviationButKeepsRating() {
+        Glicko2.Rating player = new Glicko2.Rating(1600, 80, 0.06);
+
+        Glicko2.Rating decayed = Glicko2.decay(player);
+
+        assertEquals(1600, decayed.rating(), 1e-9);
+        assertTrue(decayed.deviation() > 80);
+        assertTrue(Glicko2.decay(Glicko2.Rating.DEFAULT).deviation() <= 350);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresOnTheDeadlineTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 2, 3, 0);
+        wheel.schedule("a", 3000);
+
+        assertTrue(wheel.advanceTo(2999).isEmpty());
+        assertEquals(List.of("a"), wheel.advanceTo(3000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesFromHigherLevels() {
+        // 4 slots per level: level 0 spans 4 ticks, level 1 spans 16, level 2 spans 64
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 2, 3, 0);
+        for (int delay = 1; delay <= 100; delay++) {
+            wheel.schedule(delay, delay);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = 1; now <= 100; now++) {
+            List<Integer> expired = wheel.advanceTo(now);
+            assertEquals(List.of((int) now), expired, "tick " + now);
+            fired.addAll(expired);
+        }
+        assertEquals(100, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleAndCancelReplacePendingTimeout() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 6, 4, 0);
+        wheel.schedule("room", 5000);
+        wheel.schedule("room", 60_000);
+        wheel.schedule("match", 2000);
+        assertTrue(wheel.cancel("match"));
+
+        assertTrue(wheel.advanceTo(59_000).isEmpty());
+        assertEquals(List.of("room"), wheel.advanceTo(60_000));
+        assertFalse(wheel.cancel("room"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedSkipListTest {
+
+    @Test
+    void ranksAndSlicesMatchASortedList() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove((Integer) value), list.remove(value));
+            } else if (!expected.contains(value)) {
+                assertTrue(list.add(value));
+                expected.add(value);
+            } else {
+                assertFalse(list.add(value));
+            }
+        }
+        Collections.sort(expected);
+
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+            assertEquals(i, list.indexOf(expected.get(i)));
+        }
+        assertEquals(expected.subList(100, 150), list.range(100, 50));
+        assertEquals(expected.subList(expected.size() - 3, expected.size()), list.range(expected.size() - 3, 10));
+        assertEquals(-1, list.indexOf(5000));
+    }
+
+    @Test
+    void emptyListHasNoElements() {
+        IndexedSkipList<String> list = new IndexedSkipList<>(Comparator.naturalOrder());
+
+        assertTrue(list.range(0, 10).isEmpty());
+        assertFalse(list.remove("a"));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsAtMicrosecondPrecision() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456789);
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(createdAt, 42).encode());
+
+        assertEquals(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000), cursor.createdAt());
+        assertEquals(42, cursor.id());
+    }
+
+    @Test
+    void isBefore_OrdersByTimeThenId() {
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 12, 0);
+        KeysetCursor cursor = new KeysetCursor(at, 10);
+
+        assertTrue(cursor.isBefore(at.minusSeconds(1), 99));
+        assertTrue(cursor.isBefore(at, 9));
+        assertFalse(cursor.isBefore(at, 10));
+        // Nanoseconds the database would not keep do not count
+        assertFalse(cursor.isBefore(at.plusNanos(500), 10));
+        assertTrue(KeysetCursor.START.isBefore(LocalDateTime.now(), 1));
+    }
+
+    @Test
+    void decode_BlankIsTheFirstPageAndGarbageIsRejected() {
+        assertEquals(KeysetCursor.START, KeysetCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void addRemoveContains() {
+        LongHashSet set = LongHashSet.of(List.of(3L, 1L, 2L));
+
+        assertFalse(set.add(2L));
+        assertTrue(set.contains(1L));
+        assertFalse(set.contains(4L));
+        assertTrue(set.remove(1L));
+        assertFalse(set.remove(1L));
+        assertEquals("[2, 3]", set.toString());
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void zeroIsAnOrdinaryValue() {
+        LongHashSet set = new LongHashSet();
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(List.of(0L), set.boxed());
+        assertTrue(set.remove(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        LongHashSet original = LongHashSet.of(List.of(1L, 2L));
+        LongHashSet copy = new LongHashSet(original);
+
+        copy.add(3L);
+        copy.remove(1L);
+
+        assertEquals("[1, 2]", original.toString());
+        assertEquals("[2, 3]", copy.toString());
+    }
+
+    @Test
+    void matchesHashSetUnderRandomChurn() {
+        // Removals in the middle of probe runs are where open addressing goes wrong
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            long value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected, new HashSet<>(set.boxed()));
+        for (long value = 0; value < 500; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+}
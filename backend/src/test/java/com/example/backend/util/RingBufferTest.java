@@ -0,0 +1,36 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void keepsOnlyTheNewestItems() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.addNewest(i);
+        }
+
+        assertEquals(List.of(5, 4, 3), buffer.newest(0, 10));
+        assertEquals(List.of(4), buffer.newest(1, 1));
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    void appendOldestFillsBehindNewerItemsUntilFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        buffer.addNewest(10);
+
+        assertTrue(buffer.appendOldest(9));
+        assertTrue(buffer.appendOldest(8));
+        assertFalse(buffer.appendOldest(7));
+        assertEquals(List.of(10, 9, 8), buffer.newest(0, 3));
+
+        buffer.addNewest(11);
+        assertEquals(List.of(11, 10, 9), buffer.newest(0, 3));
+    }
+}
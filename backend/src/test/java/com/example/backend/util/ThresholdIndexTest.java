@@ -0,0 +1,37 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThresholdIndexTest {
+
+    private final ThresholdIndex index = new ThresholdIndex(new long[] { 5000, 1, 1000, 1000 },
+            new int[] { 3, 0, 1, 2 });
+
+    @Test
+    void forEachCrossed_OnlyVisitsThresholdsInTheHalfOpenRange() {
+        assertEquals(List.of(1, 2), crossed(999, 1000));
+        assertEquals(List.of(), crossed(1000, 4999));
+        assertEquals(List.of(0, 1, 2, 3), crossed(0, 10000));
+        assertEquals(List.of(), crossed(1, 1));
+    }
+
+    @Test
+    void forEachReached_IncludesTheValueItself() {
+        List<Integer> ids = new ArrayList<>();
+        index.forEachReached(1000, ids::add);
+
+        assertEquals(List.of(0, 1, 2), ids);
+        assertEquals(4, index.size());
+    }
+
+    private List<Integer> crossed(long from, long to) {
+        List<Integer> ids = new ArrayList<>();
+        index.forEachCrossed(from, to, ids::add);
+        return ids;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionStampTest {
+
+    @Test
+    void bump_MovesTheNumberAndNeverTheTimeBackwards() {
+        VersionStamp stamp = new VersionStamp();
+        VersionStamp.Version before = stamp.current();
+
+        stamp.bump();
+
+        assertEquals(before.number() + 1, stamp.current().number());
+        assertTrue(stamp.current().modifiedAt() >= before.modifiedAt());
+    }
+
+    @Test
+    void etag_IsQuotedAndChangesWithAnyOfItsVersions() {
+        VersionStamp a = new VersionStamp();
+        VersionStamp b = new VersionStamp();
+        String tag = VersionStamp.etag("profile-1", a.current(), b.current());
+
+        assertTrue(tag.startsWith("\"profile-1-") && tag.endsWith("\""));
+        assertEquals(tag, VersionStamp.etag("profile-1", a.current(), b.current()));
+        assertNotEquals(tag, VersionStamp.etag("profile-2", a.current(), b.current()));
+
+        b.bump();
+        assertNotEquals(tag, VersionStamp.etag("profile-1", a.current(), b.current()));
+    }
+
+    @Test
+    void lastModified_IsTheLatestOfItsVersions() {
+        VersionStamp.Version older = new VersionStamp.Version(3, 1_000);
+        VersionStamp.Version newer = new VersionStamp.Version(1, 5_000);
+
+        assertEquals(5_000, VersionStamp.lastModified(older, newer));
+    }
+}
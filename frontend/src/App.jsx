@@ -95,8 +95,19 @@ function App() {
     }
   }, [user]);
 
+  // Keeps us online for friends, and tells them which game we are in
+  useEffect(() => {
+    if (!user) return;
+    // Views are the catalog game type plus a mode suffix, e.g. game-chess-solo -> chess
+    const game = view.startsWith('game-') ? view.slice(5).replace(/-(lobby|solo|multiplayer)$/, '') : null;
+    const beat = () => SocialService.heartbeat(game).catch(console.error);
+    beat();
+    const interval = setInterval(beat, 30000);
+    return () => clearInterval(interval);
+  }, [user, view]);
+
   const getHighScore = (gameType) => {
-    const gameScores = scores.filter(s => s.game.type === gameType);
+    const gameScores = scores.filter(s => s.gameType === gameType);
     if (gameScores.length === 0) return 0;
     return Math.max(...gameScores.map(s => s.scoreValue));
   };
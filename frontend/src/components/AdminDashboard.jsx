@@ -4,6 +4,8 @@ import { AdminService } from '../services/AdminService';
 export default function AdminDashboard({ onBack }) {
     const [stats, setStats] = useState({ totalUsers: 0, totalGames: 0, totalScores: 0 });
     const [users, setUsers] = useState([]);
+    const [usersCursor, setUsersCursor] = useState(null);
+    const [roleFilter, setRoleFilter] = useState('');
     const [games, setGames] = useState([]);
     const [leaderboard, setLeaderboard] = useState([]);
     const [activeTab, setActiveTab] = useState('dashboard');
@@ -16,14 +18,15 @@ export default function AdminDashboard({ onBack }) {
     const loadData = async () => {
         setLoading(true);
         try {
-            const [dashboardData, usersData, gamesData, leaderboardData] = await Promise.all([
+            const [dashboardData, usersPage, gamesData, leaderboardData] = await Promise.all([
                 AdminService.getDashboard(),
                 AdminService.getUsers(),
                 AdminService.getGames(),
                 AdminService.getLeaderboard()
             ]);
             setStats(dashboardData);
-            setUsers(usersData);
+            setUsers(usersPage.items);
+            setUsersCursor(usersPage.nextCursor);
             setGames(gamesData);
             setLeaderboard(leaderboardData);
         } catch (err) {
@@ -32,6 +35,29 @@ export default function AdminDashboard({ onBack }) {
         setLoading(false);
     };
 
+    const loadUsers = async (cursor, role) => {
+        try {
+            const page = await AdminService.getUsers(cursor, { role });
+            setUsers(cursor ? prev => [...prev, ...page.items] : page.items);
+            setUsersCursor(page.nextCursor);
+        } catch (err) {
+            console.error('Failed to load users:', err);
+        }
+    };
+
+    const handleRoleFilter = (role) => {
+        setRoleFilter(role);
+        loadUsers(null, role);
+    };
+
+    const handleExportUsers = async () => {
+        try {
+            await AdminService.exportUsers('csv', { role: roleFilter });
+        } catch (err) {
+            alert('Failed to export users');
+        }
+    };
+
     const handleDeleteUser = async (id, username) => {
         if (!confirm(`Delete user "${username}"?`)) return;
         try {
@@ -121,6 +147,17 @@ export default function AdminDashboard({ onBack }) {
 
                 {/* Users Tab */}
                 {activeTab === 'users' && (
+                    <>
+                    <div style={{ display: 'flex', justifyContent: 'space-between', marginBottom: '1rem' }}>
+                        <select value={roleFilter} onChange={e => handleRoleFilter(e.target.value)}>
+                            <option value="">All roles</option>
+                            <option value="USER">Users</option>
+                            <option value="ADMIN">Admins</option>
+                        </select>
+                        <button onClick={handleExportUsers} style={{ fontSize: '0.8rem', padding: '0.4rem 0.8rem' }}>
+                            Export CSV
+                        </button>
+                    </div>
                     <table style={{ width: '100%', borderCollapse: 'collapse' }}>
                         <thead>
                             <tr style={{ borderBottom: '1px solid #444' }}>
@@ -167,6 +204,12 @@ export default function AdminDashboard({ onBack }) {
                             ))}
                         </tbody>
                     </table>
+                    {usersCursor && (
+                        <button onClick={() => loadUsers(usersCursor, roleFilter)} style={{ marginTop: '1rem' }}>
+                            Load more
+                        </button>
+                    )}
+                    </>
                 )}
 
                 {/* Games Tab */}
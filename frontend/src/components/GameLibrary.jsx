@@ -37,14 +37,14 @@ export default function GameLibrary({ onSelectGame }) {
     }, []);
 
     const getHighScore = (gameId) => {
-        const gameScores = scores.filter(s => s.game.id === gameId);
+        const gameScores = scores.filter(s => s.gameId === gameId);
         if (gameScores.length === 0) return 'No plays yet';
         return Math.max(...gameScores.map(s => s.scoreValue));
     };
 
     // Get most recent play time for each game
     const getLastPlayedTime = (gameId) => {
-        const gameScores = scores.filter(s => s.game.id === gameId);
+        const gameScores = scores.filter(s => s.gameId === gameId);
         if (gameScores.length === 0) return null;
         // Scores should have a createdAt or timestamp field
         const times = gameScores.map(s => new Date(s.createdAt || s.playedAt || 0).getTime());
@@ -42,27 +42,38 @@ const getConnectFourBoard = () => {
     return Array.from({ length: 6 }, () => Array(7).fill(null));
 };
 
+const gameLabel = (game) => game ? `Playing ${game}` : 'Online';
+
 export default function OnlinePanel({ onStartMatch }) {
     const [onlineUsers, setOnlineUsers] = useState([]);
     const [matches, setMatches] = useState([]);
     const [challengeUser, setChallengeUser] = useState(null);
-    const heartbeatRef = useRef(null);
+    const refreshRef = useRef(null);
     const currentUser = AuthService.getCurrentUser();
 
     useEffect(() => {
         refreshData();
-        heartbeatRef.current = setInterval(() => {
-            SocialService.heartbeat().catch(console.error);
-            refreshData();
-        }, 30000);
+        refreshRef.current = setInterval(refreshData, 30000);
+
+        // Friends' presence is pushed; the list only changes when one of them does
+        const close = SocialService.streamPresence((name, data) => {
+            if (name === 'snapshot') {
+                setOnlineUsers(data);
+            } else if (name === 'presence') {
+                setOnlineUsers(prev => {
+                    const others = prev.filter(u => u.username !== data.username);
+                    return data.online ? [...others, data] : others;
+                });
+            }
+        });
 
         return () => {
-            if (heartbeatRef.current) clearInterval(heartbeatRef.current);
+            if (refreshRef.current) clearInterval(refreshRef.current);
+            close();
         };
     }, []);
 
     const refreshData = () => {
-        SocialService.getOnlineUsers().then(setOnlineUsers).catch(console.error);
         MatchService.getMyMatches().then(setMatches).catch(console.error);
     };
 
@@ -192,10 +203,10 @@ export default function OnlinePanel({ onStartMatch }) {
             <section style={{ background: 'rgba(255,255,255,0.03)', padding: '1rem', borderRadius: '12px', border: '1px solid rgba(255,255,255,0.05)' }}>
                 <h4 style={{ margin: '0 0 0.75rem 0', fontSize: '0.9rem', display: 'flex', alignItems: 'center', gap: '8px' }}>
                     <span style={{ width: '8px', height: '8px', background: '#42d392', borderRadius: '50%', animation: 'pulse 2s infinite' }}></span>
-                    Online Now ({onlineUsers.length})
+                    Friends Online ({onlineUsers.length})
                 </h4>
                 {onlineUsers.length === 0 ? (
-                    <p style={{ color: '#666', fontSize: '0.8rem', margin: 0 }}>No other players online</p>
+                    <p style={{ color: '#666', fontSize: '0.8rem', margin: 0 }}>No friends online</p>
                 ) : (
                     <div style={{ display: 'flex', flexDirection: 'column', gap: '6px' }}>
                         {onlineUsers.slice(0, 5).map(user => (
@@ -214,7 +225,7 @@ export default function OnlinePanel({ onStartMatch }) {
                                     </div>
                                     <div>
                                         <div style={{ fontSize: '0.85rem', fontWeight: '500' }}>{user.displayName || user.username}</div>
-                                        <div style={{ fontSize: '0.65rem', color: '#888' }}>Lvl {user.level}</div>
+                                        <div style={{ fontSize: '0.65rem', color: '#888' }}>Lvl {user.level} · {gameLabel(user.game)}</div>
                                     </div>
                                 </div>
                                 <button onClick={() => setChallengeUser(user.username)} style={{ fontSize: '0.7rem', padding: '4px 8px', background: '#e53e3e', color: 'white' }}>⚔️</button>
@@ -222,7 +233,7 @@ export default function OnlinePanel({ onStartMatch }) {
                         ))}
                         {onlineUsers.length > 5 && (
                             <div style={{ fontSize: '0.75rem', color: '#888', textAlign: 'center', marginTop: '4px' }}>
-                                +{onlineUsers.length - 5} more online
+                                +{onlineUsers.length - 5} more friends online
                             </div>
                         )}
                     </div>
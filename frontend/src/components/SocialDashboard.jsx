@@ -5,6 +5,7 @@ import { AuthService } from '../services/AuthService';
 export default function SocialDashboard({ onBack, onViewProfile }) {
     const [friends, setFriends] = useState([]);
     const [requests, setRequests] = useState([]);
+    const [suggestions, setSuggestions] = useState([]);
     const [searchQuery, setSearchQuery] = useState('');
     const [statusMsg, setStatusMsg] = useState('');
 
@@ -15,6 +16,17 @@ export default function SocialDashboard({ onBack, onViewProfile }) {
     const refreshData = () => {
         SocialService.getFriends().then(setFriends).catch(console.error);
         SocialService.getPendingRequests().then(setRequests).catch(console.error);
+        SocialService.getSuggestions().then(setSuggestions).catch(console.error);
+    };
+
+    const handleAddSuggestion = (username) => {
+        SocialService.sendFriendRequest(username)
+            .then(() => {
+                setSuggestions(prev => prev.filter(s => s.username !== username));
+                setStatusMsg(`Friend request sent to ${username}!`);
+                setTimeout(() => setStatusMsg(''), 3000);
+            })
+            .catch(err => setStatusMsg(`Error: ${err.message}`));
     };
 
     const handleSendRequest = (e) => {
@@ -131,6 +143,29 @@ export default function SocialDashboard({ onBack, onViewProfile }) {
                         </div>
                     </section>
 
+                    {suggestions.length > 0 && (
+                        <section style={{ marginTop: '2rem', background: 'rgba(255,255,255,0.05)', padding: '1.5rem', borderRadius: '12px' }}>
+                            <h3 style={{ marginTop: 0 }}>People You May Know</h3>
+                            <div style={{ display: 'flex', flexDirection: 'column', gap: '10px' }}>
+                                {suggestions.map(s => (
+                                    <div key={s.username} style={{ display: 'flex', alignItems: 'center', gap: '12px', padding: '10px', background: 'rgba(255,255,255,0.03)', borderRadius: '8px' }}>
+                                        <div style={{ fontSize: '1.2rem' }}>{s.avatarEmoji || s.username.charAt(0).toUpperCase()}</div>
+                                        <div style={{ flex: 1 }}>
+                                            <div style={{ fontWeight: 'bold', cursor: 'pointer' }} onClick={() => onViewProfile(s.username)}>{s.displayName || s.username}</div>
+                                            <div style={{ fontSize: '0.7rem', color: '#888' }}>
+                                                {[
+                                                    s.mutualFriends > 0 && `${s.mutualFriends} mutual friend${s.mutualFriends === 1 ? '' : 's'}`,
+                                                    s.coPlays > 0 && `played together ${s.coPlays}×`
+                                                ].filter(Boolean).join(' · ')}
+                                            </div>
+                                        </div>
+                                        <button style={{ fontSize: '0.7rem', padding: '4px 8px' }} onClick={() => handleAddSuggestion(s.username)}>Add</button>
+                                    </div>
+                                ))}
+                            </div>
+                        </section>
+                    )}
+
                     <section style={{ marginTop: '2rem', background: 'rgba(102,126,234,0.1)', padding: '1.5rem', borderRadius: '12px', border: '1px solid rgba(102,126,234,0.2)' }}>
                         <h3 style={{ marginTop: 0 }}>💡 Tip</h3>
                         <p style={{ color: '#a0aec0', fontSize: '0.9rem', margin: 0 }}>
@@ -7,6 +7,14 @@ const getAuthHeader = () => {
     return user ? user.authHeader : null;
 };
 
+const userParams = (filters) => {
+    const params = new URLSearchParams();
+    Object.entries(filters).forEach(([key, value]) => {
+        if (value !== undefined && value !== null && value !== '') params.set(key, value);
+    });
+    return params;
+};
+
 export const AdminService = {
     getDashboard: async () => {
         const response = await fetch(`${API_URL}/dashboard`, {
@@ -16,14 +24,33 @@ export const AdminService = {
         return response.json();
     },
 
-    getUsers: async () => {
-        const response = await fetch(`${API_URL}/users`, {
+    // One page of users; filters: { role, minScore, maxScore, activeWithinDays }
+    getUsers: async (cursor = null, filters = {}) => {
+        const params = userParams(filters);
+        if (cursor) params.set('cursor', cursor);
+        const response = await fetch(`${API_URL}/users?${params}`, {
             headers: { 'Authorization': getAuthHeader() }
         });
         if (!response.ok) throw new Error('Failed to fetch users');
         return response.json();
     },
 
+    // Downloads every matching user as users.csv or users.ndjson
+    exportUsers: async (format = 'csv', filters = {}) => {
+        const params = userParams(filters);
+        params.set('format', format);
+        const response = await fetch(`${API_URL}/users/export?${params}`, {
+            headers: { 'Authorization': getAuthHeader() }
+        });
+        if (!response.ok) throw new Error('Failed to export users');
+        const url = URL.createObjectURL(await response.blob());
+        const link = document.createElement('a');
+        link.href = url;
+        link.download = `users.${format}`;
+        link.click();
+        URL.revokeObjectURL(url);
+    },
+
     deleteUser: async (id) => {
         const response = await fetch(`${API_URL}/users/${id}`, {
             method: 'DELETE',
@@ -2,25 +2,72 @@ import { API_BASE_URL } from './config';
 
 const API_URL = `${API_BASE_URL}/api/auth`;
 
+// Renew the access token this long before it expires
+const REFRESH_MARGIN_MS = 60000;
+
+let refreshTimer = null;
+
+// Stores the user with the new tokens; authHeader stays a plain string so every service can read it synchronously
+const saveTokens = (tokens, previous = {}) => {
+    const userData = {
+        ...previous,
+        ...tokens.user,
+        authHeader: `Bearer ${tokens.accessToken}`,
+        refreshToken: tokens.refreshToken,
+        expiresAt: Date.now() + tokens.expiresIn * 1000
+    };
+    localStorage.setItem('user', JSON.stringify(userData));
+    scheduleRefresh(userData);
+    return userData;
+};
+
+const scheduleRefresh = (user) => {
+    clearTimeout(refreshTimer);
+    if (!user || !user.refreshToken) return;
+    const delay = Math.max(0, user.expiresAt - Date.now() - REFRESH_MARGIN_MS);
+    refreshTimer = setTimeout(() => AuthService.refresh().catch(console.error), delay);
+};
+
 export const AuthService = {
     login: async (username, password) => {
-        const authHeader = 'Basic ' + btoa(username + ':' + password);
-        const response = await fetch(`${API_URL}/me`, {
-            method: 'GET',
+        const response = await fetch(`${API_URL}/login`, {
+            method: 'POST',
             headers: {
-                'Authorization': authHeader
-            }
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ username, password })
         });
 
         if (response.ok) {
-            const user = await response.json();
-            const userData = { ...user, authHeader };
-            localStorage.setItem('user', JSON.stringify(userData));
-            return userData;
+            return saveTokens(await response.json());
         }
         throw new Error('Login failed');
     },
 
+    refresh: async () => {
+        const user = JSON.parse(localStorage.getItem('user'));
+        if (!user || !user.refreshToken) return null;
+        const response = await fetch(`${API_URL}/refresh`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ refreshToken: user.refreshToken })
+        });
+        if (response.status === 401) {
+            // Expired or revoked: back to the login screen
+            localStorage.removeItem('user');
+            window.location.reload();
+            return null;
+        }
+        if (!response.ok) {
+            // Server unavailable; try again shortly
+            refreshTimer = setTimeout(() => AuthService.refresh().catch(console.error), REFRESH_MARGIN_MS / 4);
+            return null;
+        }
+        return saveTokens(await response.json(), JSON.parse(localStorage.getItem('user')));
+    },
+
     signup: async (username, password) => {
         const response = await fetch(`${API_URL}/signup`, {
             method: 'POST',
@@ -38,6 +85,15 @@ export const AuthService = {
     },
 
     logout: () => {
+        const user = JSON.parse(localStorage.getItem('user'));
+        if (user) {
+            // Marks us offline right away instead of after the presence timeout
+            fetch(`${API_URL}/logout`, {
+                method: 'POST',
+                headers: { 'Authorization': user.authHeader }
+            }).catch(() => {});
+        }
+        clearTimeout(refreshTimer);
         localStorage.removeItem('user');
     },
 
@@ -53,11 +109,20 @@ export const AuthService = {
     updateCurrentUser: (updatedUser) => {
         const currentUser = JSON.parse(localStorage.getItem('user'));
         if (currentUser) {
-            // Preserve authHeader, update everything else
-            const mergedUser = { ...currentUser, ...updatedUser, authHeader: currentUser.authHeader };
+            // Preserve tokens, update everything else
+            const mergedUser = {
+                ...currentUser,
+                ...updatedUser,
+                authHeader: currentUser.authHeader,
+                refreshToken: currentUser.refreshToken,
+                expiresAt: currentUser.expiresAt
+            };
             localStorage.setItem('user', JSON.stringify(mergedUser));
             return mergedUser;
         }
         return null;
     }
 };
+
+// Pick up where a previous page load left off
+scheduleRefresh(AuthService.getCurrentUser());
@@ -32,6 +32,15 @@ export const SocialService = {
         return response.json();
     },
 
+    getSuggestions: async () => {
+        const authHeader = AuthService.getAuthHeader();
+        const response = await fetch(`${API_URL}/api/social/suggestions`, {
+            headers: authHeader ? { 'Authorization': authHeader } : {}
+        });
+        if (!response.ok) throw new Error('Failed to fetch suggestions');
+        return response.json();
+    },
+
     sendFriendRequest: async (username) => {
         const authHeader = AuthService.getAuthHeader();
         const response = await fetch(`${API_URL}/api/social/request/${username}`, {
@@ -74,11 +83,57 @@ export const SocialService = {
         return response.json();
     },
 
-    heartbeat: async () => {
+    heartbeat: async (game) => {
         const authHeader = AuthService.getAuthHeader();
-        await fetch(`${API_URL}/api/social/heartbeat`, {
+        const query = game ? `?game=${encodeURIComponent(game)}` : '';
+        const response = await fetch(`${API_URL}/api/social/heartbeat${query}`, {
             method: 'POST',
             headers: authHeader ? { 'Authorization': authHeader } : {}
         });
+        if (!response.ok) throw new Error('Failed to send heartbeat');
+    },
+
+    // Friends' presence as server-sent events: one 'snapshot' (array), then 'presence' deltas.
+    // EventSource cannot send the Authorization header, so the stream is read with fetch.
+    // Returns a function that closes the stream; it reconnects on its own until then.
+    streamPresence: (onEvent) => {
+        const controller = new AbortController();
+        const connect = async () => {
+            while (!controller.signal.aborted) {
+                try {
+                    const authHeader = AuthService.getAuthHeader();
+                    const response = await fetch(`${API_URL}/api/social/presence/stream`, {
+                        headers: authHeader ? { 'Authorization': authHeader } : {},
+                        signal: controller.signal
+                    });
+                    if (!response.ok) throw new Error('Failed to open presence stream');
+                    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                    let buffer = '';
+                    for (;;) {
+                        const { value, done } = await reader.read();
+                        if (done) break;
+                        buffer += value;
+                        let end;
+                        while ((end = buffer.indexOf('\n\n')) >= 0) {
+                            const block = buffer.slice(0, end);
+                            buffer = buffer.slice(end + 2);
+                            let name = 'message';
+                            const data = [];
+                            for (const line of block.split('\n')) {
+                                if (line.startsWith('event:')) name = line.slice(6).trim();
+                                else if (line.startsWith('data:')) data.push(line.slice(5));
+                            }
+                            if (data.length) onEvent(name, JSON.parse(data.join('\n')));
+                        }
+                    }
+                } catch (err) {
+                    if (controller.signal.aborted) return;
+                    console.error(err);
+                }
+                await new Promise(resolve => setTimeout(resolve, 5000));
+            }
+        };
+        connect();
+        return () => controller.abort();
     }
 };